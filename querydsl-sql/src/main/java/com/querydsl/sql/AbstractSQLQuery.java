@@ -21,16 +21,21 @@ import com.querydsl.core.types.dsl.Expressions;
 import com.querydsl.core.types.dsl.SimpleExpression;
 import com.querydsl.core.types.dsl.Wildcard;
 import com.querydsl.core.util.ResultSetAdapter;
-import java.lang.reflect.InvocationTargetException;
+import com.querydsl.sql.types.Type;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -46,8 +51,18 @@ import org.jetbrains.annotations.Nullable;
 public abstract class AbstractSQLQuery<T, Q extends AbstractSQLQuery<T, Q>>
     extends ProjectableSQLQuery<T, Q> {
 
-  protected static final String PARENT_CONTEXT =
-      AbstractSQLQuery.class.getName() + "#PARENT_CONTEXT";
+  /**
+   * Key of the {@link SQLListenerContext} data entry holding the enclosing context of a statement,
+   * such as the context of a {@link #fetchResults()} call or of an asynchronous execution
+   */
+  public static final String PARENT_CONTEXT = AbstractSQLQuery.class.getName() + "#PARENT_CONTEXT";
+
+  /**
+   * Key of the {@link SQLListenerContext} data entry holding the {@link Long} amount of rows read
+   * by a query or affected by a DML clause. The entry is set before {@link
+   * SQLDetailedListener#end(SQLListenerContext)} is called, if the amount is known.
+   */
+  public static final String ROW_COUNT = AbstractSQLQuery.class.getName() + "#ROW_COUNT";
 
   private static final Logger logger = Logger.getLogger(AbstractSQLQuery.class.getName());
 
@@ -62,6 +77,8 @@ public abstract class AbstractSQLQuery<T, Q extends AbstractSQLQuery<T, Q>>
 
   protected boolean useLiterals;
 
+  protected boolean useSerializationCache = true;
+
   private boolean getLastCell;
 
   private Object lastCell;
@@ -193,15 +210,35 @@ public abstract class AbstractSQLQuery<T, Q extends AbstractSQLQuery<T, Q>>
     return serializer;
   }
 
-  @Nullable
-  private <U> U get(ResultSet rs, Expression<?> expr, int i, Class<U> type) throws SQLException {
-    return configuration.get(rs, expr instanceof Path ? (Path<?>) expr : null, i, type);
-  }
-
   private void set(PreparedStatement stmt, Path<?> path, int i, Object value) throws SQLException {
     configuration.set(stmt, path, i, value);
   }
 
+  @Override
+  protected SQLSerializer serialize(boolean forCountRow) {
+    return serialize(forCountRow, null);
+  }
+
+  private SQLSerializer serialize(boolean forCountRow, @Nullable SQLListenerContext context) {
+    SQLSerializationCache cache = configuration.getSerializationCache();
+    if (cache == null || !useSerializationCache || useLiterals || union != null) {
+      return super.serialize(forCountRow);
+    }
+    SQLSerializer serializer = createSerializer();
+    QueryShape shape =
+        QueryShape.builder()
+            .token(serializer.getClass())
+            .token(forCountRow)
+            .metadata(queryMixin.getMetadata())
+            .build();
+    boolean hit =
+        cache.serialize(shape, serializer, s -> s.serialize(queryMixin.getMetadata(), forCountRow));
+    if (context != null) {
+      context.setData(SQLSerializationCache.CACHE_HIT, hit);
+    }
+    return serializer;
+  }
+
   /**
    * Called to create and start a new SQL Listener context
    *
@@ -266,7 +303,7 @@ public abstract class AbstractSQLQuery<T, Q extends AbstractSQLQuery<T, Q>>
 
     try {
       listeners.preRender(context);
-      SQLSerializer serializer = serialize(false);
+      SQLSerializer serializer = serialize(false, context);
       queryString = serializer.toString();
       logQuery(queryString, serializer.getConstants());
       context.addSQL(getSQL(serializer));
@@ -307,22 +344,40 @@ public abstract class AbstractSQLQuery<T, Q extends AbstractSQLQuery<T, Q>>
   }
 
   private PreparedStatement getPreparedStatement(String queryString) throws SQLException {
-    PreparedStatement statement = connection().prepareStatement(queryString);
-    if (statementOptions.getFetchSize() != null) {
-      statement.setFetchSize(statementOptions.getFetchSize());
-    }
-    if (statementOptions.getMaxFieldSize() != null) {
-      statement.setMaxFieldSize(statementOptions.getMaxFieldSize());
-    }
-    if (statementOptions.getQueryTimeout() != null) {
-      statement.setQueryTimeout(statementOptions.getQueryTimeout());
-    }
-    if (statementOptions.getMaxRows() != null) {
-      statement.setMaxRows(statementOptions.getMaxRows());
-    }
+    SQLStatementCache cache = configuration.getStatementCache();
+    PreparedStatement statement =
+        cache != null
+            ? cache.prepareStatement(connection(), queryString)
+            : connection().prepareStatement(queryString);
+    statementOptions.applyTo(statement);
     return statement;
   }
 
+  /**
+   * Serialize the query once and return a reusable form of it. The returned query keeps the SQL
+   * string, the bindings and the row reader, so that subsequent executions only need to bind the
+   * values of {@link ParamExpression}s.
+   *
+   * @return prepared query
+   */
+  @SuppressWarnings("unchecked")
+  public PreparedSQLQuery<T> prepare() {
+    Supplier<Connection> connection = connProvider;
+    if (conn != null) {
+      final Connection c = conn;
+      connection = () -> c;
+    }
+    QueryMetadata metadata = queryMixin.getMetadata().clone();
+    return new PreparedSQLQuery<T>(
+        configuration,
+        new SQLListeners(listeners),
+        connection,
+        metadata,
+        (Expression<T>) metadata.getProjection(),
+        serialize(false),
+        statementOptions);
+  }
+
   protected Configuration getConfiguration() {
     return configuration;
   }
@@ -330,20 +385,211 @@ public abstract class AbstractSQLQuery<T, Q extends AbstractSQLQuery<T, Q>>
   @SuppressWarnings("unchecked")
   @Override
   public CloseableIterator<T> iterate() {
-    Expression<T> expr = (Expression<T>) queryMixin.getMetadata().getProjection();
-    return iterateSingle(queryMixin.getMetadata(), expr);
+    final Expression<T> expr = (Expression<T>) queryMixin.getMetadata().getProjection();
+    return iterateSingle(
+        queryMixin.getMetadata(),
+        (stmt, rs, context) -> {
+          final RowReader<T> reader = RowReader.create(configuration, expr);
+          return new SQLResultIterator<T>(configuration, stmt, rs, listeners, context) {
+            @Override
+            public T produceNext(ResultSet rs) throws Exception {
+              return reader.read(rs);
+            }
+          };
+        });
+  }
+
+  /**
+   * Get the projection as an iterator of column oriented batches. Each batch holds up to {@code
+   * batchSize} rows, see {@link ColumnBatch} for the storage of the columns.
+   *
+   * <pre>{@code
+   * try (CloseableIterator<ColumnBatch> batches =
+   *     query.select(employee.id, employee.salary).from(employee).fetchColumnar(4096)) {
+   *   while (batches.hasNext()) {
+   *     ColumnBatch batch = batches.next();
+   *     long[] ids = batch.getLongs(0);
+   *     ...
+   *   }
+   * }
+   * }</pre>
+   *
+   * @param batchSize maximum amount of rows per batch
+   * @return closeable iterator of batches
+   */
+  public CloseableIterator<ColumnBatch> fetchColumnar(final int batchSize) {
+    if (batchSize < 1) {
+      throw new IllegalArgumentException("batchSize needs to be positive, got " + batchSize);
+    }
+    final Expression<?> expr = queryMixin.getMetadata().getProjection();
+    return iterateSingle(
+        queryMixin.getMetadata(),
+        (stmt, rs, context) -> {
+          final Type<?>[] types = RowReader.getTypes(configuration, expr, rs);
+          return new SQLResultIterator<ColumnBatch>(configuration, stmt, rs, listeners, context) {
+            private boolean exhausted;
+
+            @Override
+            public boolean hasNext() {
+              return !exhausted && super.hasNext();
+            }
+
+            @Override
+            public ColumnBatch produceNext(ResultSet rs) throws Exception {
+              ColumnBatch batch = new ColumnBatch(types, expr, batchSize);
+              batch.add(rs);
+              while (batch.size() < batchSize) {
+                if (rs.next()) {
+                  batch.add(rs);
+                } else {
+                  exhausted = true;
+                  break;
+                }
+              }
+              addRows(batch.size() - 1);
+              return batch;
+            }
+          };
+        });
+  }
+
+  /**
+   * Asynchronously get the projection as a typed List, executed on the executor of the {@link
+   * Configuration}
+   *
+   * @return future of the results
+   * @see #fetch()
+   */
+  public CompletableFuture<List<T>> fetchAsync() {
+    return supplyAsync(this::fetch);
+  }
+
+  /**
+   * Asynchronously get the projection as a unique result or null if no result is found, executed on
+   * the executor of the {@link Configuration}
+   *
+   * @return future of the result, which fails with a {@link NonUniqueResultException} if there is
+   *     more than one matching result
+   * @see #fetchOne()
+   */
+  public CompletableFuture<T> fetchOneAsync() {
+    return supplyAsync(this::fetchOne);
+  }
+
+  /**
+   * Run the given action on the executor of the configuration.
+   *
+   * <p>The listener context of the asynchronous execution is started on the calling thread and is
+   * available to the contexts of the executed statements as {@link #PARENT_CONTEXT}. The connection
+   * is obtained on the executing thread. The query must not be modified until the future is
+   * completed.
+   */
+  private <R> CompletableFuture<R> supplyAsync(Supplier<R> action) {
+    final SQLListenerContextImpl context = new SQLListenerContextImpl(queryMixin.getMetadata());
+    listeners.start(context);
+    try {
+      return CompletableFuture.supplyAsync(
+          () -> {
+            parentContext = context;
+            try {
+              return action.get();
+            } catch (RuntimeException e) {
+              onException(context, e);
+              throw e;
+            } finally {
+              parentContext = null;
+              context.setConnection(conn);
+              endContext(context);
+            }
+          },
+          configuration.getExecutor());
+    } catch (RuntimeException e) {
+      onException(context, e);
+      endContext(context);
+      throw e;
+    }
   }
 
+  /**
+   * Get the projection as a {@link Flow.Publisher}, executed on the executor of the {@link
+   * Configuration}
+   *
+   * @return publisher
+   * @see #publish(Executor)
+   */
+  public Flow.Publisher<T> publish() {
+    return publish(configuration.getExecutor());
+  }
+
+  /**
+   * Get the projection as a {@link Flow.Publisher}.
+   *
+   * <p>Each subscription executes the query on the given executor when the first element is
+   * requested, the query must not be modified afterwards. Rows are read from the result set only
+   * while the subscriber has outstanding demand, and the fetch size follows the demand unless a
+   * fetch size is set in the {@link StatementOptions}. Cancelling the subscription cancels and
+   * closes the statement. The listener lifecycle is the same as for {@link #iterate()}.
+   *
+   * @param executor executor for reading the results
+   * @return publisher
+   */
   @SuppressWarnings("unchecked")
-  private CloseableIterator<T> iterateSingle(
-      QueryMetadata metadata, @Nullable final Expression<T> expr) {
+  public Flow.Publisher<T> publish(Executor executor) {
+    final Expression<T> expr = (Expression<T>) queryMixin.getMetadata().getProjection();
+    return new SQLQueryPublisher<T>(
+        executor,
+        cursor ->
+            iterateSingle(
+                queryMixin.getMetadata(),
+                new ResultIteratorFactory<T>() {
+                  @Override
+                  public void prepared(PreparedStatement stmt) throws SQLException {
+                    cursor.prepared(stmt);
+                  }
+
+                  @Override
+                  public CloseableIterator<T> create(
+                      PreparedStatement stmt, ResultSet rs, SQLListenerContextImpl context)
+                      throws SQLException {
+                    cursor.executed(rs);
+                    final RowReader<T> reader = RowReader.create(configuration, expr);
+                    return new SQLResultIterator<T>(configuration, stmt, rs, listeners, context) {
+                      @Override
+                      public T produceNext(ResultSet rs) throws Exception {
+                        return reader.read(rs);
+                      }
+                    };
+                  }
+                }),
+        statementOptions.getFetchSize() == null);
+  }
+
+  /** Factory for the iterator over the result set of an executed query */
+  @FunctionalInterface
+  private interface ResultIteratorFactory<U> {
+
+    /**
+     * Called before the statement is executed
+     *
+     * @param stmt statement
+     * @throws SQLException
+     */
+    default void prepared(PreparedStatement stmt) throws SQLException {}
+
+    CloseableIterator<U> create(
+        PreparedStatement stmt, ResultSet rs, SQLListenerContextImpl context) throws SQLException;
+  }
+
+  private <U> CloseableIterator<U> iterateSingle(
+      QueryMetadata metadata, ResultIteratorFactory<U> factory) {
     SQLListenerContextImpl context = startContext(connection(), queryMixin.getMetadata());
     String queryString = null;
     List<Object> constants = Collections.emptyList();
+    PreparedStatement stmt = null;
 
     try {
       listeners.preRender(context);
-      SQLSerializer serializer = serialize(false);
+      SQLSerializer serializer = serialize(false, context);
       queryString = serializer.toString();
       logQuery(queryString, serializer.getConstants());
       context.addSQL(getSQL(serializer));
@@ -353,56 +599,27 @@ public abstract class AbstractSQLQuery<T, Q extends AbstractSQLQuery<T, Q>>
       constants = serializer.getConstants();
 
       listeners.prePrepare(context);
-      final PreparedStatement stmt = getPreparedStatement(queryString);
+      stmt = getPreparedStatement(queryString);
       setParameters(stmt, constants, serializer.getConstantPaths(), metadata.getParams());
       context.addPreparedStatement(stmt);
       listeners.prepared(context);
+      factory.prepared(stmt);
 
       listeners.preExecute(context);
       final ResultSet rs = stmt.executeQuery();
       listeners.executed(context);
 
-      if (expr == null) {
-        return new SQLResultIterator<T>(configuration, stmt, rs, listeners, context) {
-          @Override
-          public T produceNext(ResultSet rs) throws Exception {
-            return (T) rs.getObject(1);
-          }
-        };
-      } else if (expr instanceof FactoryExpression) {
-        return new SQLResultIterator<T>(configuration, stmt, rs, listeners, context) {
-          @Override
-          public T produceNext(ResultSet rs) throws Exception {
-            return newInstance((FactoryExpression<T>) expr, rs, 0);
-          }
-        };
-      } else if (expr.equals(Wildcard.all)) {
-        return new SQLResultIterator<T>(configuration, stmt, rs, listeners, context) {
-          @Override
-          public T produceNext(ResultSet rs) throws Exception {
-            Object[] rv = new Object[rs.getMetaData().getColumnCount()];
-            for (int i = 0; i < rv.length; i++) {
-              rv[i] = rs.getObject(i + 1);
-            }
-            return (T) rv;
-          }
-        };
-      } else {
-        return new SQLResultIterator<T>(configuration, stmt, rs, listeners, context) {
-          @Override
-          public T produceNext(ResultSet rs) throws Exception {
-            return get(rs, expr, 1, expr.getType());
-          }
-        };
-      }
+      return factory.create(stmt, rs, context);
 
     } catch (SQLException e) {
       onException(context, e);
+      close(stmt);
       endContext(context);
       throw configuration.translate(queryString, constants, e);
     } catch (RuntimeException e) {
       logger.log(Level.SEVERE, "Caught " + e.getClass().getName() + " for " + queryString);
       onException(context, e);
+      close(stmt);
       endContext(context);
       throw e;
     } finally {
@@ -410,17 +627,122 @@ public abstract class AbstractSQLQuery<T, Q extends AbstractSQLQuery<T, Q>>
     }
   }
 
+  private static void close(@Nullable Statement stmt) {
+    if (stmt != null) {
+      try {
+        stmt.close();
+      } catch (SQLException e) {
+        logger.log(Level.WARNING, "Caught " + e.getClass().getName() + " on close", e);
+      }
+    }
+  }
+
   @SuppressWarnings("unchecked")
   @Override
   public List<T> fetch() {
-    Expression<T> expr = (Expression<T>) queryMixin.getMetadata().getProjection();
+    final Expression<T> expr = (Expression<T>) queryMixin.getMetadata().getProjection();
+    final List<T> rv = new ArrayList<T>();
+    execute(
+        (rs, sql, constants) -> {
+          lastCell = null;
+          RowReader<T> reader = RowReader.create(configuration, expr);
+          while (rs.next()) {
+            if (getLastCell) {
+              lastCell = rs.getObject(RowReader.nextCellIndex(expr, rs));
+              getLastCell = false;
+            }
+            rv.add(reader.read(rs));
+          }
+          return rv.size();
+        });
+    return rv;
+  }
+
+  /**
+   * Pass the projection of each row to the given handler, without collecting the results.
+   *
+   * <p>The rows are read as the handler consumes them, in chunks of the fetch size of the {@link
+   * StatementOptions}, and the statement is closed when this method returns. For bean and
+   * constructor projections the array of projection arguments is reused between rows.
+   *
+   * @param handler row handler
+   */
+  @SuppressWarnings("unchecked")
+  public void forEach(RowHandler<? super T> handler) {
+    final Expression<T> expr = (Expression<T>) queryMixin.getMetadata().getProjection();
+    execute(
+        (rs, sql, constants) -> {
+          RowReader<T> reader = RowReader.create(configuration, expr, true);
+          long rows = 0;
+          while (rs.next()) {
+            handler.handle(reader.read(rs));
+            rows++;
+          }
+          return rows;
+        });
+  }
+
+  /**
+   * Pass the projection of each row to the given consumer, without collecting the results.
+   *
+   * @param consumer consumer
+   * @see #forEach(RowHandler)
+   */
+  public void fetchInto(Consumer<? super T> consumer) {
+    forEach(consumer::accept);
+  }
+
+  /**
+   * Pass each row of the result to the given consumer.
+   *
+   * <p>The columns of the {@link ResultRow} are the arguments of the projection and are read on
+   * demand, which allows numeric projections to be consumed without boxing:
+   *
+   * <pre>{@code
+   * double[] salaries = new double[n];
+   * int[] i = {0};
+   * query.select(employee.salary).from(employee).fetchRows(row -> salaries[i[0]++] = row.getDouble(0));
+   * }</pre>
+   *
+   * @param consumer row consumer
+   */
+  public void fetchRows(Consumer<? super ResultRow> consumer) {
+    final Expression<?> expr = queryMixin.getMetadata().getProjection();
+    execute(
+        (rs, sql, constants) -> {
+          ResultRow row =
+              new ResultSetRow(
+                  configuration, rs, RowReader.getTypes(configuration, expr, rs), sql, constants);
+          long rows = 0;
+          while (rs.next()) {
+            consumer.accept(row);
+            rows++;
+          }
+          return rows;
+        });
+  }
+
+  /** Callback for the result set of an executed query */
+  @FunctionalInterface
+  private interface ResultSetHandler {
+
+    /**
+     * Handle the result set
+     *
+     * @return amount of rows read
+     */
+    long handle(ResultSet rs, String sql, List<Object> constants)
+        throws SQLException, ReflectiveOperationException;
+  }
+
+  private void execute(ResultSetHandler handler) {
     SQLListenerContextImpl context = startContext(connection(), queryMixin.getMetadata());
     String queryString = null;
     List<Object> constants = Collections.emptyList();
 
     try {
       listeners.preRender(context);
-      SQLSerializer serializer = serialize(false);
+      SQLSerializer serializer = serialize(false, context);
       queryString = serializer.toString();
       logQuery(queryString, serializer.getConstants());
       context.addSQL(getSQL(serializer));
@@ -439,40 +761,8 @@ public abstract class AbstractSQLQuery<T, Q extends AbstractSQLQuery<T, Q>>
         listeners.preExecute(context);
         try (ResultSet rs = stmt.executeQuery()) {
           listeners.executed(context);
-          lastCell = null;
-          final List<T> rv = new ArrayList<T>();
-          if (expr instanceof FactoryExpression) {
-            FactoryExpression<T> fe = (FactoryExpression<T>) expr;
-            while (rs.next()) {
-              if (getLastCell) {
-                lastCell = rs.getObject(fe.getArgs().size() + 1);
-                getLastCell = false;
-              }
-              rv.add(newInstance(fe, rs, 0));
-            }
-          } else if (expr.equals(Wildcard.all)) {
-            while (rs.next()) {
-              Object[] row = new Object[rs.getMetaData().getColumnCount()];
-              if (getLastCell) {
-                lastCell = rs.getObject(row.length);
-                getLastCell = false;
-              }
-              for (int i = 0; i < row.length; i++) {
-                row[i] = rs.getObject(i + 1);
-              }
-              rv.add((T) row);
-            }
-          } else {
-            while (rs.next()) {
-              if (getLastCell) {
-                lastCell = rs.getObject(2);
-                getLastCell = false;
-              }
-              rv.add(get(rs, expr, 1, expr.getType()));
-            }
-          }
-          return rv;
-        } catch (IllegalAccessException | InstantiationException | InvocationTargetException e) {
+          context.setData(ROW_COUNT, handler.handle(rs, queryString, constants));
+        } catch (ReflectiveOperationException e) {
           onException(context, e);
           throw new QueryException(e);
         } catch (SQLException e) {
@@ -496,8 +786,7 @@ public abstract class AbstractSQLQuery<T, Q extends AbstractSQLQuery<T, Q>>
     Expression<T> expr = (Expression<T>) queryMixin.getMetadata().getProjection();
     QueryModifiers originalModifiers = queryMixin.getMetadata().getModifiers();
     try {
-      if (configuration.getTemplates().isCountViaAnalytics()
-          && queryMixin.getMetadata().getGroupBy().isEmpty()) {
+      if (isCountViaAnalytics(queryMixin.getMetadata())) {
         List<T> results;
         try {
           queryMixin.addFlag(rowCountFlag);
@@ -513,6 +802,8 @@ public abstract class AbstractSQLQuery<T, Q extends AbstractSQLQuery<T, Q>>
           } else {
             throw new IllegalStateException("Unsupported lastCell instance " + lastCell);
           }
+        } else if (originalModifiers.getOffset() == null || originalModifiers.getOffset() == 0) {
+          total = 0;
         } else {
           total = fetchCount();
         }
@@ -536,16 +827,113 @@ public abstract class AbstractSQLQuery<T, Q extends AbstractSQLQuery<T, Q>>
     }
   }
 
-  private <RT> RT newInstance(FactoryExpression<RT> c, ResultSet rs, int offset)
-      throws InstantiationException,
-          IllegalAccessException,
-          InvocationTargetException,
-          SQLException {
-    Object[] args = new Object[c.getArgs().size()];
-    for (int i = 0; i < args.length; i++) {
-      args[i] = get(rs, c.getArgs().get(i), offset + i + 1, c.getArgs().get(i).getType());
+  /**
+   * Get whether the total count can be read from a {@code count(*) over()} column of the result
+   * rows. The window count is applied before distinct and is computed per group for grouped
+   * queries, so those use a separate count query.
+   */
+  private boolean isCountViaAnalytics(QueryMetadata metadata) {
+    return configuration.getTemplates().isCountViaAnalytics()
+        && metadata.getGroupBy().isEmpty()
+        && !metadata.isDistinct();
+  }
+
+  /**
+   * Get the projection in {@link QuerySlice} form.
+   *
+   * <p>Instead of counting the total amount of results one more row than the limit is fetched to
+   * determine whether there is a next slice.
+   *
+   * @return results
+   * @throws IllegalStateException if no limit is set
+   */
+  public QuerySlice<T> fetchSlice() {
+    QueryModifiers originalModifiers = queryMixin.getMetadata().getModifiers();
+    Long limit = originalModifiers.getLimit();
+    if (limit == null) {
+      throw new IllegalStateException("fetchSlice requires a limit");
+    }
+    List<T> results;
+    try {
+      queryMixin.restrict(new QueryModifiers(probeLimit(limit), originalModifiers.getOffset()));
+      results = fetch();
+    } finally {
+      queryMixin.restrict(originalModifiers);
+    }
+    boolean hasNext = results.size() > limit;
+    if (hasNext) {
+      results = new ArrayList<T>(results.subList(0, limit.intValue()));
+    }
+    return new QuerySlice<T>(results, originalModifiers, hasNext);
+  }
+
+  /**
+   * Get the projection in {@link KeysetSlice} form.
+   *
+   * <p>The values of the order expressions are fetched along with the projection, and the values of
+   * the last row are returned as the keyset of the next slice. The next slice is fetched by running
+   * the query with {@link #seek(Keyset)} instead of an offset:
+   *
+   * <pre>{@code
+   * KeysetSlice<String> slice = query.select(employee.lastname).from(employee)
+   *     .orderBy(employee.lastname.asc(), employee.id.asc()).seek(token).limit(100)
+   *     .fetchKeysetSlice();
+   * token = slice.getNext();
+   * }</pre>
+   *
+   * <p>One more row than the limit is fetched to determine whether there is a next slice.
+   *
+   * @return results
+   * @throws IllegalStateException if no limit, order or projection is set
+   */
+  @SuppressWarnings("unchecked")
+  public KeysetSlice<T> fetchKeysetSlice() {
+    QueryMetadata metadata = queryMixin.getMetadata();
+    QueryModifiers originalModifiers = metadata.getModifiers();
+    Long limit = originalModifiers.getLimit();
+    Expression<T> projection = (Expression<T>) metadata.getProjection();
+    List<OrderSpecifier<?>> order = metadata.getOrderBy();
+    if (limit == null) {
+      throw new IllegalStateException("fetchKeysetSlice requires a limit");
+    } else if (order.isEmpty()) {
+      throw new IllegalStateException("fetchKeysetSlice requires an order");
+    } else if (projection == null || projection.equals(Wildcard.all)) {
+      throw new IllegalStateException("fetchKeysetSlice requires an explicit projection");
+    }
+    List<Expression<?>> columns = new ArrayList<>(order.size() + 1);
+    columns.add(projection);
+    for (OrderSpecifier<?> specifier : order) {
+      columns.add(specifier.getTarget());
+    }
+    List<Tuple> rows;
+    try {
+      queryMixin.setProjection(Projections.tuple(columns));
+      queryMixin.restrict(new QueryModifiers(probeLimit(limit), originalModifiers.getOffset()));
+      rows = (List<Tuple>) fetch();
+    } finally {
+      metadata.setProjection(projection);
+      queryMixin.restrict(originalModifiers);
+    }
+    int size = (int) Math.min(rows.size(), limit);
+    List<T> results = new ArrayList<T>(size);
+    for (int i = 0; i < size; i++) {
+      results.add((T) rows.get(i).get(0, Object.class));
     }
-    return c.newInstance(args);
+    Keyset next = null;
+    if (rows.size() > limit && size > 0) {
+      Tuple last = rows.get(size - 1);
+      Object[] values = new Object[order.size()];
+      for (int i = 0; i < values.length; i++) {
+        values[i] = last.get(i + 1, Object.class);
+      }
+      next = Keyset.of(values);
+    }
+    return new KeysetSlice<T>(results, next);
+  }
+
+  /** Get the limit which fetches one more row than the given limit, if there is such a row */
+  private static long probeLimit(long limit) {
+    return limit == Long.MAX_VALUE ? limit : limit + 1;
   }
 
   private void reset() {}
@@ -584,7 +972,7 @@ public abstract class AbstractSQLQuery<T, Q extends AbstractSQLQuery<T, Q>>
 
     try {
       listeners.preRender(context);
-      SQLSerializer serializer = serialize(true);
+      SQLSerializer serializer = serialize(true, context);
       queryString = serializer.toString();
       logQuery(queryString, serializer.getConstants());
       context.addSQL(getSQL(serializer));
@@ -603,6 +991,7 @@ public abstract class AbstractSQLQuery<T, Q extends AbstractSQLQuery<T, Q>>
       rs = stmt.executeQuery();
       boolean hasResult = rs.next();
       listeners.executed(context);
+      context.setData(ROW_COUNT, hasResult ? 1L : 0L);
 
       if (hasResult) {
         return rs.getLong(1);
@@ -656,10 +1045,24 @@ public abstract class AbstractSQLQuery<T, Q extends AbstractSQLQuery<T, Q>>
     this.useLiterals = useLiterals;
   }
 
+  /**
+   * Set whether the serialization cache of the configuration is used for this query (default: true)
+   *
+   * <p>The cache is never used for queries with literals, disabling it is useful for dynamically
+   * built queries which are unlikely to be repeated.
+   *
+   * @param useSerializationCache true to use the cache and false to always serialize
+   * @see Configuration#setSerializationCache(SQLSerializationCache)
+   */
+  public void setUseSerializationCache(boolean useSerializationCache) {
+    this.useSerializationCache = useSerializationCache;
+  }
+
   @Override
   protected void clone(Q query) {
     super.clone(query);
     this.useLiterals = query.useLiterals;
+    this.useSerializationCache = query.useSerializationCache;
     this.listeners = new SQLListeners(query.listeners);
   }
 
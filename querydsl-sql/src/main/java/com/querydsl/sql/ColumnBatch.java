@@ -0,0 +1,227 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql;
+
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.FactoryExpression;
+import com.querydsl.sql.types.Type;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.BitSet;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * {@code ColumnBatch} holds a batch of result rows in column oriented form.
+ *
+ * <p>Each column of the projection is stored in a single array, which is chosen by the type of the
+ * projection argument:
+ *
+ * <ul>
+ *   <li>{@code long[]} for Long, Integer, Short and Byte columns
+ *   <li>{@code double[]} for Double and Float columns
+ *   <li>{@code String[]} for String columns
+ *   <li>{@code Object[]} for all other columns
+ * </ul>
+ *
+ * <p>SQL NULL values are marked in a null bitmap per column, the corresponding array element is 0
+ * or null. The arrays have the capacity of the batch size, only the first {@link #size()} elements
+ * are valid.
+ *
+ * @see AbstractSQLQuery#fetchColumnar(int)
+ */
+public final class ColumnBatch {
+
+  private final Type<?>[] types;
+
+  private final Class<?>[] columnTypes;
+
+  private final Object[] columns;
+
+  private final BitSet[] nulls;
+
+  private int size;
+
+  ColumnBatch(Type<?>[] types, @Nullable Expression<?> expr, int capacity) {
+    this.types = types;
+    this.columnTypes = new Class<?>[types.length];
+    this.columns = new Object[types.length];
+    this.nulls = new BitSet[types.length];
+    for (int i = 0; i < types.length; i++) {
+      Class<?> columnType = getColumnType(getArgType(expr, i));
+      columnTypes[i] = columnType;
+      if (columnType == long.class) {
+        columns[i] = new long[capacity];
+      } else if (columnType == double.class) {
+        columns[i] = new double[capacity];
+      } else if (columnType == String.class) {
+        columns[i] = new String[capacity];
+      } else {
+        columns[i] = new Object[capacity];
+      }
+      nulls[i] = new BitSet(capacity);
+    }
+  }
+
+  private static Class<?> getArgType(@Nullable Expression<?> expr, int i) {
+    if (expr instanceof FactoryExpression) {
+      return ((FactoryExpression<?>) expr).getArgs().get(i).getType();
+    } else if (expr != null && i == 0) {
+      return expr.getType();
+    } else {
+      return Object.class;
+    }
+  }
+
+  private static Class<?> getColumnType(Class<?> type) {
+    if (type == Long.class || type == Integer.class || type == Short.class || type == Byte.class) {
+      return long.class;
+    } else if (type == Double.class || type == Float.class) {
+      return double.class;
+    } else if (type == String.class) {
+      return String.class;
+    } else {
+      return Object.class;
+    }
+  }
+
+  /**
+   * Append the current row of the result set
+   *
+   * @param rs result set positioned on a row
+   * @throws SQLException
+   */
+  void add(ResultSet rs) throws SQLException {
+    for (int i = 0; i < types.length; i++) {
+      Class<?> columnType = columnTypes[i];
+      boolean isNull;
+      if (columnType == long.class) {
+        ((long[]) columns[i])[size] = types[i].getLong(rs, i + 1);
+        isNull = rs.wasNull();
+      } else if (columnType == double.class) {
+        ((double[]) columns[i])[size] = types[i].getDouble(rs, i + 1);
+        isNull = rs.wasNull();
+      } else {
+        Object value = types[i].getValue(rs, i + 1);
+        ((Object[]) columns[i])[size] = value;
+        isNull = value == null;
+      }
+      if (isNull) {
+        nulls[i].set(size);
+      }
+    }
+    size++;
+  }
+
+  /**
+   * Get the amount of rows in this batch
+   *
+   * @return row count
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Get the amount of columns
+   *
+   * @return column count
+   */
+  public int getColumnCount() {
+    return columns.length;
+  }
+
+  /**
+   * Get the storage type of the given column, one of {@code long.class}, {@code double.class},
+   * {@code String.class} and {@code Object.class}
+   *
+   * @param column zero based column index
+   * @return storage type
+   */
+  public Class<?> getColumnType(int column) {
+    return columnTypes[column];
+  }
+
+  /**
+   * Get the values of a {@code long} column
+   *
+   * @param column zero based column index
+   * @return values
+   * @throws IllegalArgumentException if the column is not stored as {@code long}
+   */
+  public long[] getLongs(int column) {
+    return (long[]) getColumn(column, long.class);
+  }
+
+  /**
+   * Get the values of a {@code double} column
+   *
+   * @param column zero based column index
+   * @return values
+   * @throws IllegalArgumentException if the column is not stored as {@code double}
+   */
+  public double[] getDoubles(int column) {
+    return (double[]) getColumn(column, double.class);
+  }
+
+  /**
+   * Get the values of a {@code String} column
+   *
+   * @param column zero based column index
+   * @return values
+   * @throws IllegalArgumentException if the column is not stored as {@code String}
+   */
+  public String[] getStrings(int column) {
+    return (String[]) getColumn(column, String.class);
+  }
+
+  /**
+   * Get the values of an {@code Object} column
+   *
+   * @param column zero based column index
+   * @return values
+   * @throws IllegalArgumentException if the column is not stored as {@code Object}
+   */
+  public Object[] getObjects(int column) {
+    return (Object[]) getColumn(column, Object.class);
+  }
+
+  private Object getColumn(int column, Class<?> columnType) {
+    if (columnTypes[column] != columnType) {
+      throw new IllegalArgumentException(
+          "Column " + column + " is stored as " + columnTypes[column].getSimpleName());
+    }
+    return columns[column];
+  }
+
+  /**
+   * Get the null bitmap of the given column
+   *
+   * @param column zero based column index
+   * @return bitmap with the indexes of the SQL NULL values set
+   */
+  public BitSet getNulls(int column) {
+    return nulls[column];
+  }
+
+  /**
+   * Get whether the given cell is SQL NULL
+   *
+   * @param column zero based column index
+   * @param row zero based row index
+   * @return true, if the cell is SQL NULL
+   */
+  public boolean isNull(int column, int row) {
+    return nulls[column].get(row);
+  }
+}
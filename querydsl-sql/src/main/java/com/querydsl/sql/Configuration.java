@@ -30,6 +30,7 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
 import java.util.logging.Logger;
 import org.jetbrains.annotations.Nullable;
 
@@ -66,6 +67,16 @@ public final class Configuration {
 
   private boolean useLiterals = false;
 
+  private boolean inListPadding = false;
+
+  private int inListArrayThreshold = 0;
+
+  @Nullable private SQLSerializationCache serializationCache;
+
+  @Nullable private SQLStatementCache statementCache;
+
+  @Nullable private Executor executor;
+
   /**
    * Create a new Configuration instance
    *
@@ -131,6 +142,23 @@ public final class Configuration {
     }
   }
 
+  /**
+   * Get the unquoted literal text of the given value, as encoded by the type of the given path
+   *
+   * @param path path or null
+   * @param value value
+   * @return literal text
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  public String getLiteral(@Nullable Path<?> path, Object value) {
+    Type type = getType(path, value.getClass());
+    if (type != null) {
+      return type.getLiteral(value);
+    } else {
+      throw new IllegalArgumentException("Unsupported literal type " + value.getClass().getName());
+    }
+  }
+
   public SQLTemplates getTemplates() {
     return templates;
   }
@@ -236,6 +264,7 @@ public final class Configuration {
    * @param nameMapping The name mapping that is implemented by the user.
    */
   public void setDynamicNameMapping(NameMapping nameMapping) {
+    clearSerializationCache();
     if (nameMapping == null) {
       this.nameMapping = this.internalNameMapping;
     } else {
@@ -273,8 +302,16 @@ public final class Configuration {
     }
   }
 
+  /**
+   * Get the type used to read and write values of the given path and class
+   *
+   * @param <T> type
+   * @param path path
+   * @param clazz type
+   * @return type
+   */
   @SuppressWarnings({"unchecked", "rawtypes"})
-  private <T> Type<T> getType(@Nullable Path<?> path, Class<T> clazz) {
+  <T> Type<T> getType(@Nullable Path<?> path, Class<T> clazz) {
     if (hasTableColumnTypes
         && path != null
         && !clazz.equals(Null.class)
@@ -327,6 +364,7 @@ public final class Configuration {
    */
   @Deprecated
   public String registerSchemaOverride(String oldSchema, String newSchema) {
+    clearSerializationCache();
     return schemaMapping.put(oldSchema, newSchema);
   }
 
@@ -340,6 +378,7 @@ public final class Configuration {
    */
   @Deprecated
   public String registerTableOverride(String oldTable, String newTable) {
+    clearSerializationCache();
     return internalNameMapping.registerTableOverride(oldTable, newTable);
   }
 
@@ -385,6 +424,7 @@ public final class Configuration {
    */
   @Deprecated
   public SchemaAndTable registerTableOverride(SchemaAndTable from, SchemaAndTable to) {
+    clearSerializationCache();
     return internalNameMapping.registerTableOverride(from, to);
   }
 
@@ -401,6 +441,7 @@ public final class Configuration {
   @Deprecated
   public String registerColumnOverride(
       String schema, String table, String oldColumn, String newColumn) {
+    clearSerializationCache();
     return internalNameMapping.registerColumnOverride(schema, table, oldColumn, newColumn);
   }
 
@@ -415,6 +456,7 @@ public final class Configuration {
    */
   @Deprecated
   public String registerColumnOverride(String table, String oldColumn, String newColumn) {
+    clearSerializationCache();
     return internalNameMapping.registerColumnOverride(table, oldColumn, newColumn);
   }
 
@@ -424,6 +466,7 @@ public final class Configuration {
    * @param type type
    */
   public void register(Type<?> type) {
+    clearSerializationCache();
     jdbcTypeMapping.register(type.getSQLTypes()[0], type.getReturnedClass());
     javaTypeMapping.register(type);
   }
@@ -435,6 +478,7 @@ public final class Configuration {
    * @param clazz java type
    */
   public void registerType(String typeName, Class<?> clazz) {
+    clearSerializationCache();
     typeToName.put(typeName.toLowerCase(), clazz);
   }
 
@@ -551,6 +595,80 @@ public final class Configuration {
     this.useLiterals = useLiterals;
   }
 
+  /**
+   * Get whether IN lists are padded to power of two sizes
+   *
+   * @return true, if IN lists are padded
+   */
+  public boolean getInListPadding() {
+    return inListPadding;
+  }
+
+  /**
+   * Set whether the bindings of IN lists are padded to the next power of two by repeating the last
+   * value (default: false)
+   *
+   * <p>Without padding each distinct list size produces a distinct SQL string, which lowers the hit
+   * rate of the statement caches of drivers and databases. The padded size is limited by the list
+   * and parameter limits of the templates. Padding is not applied, when literals are used.
+   *
+   * @param inListPadding true to pad IN lists
+   */
+  public void setInListPadding(boolean inListPadding) {
+    clearSerializationCache();
+    this.inListPadding = inListPadding;
+  }
+
+  /**
+   * Get the minimum size of IN lists which are bound as a single array parameter
+   *
+   * @return threshold or 0, if disabled
+   */
+  public int getInListArrayThreshold() {
+    return inListArrayThreshold;
+  }
+
+  /**
+   * Set the minimum size of IN lists which are bound as a single array parameter (default: 0,
+   * disabled)
+   *
+   * <p>IN and NOT IN lists of at least the given size are rendered with the {@link SQLOps#IN_ARRAY}
+   * and {@link SQLOps#NOT_IN_ARRAY} templates and their values are bound as one array through
+   * {@link ArrayType}, so large lists produce a statement of constant size. This applies only to
+   * templates which support array parameters, such as PostgreSQL and H2, and to value types with a
+   * registered array type. Smaller lists and lists of other types are bound value by value.
+   *
+   * @param inListArrayThreshold minimum list size or 0 to disable
+   */
+  public void setInListArrayThreshold(int inListArrayThreshold) {
+    if (inListArrayThreshold < 0) {
+      throw new IllegalArgumentException(
+          "inListArrayThreshold needs to be non-negative, got " + inListArrayThreshold);
+    }
+    clearSerializationCache();
+    this.inListArrayThreshold = inListArrayThreshold;
+  }
+
+  /**
+   * Get the executor of asynchronous query and clause executions
+   *
+   * @return executor
+   */
+  public Executor getExecutor() {
+    return executor != null ? executor : SQLExecutors.defaultExecutor();
+  }
+
+  /**
+   * Set the executor of asynchronous query and clause executions. By default a virtual thread is
+   * started per execution, if the runtime supports virtual threads, and otherwise a shared pool of
+   * daemon threads is used.
+   *
+   * @param executor executor or null for the default
+   */
+  public void setExecutor(@Nullable Executor executor) {
+    this.executor = executor;
+  }
+
   /**
    * Set the exception translator
    *
@@ -560,12 +678,68 @@ public final class Configuration {
     this.exceptionTranslator = exceptionTranslator;
   }
 
+  /**
+   * Get the cache for serialized SQL strings
+   *
+   * @return cache or null, if caching is disabled
+   */
+  @Nullable
+  public SQLSerializationCache getSerializationCache() {
+    return serializationCache;
+  }
+
+  /**
+   * Set the cache for serialized SQL strings (default: null)
+   *
+   * <p>When a cache is set, queries of the same shape reuse the SQL string of the first
+   * serialization and only create new bindings. The cache is cleared when the mappings or templates
+   * of this configuration are changed, so a cache instance should not be shared between
+   * configurations. Dynamic name mappings need to return stable results while the cache is in use.
+   *
+   * @param serializationCache cache or null to disable caching
+   */
+  public void setSerializationCache(@Nullable SQLSerializationCache serializationCache) {
+    this.serializationCache = serializationCache;
+  }
+
+  /**
+   * Get the cache for prepared statements
+   *
+   * @return cache or null, if statements are closed after each execution
+   */
+  @Nullable
+  public SQLStatementCache getStatementCache() {
+    return statementCache;
+  }
+
+  /**
+   * Set the cache for prepared statements (default: null)
+   *
+   * <p>When a cache is set, queries and DML clauses take their prepared statements from the cache
+   * and return them to it after the execution, so repeated executions of the same SQL string on a
+   * connection don't prepare the statement again. This is only useful if neither the driver nor the
+   * connection pool caches statements. Connections need to be evicted from the cache with {@link
+   * SQLStatementCache#evict(java.sql.Connection)} before they are closed.
+   *
+   * @param statementCache cache or null to disable caching
+   */
+  public void setStatementCache(@Nullable SQLStatementCache statementCache) {
+    this.statementCache = statementCache;
+  }
+
+  private void clearSerializationCache() {
+    if (serializationCache != null) {
+      serializationCache.clear();
+    }
+  }
+
   /**
    * Set the templates to use for serialization
    *
    * @param templates templates
    */
   public void setTemplates(SQLTemplates templates) {
+    clearSerializationCache();
     this.templates = templates;
   }
 }
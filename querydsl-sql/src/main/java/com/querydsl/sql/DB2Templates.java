@@ -66,6 +66,7 @@ public class DB2Templates extends SQLTemplates {
     setDefaultValues("\nvalues (default)");
     setNullsFirst(null);
     setNullsLast(null);
+    setNullsSortedHigh(true);
 
     setPrecedence(Precedence.ARITH_HIGH, Ops.CONCAT);
     setPrecedence(
@@ -57,6 +57,7 @@ public class DerbyTemplates extends SQLTemplates {
     setAutoIncrement(" generated always as identity");
     setFunctionJoinsWrapped(true);
     setDefaultValues("\nvalues (default)");
+    setNullsSortedHigh(true);
 
     setPrecedence(Precedence.COMPARISON, Ops.EQ, Ops.EQ_IGNORE_CASE, Ops.NE, Ops.EXISTS);
 
@@ -49,6 +49,9 @@ public class H2Templates extends SQLTemplates {
     setMaxLimit(2 ^ 31);
     setLimitRequired(true);
     setCountDistinctMultipleColumns(true);
+    setCountViaAnalytics(true);
+    setArrayParametersSupported(true);
+    setRowValueComparisonSupported(true);
 
     setPrecedence(Precedence.ARITH_LOW + 1, Ops.CONCAT);
     setPrecedence(Precedence.COMPARISON, Ops.EQ, Ops.EQ_IGNORE_CASE, Ops.NE);
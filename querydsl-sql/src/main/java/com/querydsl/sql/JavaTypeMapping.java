@@ -19,11 +19,15 @@ import com.querydsl.sql.types.*;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import org.jetbrains.annotations.Nullable;
 
 /**
  * {@code JavaTypeMapping} provides a mapping from Class to Type instances
  *
+ * <p>Lookups are safe for concurrent use. Resolved types are cached per class in a {@link
+ * ClassValue}, which is replaced whenever a new type is registered.
+ *
  * @author tiwe
  */
 class JavaTypeMapping {
@@ -74,12 +78,22 @@ class JavaTypeMapping {
     }
   }
 
-  private final Map<Class<?>, Type<?>> typeByClass = new HashMap<Class<?>, Type<?>>();
+  private final Map<Class<?>, Type<?>> typeByClass = new ConcurrentHashMap<Class<?>, Type<?>>();
 
-  private final Map<Class<?>, Type<?>> resolvedTypesByClass = new HashMap<Class<?>, Type<?>>();
+  private volatile ClassValue<Type<?>> resolvedTypesByClass = newResolvedTypes();
 
   private final Map<String, Map<String, Type<?>>> typeByColumn =
-      new HashMap<String, Map<String, Type<?>>>();
+      new ConcurrentHashMap<String, Map<String, Type<?>>>();
+
+  private ClassValue<Type<?>> newResolvedTypes() {
+    return new ClassValue<Type<?>>() {
+      @Override
+      protected Type<?> computeValue(Class<?> clazz) {
+        Type<?> type = findType(clazz);
+        return type != null ? type : DEFAULT;
+      }
+    };
+  }
 
   @Nullable
   public Type<?> getType(String table, String column) {
@@ -93,16 +107,7 @@ class JavaTypeMapping {
 
   @SuppressWarnings("unchecked")
   public <T> Type<T> getType(Class<T> clazz) {
-    Type<?> resolvedType = resolvedTypesByClass.get(clazz);
-    if (resolvedType == null) {
-      resolvedType = findType(clazz);
-      if (resolvedType != null) {
-        resolvedTypesByClass.put(clazz, resolvedType);
-      } else {
-        return (Type) DEFAULT;
-      }
-    }
-    return (Type<T>) resolvedType;
+    return (Type<T>) resolvedTypesByClass.get(clazz);
   }
 
   @Nullable
@@ -136,13 +141,13 @@ class JavaTypeMapping {
     if (primitive != null) {
       typeByClass.put(primitive, type);
     }
-    // Clear previous resolved types, so they won't impact future lookups
-    resolvedTypesByClass.clear();
+    // Drop previous resolved types, so they won't impact future lookups
+    resolvedTypesByClass = newResolvedTypes();
   }
 
   public void setType(String table, String column, Type<?> type) {
     Map<String, Type<?>> columns =
-        typeByColumn.computeIfAbsent(table, k -> new HashMap<String, Type<?>>());
+        typeByColumn.computeIfAbsent(table, k -> new ConcurrentHashMap<String, Type<?>>());
     columns.put(column, type);
   }
 }
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * {@code Keyset} holds the values of the order expressions of the last row of a page, which are
+ * used to continue with the following page via {@link SQLCommonQuery#seek(Keyset)}
+ *
+ * <p>The keyset is serializable, if its values are, and can be handed to clients as a continuation
+ * token.
+ *
+ * @see AbstractSQLQuery#fetchKeysetSlice()
+ */
+public final class Keyset implements Serializable {
+
+  private static final long serialVersionUID = -4390167128419213624L;
+
+  private final Object[] values;
+
+  private Keyset(Object[] values) {
+    this.values = values;
+  }
+
+  /**
+   * Create a keyset with the given values in the order of the order specifiers of the query
+   *
+   * @param values key values, may contain nulls
+   * @return keyset
+   */
+  public static Keyset of(Object... values) {
+    return new Keyset(values.clone());
+  }
+
+  /**
+   * Get the key values
+   *
+   * @return key values
+   */
+  public List<Object> getValues() {
+    return Collections.unmodifiableList(Arrays.asList(values));
+  }
+
+  /**
+   * Get the amount of key values
+   *
+   * @return size
+   */
+  public int size() {
+    return values.length;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (o == this) {
+      return true;
+    } else if (o instanceof Keyset) {
+      return Arrays.equals(values, ((Keyset) o).values);
+    } else {
+      return false;
+    }
+  }
+
+  @Override
+  public int hashCode() {
+    return Arrays.hashCode(values);
+  }
+
+  @Override
+  public String toString() {
+    return Arrays.toString(values);
+  }
+}
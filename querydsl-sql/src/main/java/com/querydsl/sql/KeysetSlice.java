@@ -0,0 +1,84 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql;
+
+import java.io.Serializable;
+import java.util.List;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * {@code KeysetSlice} bundles a page of query results with the {@link Keyset} of its last row,
+ * which continues with the next page
+ *
+ * @param <T> type of result elements
+ * @see AbstractSQLQuery#fetchKeysetSlice()
+ */
+public final class KeysetSlice<T> implements Serializable {
+
+  private static final long serialVersionUID = 2904711652090374196L;
+
+  private final List<T> results;
+
+  @Nullable private final Keyset next;
+
+  /**
+   * Create a new {@link KeysetSlice} instance
+   *
+   * @param results paged results
+   * @param next keyset of the last row, if there are results after this slice
+   */
+  public KeysetSlice(List<T> results, @Nullable Keyset next) {
+    this.results = results;
+    this.next = next;
+  }
+
+  /**
+   * Get the results in List form
+   *
+   * <p>An empty list is returned for no results.
+   *
+   * @return results
+   */
+  public List<T> getResults() {
+    return results;
+  }
+
+  /**
+   * Get the keyset which continues with the next slice
+   *
+   * @return keyset of the last row or null, if there are no results after this slice
+   */
+  @Nullable
+  public Keyset getNext() {
+    return next;
+  }
+
+  /**
+   * Return whether there are results after this slice
+   *
+   * @return true, if the next slice is not empty
+   */
+  public boolean hasNext() {
+    return next != null;
+  }
+
+  /**
+   * Return whether there are results in this slice
+   *
+   * @return true, if no results where found
+   */
+  public boolean isEmpty() {
+    return results.isEmpty();
+  }
+}
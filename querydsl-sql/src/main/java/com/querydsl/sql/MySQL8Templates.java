@@ -0,0 +1,48 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql;
+
+/**
+ * {@code MySQL8Templates} is an SQL dialect for MySQL 8.0.19 and later
+ *
+ * <p>Upserts reference the inserted values by a row alias instead of the deprecated {@code
+ * values()} function.
+ */
+public class MySQL8Templates extends MySQLTemplates {
+
+  @SuppressWarnings("FieldNameHidesFieldInSuperclass") // Intentional
+  public static final MySQL8Templates DEFAULT = new MySQL8Templates();
+
+  public static Builder builder() {
+    return new Builder() {
+      @Override
+      protected SQLTemplates build(char escape, boolean quote) {
+        return new MySQL8Templates(escape, quote);
+      }
+    };
+  }
+
+  public MySQL8Templates() {
+    this('\\', false);
+  }
+
+  public MySQL8Templates(boolean quote) {
+    this('\\', quote);
+  }
+
+  public MySQL8Templates(char escape, boolean quote) {
+    super(escape, quote);
+    setUpsertRowAlias(true);
+  }
+}
@@ -18,14 +18,22 @@ import com.querydsl.core.QueryFlag.Position;
 import com.querydsl.core.types.Expression;
 import com.querydsl.core.types.ExpressionUtils;
 import com.querydsl.core.types.Ops;
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.SubQueryExpression;
 import java.sql.Types;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 
 /**
  * {@code MySQLTemplates} is an SQL dialect for MySQL
  *
  * <p>tested with MySQL CE 5.1 and 5.5
  *
+ * <p>Upserts, see {@link SQLTemplates.Builder#upsert()}, are serialized as inserts with {@code on
+ * duplicate key update}, which resolves conflicts on any unique index of the table.
+ *
+ * @see MySQL8Templates
  * @author tiwe
  */
 public class MySQLTemplates extends SQLTemplates {
@@ -36,6 +44,8 @@ public class MySQLTemplates extends SQLTemplates {
   @SuppressWarnings("FieldNameHidesFieldInSuperclass") // Intentional
   public static final MySQLTemplates DEFAULT = new MySQLTemplates();
 
+  private boolean upsertRowAlias;
+
   public static Builder builder() {
     return new Builder() {
       @Override
@@ -59,6 +69,7 @@ public class MySQLTemplates extends SQLTemplates {
     setParameterMetadataAvailable(false);
     setLimitRequired(true);
     setSupportsUnquotedReservedWordsAsIdentifier(true);
+    setUpsertSupported(true);
     setNullsFirst(null);
     setNullsLast(null);
 
@@ -191,4 +202,43 @@ public class MySQLTemplates extends SQLTemplates {
         return super.getCastTypeNameForCode(code);
     }
   }
+
+  /**
+   * Set whether the inserted values are referenced by a row alias in {@code on duplicate key
+   * update}, instead of the {@code values()} function, which is deprecated since MySQL 8.0.20
+   *
+   * @param b true, to use a row alias
+   */
+  protected void setUpsertRowAlias(boolean b) {
+    this.upsertRowAlias = b;
+  }
+
+  @Override
+  protected void serializeUpsertUpdate(
+      List<? extends Path<?>> keys,
+      List<Path<?>> columns,
+      SubQueryExpression<?> subQuery,
+      SQLSerializer context) {
+    List<Path<?>> updated = new ArrayList<>(columns);
+    updated.removeAll(keys);
+    if (updated.isEmpty()) {
+      // a conflict of a row with only key columns leaves the row unchanged
+      updated = columns.subList(0, 1);
+    }
+    // the row alias is only available for inserted values
+    boolean rowAlias = upsertRowAlias && subQuery == null;
+    context.skipParent = true;
+    context.append(rowAlias ? "\nas new on duplicate key update " : "\non duplicate key update ");
+    for (int i = 0; i < updated.size(); i++) {
+      if (i > 0) {
+        context.append(", ");
+      }
+      if (rowAlias) {
+        context.handle(updated.get(i)).append(" = new.").handle(updated.get(i));
+      } else {
+        context.handle(updated.get(i)).append(" = values(").handle(updated.get(i)).append(")");
+      }
+    }
+    context.skipParent = false;
+  }
 }
@@ -77,6 +77,7 @@ public class OracleTemplates extends SQLTemplates {
     setWithRecursive("with ");
     setCountViaAnalytics(true);
     setListMaxSize(1000);
+    setNullsSortedHigh(true);
 
     setPrecedence(Precedence.COMPARISON, Ops.EQ, Ops.EQ_IGNORE_CASE, Ops.NE);
     setPrecedence(
@@ -94,6 +95,8 @@ public class OracleTemplates extends SQLTemplates {
 
     add(Ops.ALIAS, "{0} {1}");
     add(SQLOps.NEXTVAL, "{0s}.nextval");
+    add(SQLOps.IN_ARRAY, "{0} in (select column_value from table({1}))");
+    add(SQLOps.NOT_IN_ARRAY, "{0} not in (select column_value from table({1}))");
 
     // String
     add(Ops.INDEX_OF, "instrb({0},{1})-1", Precedence.ARITH_LOW);
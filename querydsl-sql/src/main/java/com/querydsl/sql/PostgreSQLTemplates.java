@@ -14,7 +14,10 @@
 package com.querydsl.sql;
 
 import com.querydsl.core.types.Ops;
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.SubQueryExpression;
 import java.sql.Types;
+import java.util.List;
 
 /**
  * {@code PostgreSQLTemplates} is an SQL dialect for PostgreSQL
@@ -50,6 +53,11 @@ public class PostgreSQLTemplates extends SQLTemplates {
     setDummyTable(null);
     setCountDistinctMultipleColumns(true);
     setCountViaAnalytics(true);
+    setMaxParameters(32767);
+    setArrayParametersSupported(true);
+    setRowValueComparisonSupported(true);
+    setNullsSortedHigh(true);
+    setUpsertSupported(true);
     setDefaultValues("\ndefault values");
     setSupportsUnquotedReservedWordsAsIdentifier(true);
 
@@ -174,4 +182,29 @@ public class PostgreSQLTemplates extends SQLTemplates {
       return super.serialize(literal, jdbcType);
     }
   }
+
+  @Override
+  protected void serializeUpsertUpdate(
+      List<? extends Path<?>> keys,
+      List<Path<?>> columns,
+      SubQueryExpression<?> subQuery,
+      SQLSerializer context) {
+    if (keys.isEmpty()) {
+      throw new IllegalStateException("No keys were defined, invoke keys(..) to add keys");
+    }
+    context.skipParent = true;
+    context.append("\non conflict (").handle(", ", keys).append(") ");
+    boolean first = true;
+    for (Path<?> column : columns) {
+      if (!keys.contains(column)) {
+        context.append(first ? "do update set " : ", ");
+        context.handle(column).append(" = excluded.").handle(column);
+        first = false;
+      }
+    }
+    if (first) {
+      context.append("do nothing");
+    }
+    context.skipParent = false;
+  }
 }
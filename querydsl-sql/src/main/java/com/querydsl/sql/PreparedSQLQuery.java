@@ -0,0 +1,322 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql;
+
+import com.mysema.commons.lang.CloseableIterator;
+import com.querydsl.core.NonUniqueResultException;
+import com.querydsl.core.QueryException;
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.annotations.Immutable;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.ParamExpression;
+import com.querydsl.core.types.ParamNotSetException;
+import com.querydsl.core.types.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * {@code PreparedSQLQuery} is a compiled form of a {@link AbstractSQLQuery} instance.
+ *
+ * <p>The SQL string, the bindings and the row reader are created once by {@link
+ * AbstractSQLQuery#prepare()} and reused for each execution. Only the values of {@link
+ * ParamExpression}s can be changed between executions:
+ *
+ * <pre>{@code
+ * Param<String> name = new Param<>(String.class, "name");
+ * PreparedSQLQuery<Long> query =
+ *     queryFactory.select(employee.id).from(employee).where(employee.firstname.eq(name)).prepare();
+ *
+ * List<Long> ids = query.set(name, "Mike").fetch();
+ * }</pre>
+ *
+ * @param <T> result type
+ */
+@Immutable
+public final class PreparedSQLQuery<T> {
+
+  private static final Logger logger = Logger.getLogger(PreparedSQLQuery.class.getName());
+
+  private final Configuration configuration;
+
+  private final SQLListeners listeners;
+
+  @Nullable private final Supplier<Connection> connProvider;
+
+  private final QueryMetadata metadata;
+
+  private final String sql;
+
+  private final List<Object> constants;
+
+  private final List<Path<?>> constantPaths;
+
+  private final Map<ParamExpression<?>, Object> params;
+
+  private final StatementOptions statementOptions;
+
+  private final RowReader<T> reader;
+
+  PreparedSQLQuery(
+      Configuration configuration,
+      SQLListeners listeners,
+      @Nullable Supplier<Connection> connProvider,
+      QueryMetadata metadata,
+      @Nullable Expression<T> projection,
+      SQLSerializer serializer,
+      StatementOptions statementOptions) {
+    this(
+        configuration,
+        listeners,
+        connProvider,
+        metadata,
+        serializer.toString(),
+        Collections.unmodifiableList(new ArrayList<>(serializer.getConstants())),
+        Collections.unmodifiableList(new ArrayList<>(serializer.getConstantPaths())),
+        Collections.unmodifiableMap(new HashMap<>(metadata.getParams())),
+        statementOptions,
+        RowReader.create(configuration, projection));
+  }
+
+  private PreparedSQLQuery(
+      Configuration configuration,
+      SQLListeners listeners,
+      @Nullable Supplier<Connection> connProvider,
+      QueryMetadata metadata,
+      String sql,
+      List<Object> constants,
+      List<Path<?>> constantPaths,
+      Map<ParamExpression<?>, Object> params,
+      StatementOptions statementOptions,
+      RowReader<T> reader) {
+    this.configuration = configuration;
+    this.listeners = listeners;
+    this.connProvider = connProvider;
+    this.metadata = metadata;
+    this.sql = sql;
+    this.constants = constants;
+    this.constantPaths = constantPaths;
+    this.params = params;
+    this.statementOptions = statementOptions;
+    this.reader = reader;
+  }
+
+  /**
+   * Create a copy of this query with the given parameter binding
+   *
+   * @param param param
+   * @param value binding
+   * @param <P> parameter type
+   * @return query with the binding
+   */
+  public <P> PreparedSQLQuery<T> set(ParamExpression<P> param, P value) {
+    Map<ParamExpression<?>, Object> newParams = new HashMap<>(params);
+    newParams.put(param, value);
+    return new PreparedSQLQuery<T>(
+        configuration,
+        listeners,
+        connProvider,
+        metadata,
+        sql,
+        constants,
+        constantPaths,
+        Collections.unmodifiableMap(newParams),
+        statementOptions,
+        reader);
+  }
+
+  /**
+   * Get the query as an SQL query string and bindings
+   *
+   * @return SQL string and bindings
+   */
+  public SQLBindings getSQL() {
+    return new SQLBindings(sql, getBindings());
+  }
+
+  /**
+   * Get the projection as a typed List
+   *
+   * @return results
+   */
+  public List<T> fetch() {
+    SQLListenerContextImpl context = startContext();
+    try {
+      try (PreparedStatement stmt = prepareStatement(context)) {
+        listeners.preExecute(context);
+        try (ResultSet rs = stmt.executeQuery()) {
+          listeners.executed(context);
+          List<T> rv = new ArrayList<T>();
+          while (rs.next()) {
+            rv.add(reader.read(rs));
+          }
+          return rv;
+        }
+      }
+    } catch (SQLException e) {
+      onException(context, e);
+      throw configuration.translate(sql, getBindings(), e);
+    } catch (ReflectiveOperationException e) {
+      onException(context, e);
+      throw new QueryException(e);
+    } finally {
+      listeners.end(context);
+    }
+  }
+
+  /**
+   * Get the projection as a unique result or null if no result is found
+   *
+   * @throws NonUniqueResultException if there is more than one matching result
+   * @return result or null
+   */
+  @Nullable
+  public T fetchOne() throws NonUniqueResultException {
+    CloseableIterator<T> it = iterate();
+    try {
+      if (it.hasNext()) {
+        T rv = it.next();
+        if (it.hasNext()) {
+          throw new NonUniqueResultException();
+        }
+        return rv;
+      } else {
+        return null;
+      }
+    } finally {
+      it.close();
+    }
+  }
+
+  /**
+   * Get the projection as a typed closeable Iterator
+   *
+   * @return closeable iterator
+   */
+  public CloseableIterator<T> iterate() {
+    SQLListenerContextImpl context = startContext();
+    PreparedStatement stmt = null;
+    try {
+      stmt = prepareStatement(context);
+      listeners.preExecute(context);
+      ResultSet rs = stmt.executeQuery();
+      listeners.executed(context);
+      return new SQLResultIterator<T>(configuration, stmt, rs, listeners, context) {
+        @Override
+        protected T produceNext(ResultSet rs) throws Exception {
+          return reader.read(rs);
+        }
+      };
+    } catch (SQLException e) {
+      onException(context, e);
+      close(stmt);
+      listeners.end(context);
+      throw configuration.translate(sql, getBindings(), e);
+    } catch (RuntimeException e) {
+      logger.log(Level.SEVERE, "Caught " + e.getClass().getName() + " for " + sql);
+      onException(context, e);
+      close(stmt);
+      listeners.end(context);
+      throw e;
+    }
+  }
+
+  private SQLListenerContextImpl startContext() {
+    SQLListenerContextImpl context = new SQLListenerContextImpl(metadata, connection());
+    listeners.start(context);
+    return context;
+  }
+
+  private void onException(SQLListenerContextImpl context, Exception e) {
+    context.setException(e);
+    listeners.exception(context);
+  }
+
+  private PreparedStatement prepareStatement(SQLListenerContextImpl context) throws SQLException {
+    listeners.preRender(context);
+    context.addSQL(getSQL());
+    listeners.rendered(context);
+    listeners.notifyQuery(metadata);
+
+    listeners.prePrepare(context);
+    SQLStatementCache cache = configuration.getStatementCache();
+    PreparedStatement stmt =
+        cache != null
+            ? cache.prepareStatement(context.getConnection(), sql)
+            : context.getConnection().prepareStatement(sql);
+    try {
+      statementOptions.applyTo(stmt);
+      for (int i = 0; i < constants.size(); i++) {
+        configuration.set(stmt, constantPaths.get(i), i + 1, resolve(constants.get(i)));
+      }
+    } catch (SQLException | RuntimeException e) {
+      stmt.close();
+      throw e;
+    }
+    context.addPreparedStatement(stmt);
+    listeners.prepared(context);
+    return stmt;
+  }
+
+  private void close(@Nullable PreparedStatement stmt) {
+    if (stmt != null) {
+      try {
+        stmt.close();
+      } catch (SQLException e) {
+        logger.log(Level.WARNING, "Caught " + e.getClass().getName() + " on close", e);
+      }
+    }
+  }
+
+  private List<Object> getBindings() {
+    List<Object> bindings = new ArrayList<>(constants.size());
+    for (Object o : constants) {
+      bindings.add(resolve(o));
+    }
+    return bindings;
+  }
+
+  @Nullable
+  private Object resolve(Object constant) {
+    if (constant instanceof ParamExpression) {
+      if (!params.containsKey(constant)) {
+        throw new ParamNotSetException((ParamExpression<?>) constant);
+      }
+      return params.get(constant);
+    }
+    return constant;
+  }
+
+  private Connection connection() {
+    if (connProvider == null) {
+      throw new IllegalStateException("No connection provided");
+    }
+    return connProvider.get();
+  }
+
+  @Override
+  public String toString() {
+    return sql.trim();
+  }
+}
@@ -294,6 +294,139 @@ public abstract class ProjectableSQLQuery<T, Q extends ProjectableSQLQuery<T, Q>
     return queryMixin.rightJoin(target, alias);
   }
 
+  @Override
+  public Q seek(Object... values) {
+    return seek(Keyset.of(values));
+  }
+
+  @Override
+  public Q seek(@Nullable Keyset keyset) {
+    if (keyset == null) {
+      return queryMixin.getSelf();
+    }
+    List<OrderSpecifier<?>> order = queryMixin.getMetadata().getOrderBy();
+    return queryMixin.where(createSeekPredicate(order, keyset.getValues()));
+  }
+
+  /**
+   * Create the condition for the rows which follow the given key values in the given order
+   *
+   * <p>If the templates support row value comparisons and the ordered columns are declared not null
+   * or belong to the primary key, the condition is a single comparison such as {@code (a, b) > (?,
+   * ?)}. Otherwise it is expanded into {@code a > ? or (a = ? and b > ?)}, which takes the null
+   * ordering of the specifiers and the templates into account.
+   *
+   * @param order order specifiers
+   * @param values key values
+   * @return condition
+   */
+  @SuppressWarnings("unchecked")
+  protected Predicate createSeekPredicate(List<OrderSpecifier<?>> order, List<?> values) {
+    if (order.isEmpty()) {
+      throw new IllegalStateException("seek requires an order");
+    } else if (order.size() != values.size()) {
+      throw new IllegalArgumentException(
+          "Expected " + order.size() + " key values, but got " + values.size());
+    }
+    SQLTemplates templates = configuration.getTemplates();
+    if (templates.isRowValueComparisonSupported() && isRowValueComparable(order, values)) {
+      StringBuilder left = new StringBuilder("(");
+      StringBuilder right = new StringBuilder("(");
+      List<Expression<?>> args = new ArrayList<>();
+      for (int i = 0; i < order.size(); i++) {
+        if (i > 0) {
+          left.append(", ");
+          right.append(", ");
+        }
+        left.append("{").append(i).append("}");
+        right.append("{").append(order.size() + i).append("}");
+        args.add(order.get(i).getTarget());
+      }
+      for (Object value : values) {
+        args.add(ConstantImpl.create(value));
+      }
+      String operator = order.get(0).isAscending() ? ") > " : ") < ";
+      return Expressions.booleanTemplate(left + operator + right + ")", args);
+    }
+
+    List<Predicate> alternatives = new ArrayList<>();
+    List<Predicate> equalities = new ArrayList<>();
+    for (int i = 0; i < order.size(); i++) {
+      OrderSpecifier<?> specifier = order.get(i);
+      Expression<Object> target = (Expression<Object>) specifier.getTarget();
+      Object value = values.get(i);
+      boolean nullsLast = isNullable(target) && isNullsLast(specifier, templates);
+      Predicate following;
+      if (value == null) {
+        following = nullsLast ? null : ExpressionUtils.isNotNull(target);
+      } else {
+        following =
+            ExpressionUtils.predicate(
+                specifier.isAscending() ? Ops.GT : Ops.LT, target, ConstantImpl.create(value));
+        if (nullsLast) {
+          following = ExpressionUtils.or(following, ExpressionUtils.isNull(target));
+        }
+      }
+      if (following != null) {
+        List<Predicate> conditions = new ArrayList<>(equalities);
+        conditions.add(following);
+        alternatives.add(ExpressionUtils.allOf(conditions));
+      }
+      if (value == null) {
+        equalities.add(ExpressionUtils.isNull(target));
+      } else {
+        equalities.add(ExpressionUtils.eq(target, ConstantImpl.create(value)));
+      }
+    }
+    if (alternatives.isEmpty()) {
+      // nothing follows the last row
+      return ExpressionUtils.predicate(Ops.EQ, Expressions.ONE, Expressions.TWO);
+    }
+    return ExpressionUtils.anyOf(alternatives);
+  }
+
+  private static boolean isRowValueComparable(List<OrderSpecifier<?>> order, List<?> values) {
+    if (order.size() < 2) {
+      return false;
+    }
+    for (int i = 0; i < order.size(); i++) {
+      OrderSpecifier<?> specifier = order.get(i);
+      if (specifier.getOrder() != order.get(0).getOrder()
+          || values.get(i) == null
+          || isNullable(specifier.getTarget())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isNullable(Expression<?> expr) {
+    if (!(expr instanceof Path)) {
+      return true;
+    }
+    Path<?> path = (Path<?>) expr;
+    if (!ColumnMetadata.getColumnMetadata(path).isNullable()) {
+      return false;
+    }
+    // primary key columns are not null, even if their metadata doesn't say so
+    Path<?> parent = path.getMetadata().getParent();
+    return !(parent instanceof RelationalPath)
+        || ((RelationalPath<?>) parent).getPrimaryKey() == null
+        || !((RelationalPath<?>) parent).getPrimaryKey().getLocalColumns().contains(path);
+  }
+
+  private static boolean isNullsLast(OrderSpecifier<?> specifier, SQLTemplates templates) {
+    switch (specifier.getNullHandling()) {
+      case NullsFirst:
+        return false;
+      case NullsLast:
+        return true;
+      default:
+        return !templates.isNullsSortedAtStart()
+            && specifier.isAscending() == templates.isNullsSortedHigh();
+    }
+  }
+
   @Override
   public <E> Q rightJoin(ForeignKey<E> key, RelationalPath<E> entity) {
     return queryMixin.rightJoin(entity).on(key.on(entity));
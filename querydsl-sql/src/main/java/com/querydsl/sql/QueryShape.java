@@ -0,0 +1,316 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql;
+
+import com.querydsl.core.JoinExpression;
+import com.querydsl.core.JoinFlag;
+import com.querydsl.core.QueryFlag;
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.types.Constant;
+import com.querydsl.core.types.EntityPath;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.FactoryExpression;
+import com.querydsl.core.types.Operation;
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.ParamExpression;
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.SubQueryExpression;
+import com.querydsl.core.types.TemplateExpression;
+import com.querydsl.core.types.Visitor;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * {@code QueryShape} is the structural key of a query or DML statement.
+ *
+ * <p>Two shapes are equal when their serialized SQL is equal. Constant values are not part of the
+ * shape, only their types and, for collections, their sizes are. The constant values of the
+ * described statement are kept separately in traversal order and are used by {@link
+ * SQLSerializationCache} to create the bindings for a cached SQL string.
+ */
+public final class QueryShape {
+
+  private enum Marker {
+    CONSTANT,
+    FACTORY,
+    FLAG,
+    JOIN,
+    METADATA,
+    NULL,
+    OPERATION,
+    ORDER,
+    PARAM,
+    PATH,
+    SUBQUERY,
+    TEMPLATE
+  }
+
+  private final Object[] tokens;
+
+  private final int hashCode;
+
+  @Nullable private final Object[] values;
+
+  private QueryShape(Object[] tokens, int hashCode, @Nullable Object[] values) {
+    this.tokens = tokens;
+    this.hashCode = hashCode;
+    this.values = values;
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Get the constant values of the described statement in traversal order
+   *
+   * @return constant values
+   */
+  Object[] getValues() {
+    if (values == null) {
+      throw new IllegalStateException("Shape has no values");
+    }
+    return values;
+  }
+
+  /**
+   * Get a copy of this shape without references to constant values
+   *
+   * @return shape without values
+   */
+  QueryShape withoutValues() {
+    return values == null ? this : new QueryShape(tokens, hashCode, null);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (o == this) {
+      return true;
+    } else if (o instanceof QueryShape) {
+      QueryShape other = (QueryShape) o;
+      return hashCode == other.hashCode && Arrays.equals(tokens, other.tokens);
+    } else {
+      return false;
+    }
+  }
+
+  @Override
+  public int hashCode() {
+    return hashCode;
+  }
+
+  @Override
+  public String toString() {
+    return Arrays.toString(tokens);
+  }
+
+  /** Builder for {@link QueryShape} instances */
+  public static final class Builder {
+
+    private final List<Object> tokens = new ArrayList<>();
+
+    private final List<Object> values = new ArrayList<>();
+
+    private Builder() {}
+
+    /**
+     * Add a structural token
+     *
+     * @param token token, compared by equality
+     * @return builder
+     */
+    public Builder token(@Nullable Object token) {
+      tokens.add(token);
+      return this;
+    }
+
+    /**
+     * Add the shape of the given expression
+     *
+     * @param expr expression
+     * @return builder
+     */
+    public Builder expression(@Nullable Expression<?> expr) {
+      if (expr != null) {
+        expr.accept(ShapeVisitor.DEFAULT, this);
+      } else {
+        tokens.add(Marker.NULL);
+      }
+      return this;
+    }
+
+    /**
+     * Add the shapes of the given expressions
+     *
+     * @param exprs expressions
+     * @return builder
+     */
+    public Builder expressions(Collection<? extends Expression<?>> exprs) {
+      tokens.add(exprs.size());
+      for (Expression<?> expr : exprs) {
+        expression(expr);
+      }
+      return this;
+    }
+
+    /**
+     * Add the shape of the given query metadata
+     *
+     * @param metadata metadata
+     * @return builder
+     */
+    public Builder metadata(QueryMetadata metadata) {
+      tokens.add(Marker.METADATA);
+      tokens.add(metadata.isDistinct());
+      expression(metadata.getProjection());
+      tokens.add(metadata.getJoins().size());
+      for (JoinExpression join : metadata.getJoins()) {
+        tokens.add(Marker.JOIN);
+        tokens.add(join.getType());
+        expression(join.getTarget());
+        expression(join.getCondition());
+        tokens.add(join.getFlags().size());
+        for (JoinFlag flag : join.getFlags()) {
+          tokens.add(flag.getPosition());
+          expression(flag.getFlag());
+        }
+      }
+      expression(metadata.getWhere());
+      expressions(metadata.getGroupBy());
+      expression(metadata.getHaving());
+      orderBy(metadata.getOrderBy());
+      tokens.add(metadata.getModifiers().getLimit());
+      tokens.add(metadata.getModifiers().getOffset());
+      tokens.add(metadata.getFlags().size());
+      for (QueryFlag flag : metadata.getFlags()) {
+        tokens.add(Marker.FLAG);
+        tokens.add(flag.getPosition());
+        expression(flag.getFlag());
+      }
+      return this;
+    }
+
+    private void orderBy(List<?> orderBy) {
+      tokens.add(Marker.ORDER);
+      tokens.add(orderBy.size());
+      for (Object o : orderBy) {
+        OrderSpecifier<?> os = (OrderSpecifier<?>) o;
+        tokens.add(os.getOrder());
+        tokens.add(os.getNullHandling());
+        expression(os.getTarget());
+      }
+    }
+
+    public QueryShape build() {
+      Object[] tokenArray = tokens.toArray();
+      return new QueryShape(tokenArray, Arrays.hashCode(tokenArray), values.toArray());
+    }
+  }
+
+  private static final class ShapeVisitor implements Visitor<Void, Builder> {
+
+    private static final ShapeVisitor DEFAULT = new ShapeVisitor();
+
+    @Override
+    public Void visit(Constant<?> expr, Builder builder) {
+      Object constant = expr.getConstant();
+      if (constant instanceof Class) {
+        // used as a type argument, e.g. in numeric casts
+        builder.tokens.add(constant);
+      } else if (isOrderSpecifiers(constant)) {
+        builder.orderBy((List<?>) constant);
+      } else {
+        builder.tokens.add(Marker.CONSTANT);
+        builder.tokens.add(constant.getClass());
+        if (constant instanceof Collection) {
+          builder.tokens.add(((Collection<?>) constant).size());
+        }
+        builder.values.add(constant);
+      }
+      return null;
+    }
+
+    private static boolean isOrderSpecifiers(Object constant) {
+      return constant instanceof List
+          && !((List<?>) constant).isEmpty()
+          && ((List<?>) constant).get(0) instanceof OrderSpecifier;
+    }
+
+    @Override
+    public Void visit(FactoryExpression<?> expr, Builder builder) {
+      builder.tokens.add(Marker.FACTORY);
+      builder.expressions(expr.getArgs());
+      return null;
+    }
+
+    @Override
+    public Void visit(Operation<?> expr, Builder builder) {
+      builder.tokens.add(Marker.OPERATION);
+      builder.tokens.add(expr.getOperator());
+      builder.tokens.add(expr.getType());
+      builder.expressions(expr.getArgs());
+      return null;
+    }
+
+    @Override
+    public Void visit(ParamExpression<?> expr, Builder builder) {
+      builder.tokens.add(Marker.PARAM);
+      builder.tokens.add(expr);
+      builder.values.add(expr);
+      return null;
+    }
+
+    @Override
+    public Void visit(Path<?> expr, Builder builder) {
+      builder.tokens.add(Marker.PATH);
+      builder.tokens.add(expr);
+      if (expr.getMetadata().getParent() instanceof EntityPath) {
+        builder.tokens.add(ColumnMetadata.getName(expr));
+      }
+      if (expr instanceof RelationalPath) {
+        builder.tokens.add(((RelationalPath<?>) expr).getSchemaAndTable());
+      }
+      return null;
+    }
+
+    @Override
+    public Void visit(SubQueryExpression<?> expr, Builder builder) {
+      builder.tokens.add(Marker.SUBQUERY);
+      builder.metadata(expr.getMetadata());
+      return null;
+    }
+
+    @Override
+    public Void visit(TemplateExpression<?> expr, Builder builder) {
+      builder.tokens.add(Marker.TEMPLATE);
+      builder.tokens.add(expr.getClass());
+      builder.tokens.add(expr.getTemplate());
+      builder.tokens.add(expr.getType());
+      builder.tokens.add(expr.getArgs().size());
+      for (Object arg : expr.getArgs()) {
+        if (arg instanceof Expression) {
+          builder.expression((Expression<?>) arg);
+        } else {
+          // raw arguments are part of the shape, but may still be bound as constants
+          builder.tokens.add(arg);
+          builder.values.add(arg);
+        }
+      }
+      return null;
+    }
+  }
+}
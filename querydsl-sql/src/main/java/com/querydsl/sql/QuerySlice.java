@@ -0,0 +1,97 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql;
+
+import com.querydsl.core.QueryModifiers;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * {@code QuerySlice} bundles a page of query results with the information whether more results
+ * follow, without the total count of {@link com.querydsl.core.QueryResults}
+ *
+ * @param <T> type of result elements
+ * @see AbstractSQLQuery#fetchSlice()
+ */
+public final class QuerySlice<T> implements Serializable {
+
+  private static final long serialVersionUID = 6352709487710263421L;
+
+  private final long limit, offset;
+
+  private final boolean hasNext;
+
+  private final List<T> results;
+
+  /**
+   * Create a new {@link QuerySlice} instance
+   *
+   * @param results paged results
+   * @param mod limit and offset
+   * @param hasNext whether there are results after this slice
+   */
+  public QuerySlice(List<T> results, QueryModifiers mod, boolean hasNext) {
+    this.limit = mod.getLimit() != null ? mod.getLimit() : Long.MAX_VALUE;
+    this.offset = mod.getOffset() != null ? mod.getOffset() : 0L;
+    this.hasNext = hasNext;
+    this.results = results;
+  }
+
+  /**
+   * Get the results in List form
+   *
+   * <p>An empty list is returned for no results.
+   *
+   * @return results
+   */
+  public List<T> getResults() {
+    return results;
+  }
+
+  /**
+   * Return whether there are results after this slice
+   *
+   * @return true, if the next slice is not empty
+   */
+  public boolean hasNext() {
+    return hasNext;
+  }
+
+  /**
+   * Return whether there are results in this slice
+   *
+   * @return true, if no results where found
+   */
+  public boolean isEmpty() {
+    return results.isEmpty();
+  }
+
+  /**
+   * Get the limit value used for the query
+   *
+   * @return applied limit
+   */
+  public long getLimit() {
+    return limit;
+  }
+
+  /**
+   * Get the offset value used for the query
+   *
+   * @return applied offset
+   */
+  public long getOffset() {
+    return offset;
+  }
+}
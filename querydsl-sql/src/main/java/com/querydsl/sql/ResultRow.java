@@ -0,0 +1,77 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * {@code ResultRow} is a view of the current row of a query result.
+ *
+ * <p>The columns are addressed by the zero based index of the projection argument, for a single
+ * expression projection the index is 0. The primitive accessors read the column through {@link
+ * com.querydsl.sql.types.Type#getLong(java.sql.ResultSet, int)} and its siblings and don't allocate
+ * for the numeric types. A {@code ResultRow} instance is only valid during the callback it is
+ * passed to.
+ *
+ * @see AbstractSQLQuery#fetchRows(java.util.function.Consumer)
+ */
+public interface ResultRow {
+
+  /**
+   * Get the amount of columns
+   *
+   * @return column count
+   */
+  int size();
+
+  /**
+   * Get the value of the given column
+   *
+   * @param index zero based column index
+   * @return value
+   */
+  @Nullable
+  Object get(int index);
+
+  /**
+   * Get the value of the given column as a long
+   *
+   * @param index zero based column index
+   * @return value or 0 for SQL NULL
+   */
+  long getLong(int index);
+
+  /**
+   * Get the value of the given column as an int
+   *
+   * @param index zero based column index
+   * @return value or 0 for SQL NULL
+   */
+  int getInt(int index);
+
+  /**
+   * Get the value of the given column as a double
+   *
+   * @param index zero based column index
+   * @return value or 0 for SQL NULL
+   */
+  double getDouble(int index);
+
+  /**
+   * Report whether the last column read was SQL NULL
+   *
+   * @return true, if the last read value was SQL NULL
+   */
+  boolean wasNull();
+}
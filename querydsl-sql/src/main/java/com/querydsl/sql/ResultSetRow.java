@@ -0,0 +1,98 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql;
+
+import com.querydsl.sql.types.Type;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import org.jetbrains.annotations.Nullable;
+
+/** {@code ResultSetRow} is a {@link ResultRow} view of the current row of a {@link ResultSet} */
+final class ResultSetRow implements ResultRow {
+
+  private final Configuration configuration;
+
+  private final ResultSet rs;
+
+  private final Type<?>[] types;
+
+  private final String sql;
+
+  private final List<Object> constants;
+
+  ResultSetRow(
+      Configuration configuration,
+      ResultSet rs,
+      Type<?>[] types,
+      String sql,
+      List<Object> constants) {
+    this.configuration = configuration;
+    this.rs = rs;
+    this.types = types;
+    this.sql = sql;
+    this.constants = constants;
+  }
+
+  @Override
+  public int size() {
+    return types.length;
+  }
+
+  @Nullable
+  @Override
+  public Object get(int index) {
+    try {
+      return types[index].getValue(rs, index + 1);
+    } catch (SQLException e) {
+      throw configuration.translate(sql, constants, e);
+    }
+  }
+
+  @Override
+  public long getLong(int index) {
+    try {
+      return types[index].getLong(rs, index + 1);
+    } catch (SQLException e) {
+      throw configuration.translate(sql, constants, e);
+    }
+  }
+
+  @Override
+  public int getInt(int index) {
+    try {
+      return types[index].getInt(rs, index + 1);
+    } catch (SQLException e) {
+      throw configuration.translate(sql, constants, e);
+    }
+  }
+
+  @Override
+  public double getDouble(int index) {
+    try {
+      return types[index].getDouble(rs, index + 1);
+    } catch (SQLException e) {
+      throw configuration.translate(sql, constants, e);
+    }
+  }
+
+  @Override
+  public boolean wasNull() {
+    try {
+      return rs.wasNull();
+    } catch (SQLException e) {
+      throw configuration.translate(sql, constants, e);
+    }
+  }
+}
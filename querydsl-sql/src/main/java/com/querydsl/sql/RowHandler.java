@@ -0,0 +1,37 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql;
+
+import java.sql.SQLException;
+
+/**
+ * {@code RowHandler} is a callback for the rows of a query result
+ *
+ * <p>An {@link SQLException} thrown by the handler, for example from writing the row to another
+ * statement, aborts the query and is translated by the {@link Configuration}.
+ *
+ * @param <T> projection type
+ * @see AbstractSQLQuery#forEach(RowHandler)
+ */
+@FunctionalInterface
+public interface RowHandler<T> {
+
+  /**
+   * Handle a row
+   *
+   * @param row projection of the row
+   * @throws SQLException
+   */
+  void handle(T row) throws SQLException;
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql;
+
+import com.querydsl.core.types.ConstructorExpression;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.FactoryExpression;
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.QBean;
+import com.querydsl.core.types.dsl.Wildcard;
+import com.querydsl.sql.types.Type;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * {@code RowReader} converts the current row of a {@link ResultSet} into an instance of the
+ * projection type
+ *
+ * <p>The {@link Type} of each column is resolved once when the reader is created, so that reading a
+ * row only consists of indexed {@link Type#getValue(ResultSet, int)} calls.
+ *
+ * @param <T> projection type
+ */
+abstract class RowReader<T> {
+
+  static <T> RowReader<T> create(Configuration configuration, @Nullable Expression<T> expr) {
+    return create(configuration, expr, false);
+  }
+
+  /**
+   * Create a reader for the given projection
+   *
+   * @param configuration configuration
+   * @param expr projection
+   * @param reuseBuffer true to reuse the argument array of factory expressions which don't keep a
+   *     reference to it, the reader may then only be used by a single thread
+   * @return row reader
+   */
+  @SuppressWarnings("unchecked")
+  static <T> RowReader<T> create(
+      Configuration configuration, @Nullable Expression<T> expr, boolean reuseBuffer) {
+    if (expr == null) {
+      return new RowReader<T>() {
+        @Override
+        T read(ResultSet rs) throws SQLException {
+          return (T) rs.getObject(1);
+        }
+      };
+    } else if (expr instanceof FactoryExpression) {
+      return new FactoryRowReader<T>(
+          configuration,
+          (FactoryExpression<T>) expr,
+          reuseBuffer && (expr instanceof QBean || expr instanceof ConstructorExpression));
+    } else if (expr.equals(Wildcard.all)) {
+      return new RowReader<T>() {
+        @Override
+        T read(ResultSet rs) throws SQLException {
+          Object[] row = new Object[rs.getMetaData().getColumnCount()];
+          for (int i = 0; i < row.length; i++) {
+            row[i] = rs.getObject(i + 1);
+          }
+          return (T) row;
+        }
+      };
+    } else {
+      final Type<T> type = getType(configuration, expr);
+      return new RowReader<T>() {
+        @Override
+        T read(ResultSet rs) throws SQLException {
+          return type.getValue(rs, 1);
+        }
+      };
+    }
+  }
+
+  /**
+   * Get the column index of the cell following the projection
+   *
+   * @param expr projection
+   * @param rs result set positioned on a row
+   * @return column index
+   * @throws SQLException
+   */
+  static int nextCellIndex(@Nullable Expression<?> expr, ResultSet rs) throws SQLException {
+    if (expr instanceof FactoryExpression) {
+      return ((FactoryExpression<?>) expr).getArgs().size() + 1;
+    } else if (Wildcard.all.equals(expr)) {
+      return rs.getMetaData().getColumnCount();
+    } else {
+      return 2;
+    }
+  }
+
+  /**
+   * Get the types of the columns of the projection
+   *
+   * @param configuration configuration
+   * @param expr projection
+   * @param rs result set of the projection
+   * @return column types
+   * @throws SQLException
+   */
+  static Type<?>[] getTypes(Configuration configuration, @Nullable Expression<?> expr, ResultSet rs)
+      throws SQLException {
+    Type<?>[] types;
+    if (expr instanceof FactoryExpression) {
+      List<Expression<?>> args = ((FactoryExpression<?>) expr).getArgs();
+      types = new Type<?>[args.size()];
+      for (int i = 0; i < types.length; i++) {
+        types[i] = getType(configuration, args.get(i));
+      }
+    } else if (expr == null || expr.equals(Wildcard.all)) {
+      types = new Type<?>[expr == null ? 1 : rs.getMetaData().getColumnCount()];
+      Arrays.fill(types, configuration.getType(null, Object.class));
+    } else {
+      types = new Type<?>[] {getType(configuration, expr)};
+    }
+    return types;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <U> Type<U> getType(Configuration configuration, Expression<U> expr) {
+    return (Type<U>)
+        configuration.getType(expr instanceof Path ? (Path<?>) expr : null, expr.getType());
+  }
+
+  /**
+   * Read the current row
+   *
+   * @param rs result set positioned on a row
+   * @return projection instance
+   * @throws SQLException
+   * @throws ReflectiveOperationException
+   */
+  abstract T read(ResultSet rs) throws SQLException, ReflectiveOperationException;
+
+  private static final class FactoryRowReader<T> extends RowReader<T> {
+
+    private final FactoryExpression<T> expr;
+
+    private final Type<?>[] types;
+
+    // reused argument array, only for factories which copy the arguments
+    @Nullable private final Object[] buffer;
+
+    FactoryRowReader(Configuration configuration, FactoryExpression<T> expr, boolean reuseBuffer) {
+      this.expr = expr;
+      List<Expression<?>> args = expr.getArgs();
+      this.types = new Type<?>[args.size()];
+      for (int i = 0; i < types.length; i++) {
+        types[i] = getType(configuration, args.get(i));
+      }
+      this.buffer = reuseBuffer ? new Object[types.length] : null;
+    }
+
+    @Override
+    T read(ResultSet rs) throws SQLException, ReflectiveOperationException {
+      Object[] values = buffer != null ? buffer : new Object[types.length];
+      for (int i = 0; i < values.length; i++) {
+        values[i] = types[i].getValue(rs, i + 1);
+      }
+      return expr.newInstance(values);
+    }
+  }
+}
@@ -332,6 +332,31 @@ public interface SQLCommonQuery<Q extends SQLCommonQuery<Q>> extends Query<Q> {
    */
   Q rightJoin(SubQueryExpression<?> o, Path<?> alias);
 
+  /**
+   * Restrict the results to the rows which follow the given key values in the order of the order
+   * specifiers added so far (keyset pagination)
+   *
+   * <p>The values correspond to the order specifiers. Unlike an offset, the database doesn't need
+   * to read the skipped rows, if the order is backed by an index. The order should identify rows
+   * uniquely, for example by ending with the primary key.
+   *
+   * @param values key values of the last row of the previous page
+   * @return the current object
+   * @throws IllegalStateException if no order is set
+   * @throws IllegalArgumentException if the amount of values doesn't match the order
+   */
+  Q seek(Object... values);
+
+  /**
+   * Restrict the results to the rows which follow the given keyset in the order of the order
+   * specifiers added so far
+   *
+   * @param keyset keyset of the last row of the previous page or null for the first page
+   * @return the current object
+   * @see #seek(Object...)
+   */
+  Q seek(Keyset keyset);
+
   /**
    * Adds a common table expression
    *
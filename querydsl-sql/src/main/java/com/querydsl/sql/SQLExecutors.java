@@ -0,0 +1,60 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/** {@code SQLExecutors} provides the default executor for asynchronous query execution */
+final class SQLExecutors {
+
+  private static final Logger logger = Logger.getLogger(SQLExecutors.class.getName());
+
+  private SQLExecutors() {}
+
+  /**
+   * Get the default executor, which starts a virtual thread per task if the runtime supports them
+   * and otherwise uses an unbounded pool of daemon threads
+   *
+   * @return executor
+   */
+  static Executor defaultExecutor() {
+    return Holder.DEFAULT;
+  }
+
+  private static ExecutorService createDefaultExecutor() {
+    try {
+      Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+      return (ExecutorService) factory.invoke(null);
+    } catch (ReflectiveOperationException e) {
+      logger.fine("Virtual threads are not available, using a thread pool");
+    }
+    AtomicInteger threadNumber = new AtomicInteger();
+    return Executors.newCachedThreadPool(
+        runnable -> {
+          Thread thread = new Thread(runnable, "querydsl-sql-" + threadNumber.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        });
+  }
+
+  private static final class Holder {
+
+    private static final ExecutorService DEFAULT = createDefaultExecutor();
+  }
+}
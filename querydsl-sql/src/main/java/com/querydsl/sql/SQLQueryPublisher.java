@@ -0,0 +1,245 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql;
+
+import com.mysema.commons.lang.CloseableIterator;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * {@code SQLQueryPublisher} is a {@link Flow.Publisher} of the results of a query.
+ *
+ * <p>Each subscription executes the query on the given executor once the first element is
+ * requested. Rows are only read from the result set while there is outstanding demand, the executor
+ * thread is released in between. Unless a fixed fetch size is configured, the fetch size of the
+ * result set follows the outstanding demand. Cancelling the subscription cancels the running
+ * statement and closes it.
+ *
+ * @param <T> result type
+ */
+final class SQLQueryPublisher<T> implements Flow.Publisher<T> {
+
+  private static final Logger logger = Logger.getLogger(SQLQueryPublisher.class.getName());
+
+  private static final int MAX_FETCH_SIZE = 1000;
+
+  /** Callbacks for the statement of a subscription */
+  interface Cursor {
+
+    void prepared(Statement stmt) throws SQLException;
+
+    void executed(ResultSet rs) throws SQLException;
+  }
+
+  /** Source of the query results */
+  @FunctionalInterface
+  interface Source<T> {
+
+    CloseableIterator<T> open(Cursor cursor);
+  }
+
+  private final Executor executor;
+
+  private final Source<T> source;
+
+  private final boolean adaptiveFetchSize;
+
+  SQLQueryPublisher(Executor executor, Source<T> source, boolean adaptiveFetchSize) {
+    this.executor = executor;
+    this.source = source;
+    this.adaptiveFetchSize = adaptiveFetchSize;
+  }
+
+  @Override
+  public void subscribe(Flow.Subscriber<? super T> subscriber) {
+    Objects.requireNonNull(subscriber, "subscriber");
+    subscriber.onSubscribe(new QuerySubscription(subscriber));
+  }
+
+  private static int fetchSize(long demand) {
+    return (int) Math.max(1, Math.min(demand, MAX_FETCH_SIZE));
+  }
+
+  private final class QuerySubscription implements Flow.Subscription, Cursor {
+
+    private final Flow.Subscriber<? super T> subscriber;
+
+    private final AtomicLong requested = new AtomicLong();
+
+    // amount of pending drain requests, the drain loop runs while it's positive
+    private final AtomicInteger wip = new AtomicInteger();
+
+    private volatile boolean cancelled;
+
+    @Nullable private volatile Throwable invalidRequest;
+
+    @Nullable private volatile Statement statement;
+
+    // state below is only accessed by the drain loop
+
+    @Nullable private CloseableIterator<T> iterator;
+
+    @Nullable private ResultSet resultSet;
+
+    private int fetchSize;
+
+    private boolean done;
+
+    QuerySubscription(Flow.Subscriber<? super T> subscriber) {
+      this.subscriber = subscriber;
+    }
+
+    @Override
+    public void request(long n) {
+      if (n <= 0) {
+        invalidRequest =
+            new IllegalArgumentException("Requested amount must be positive, got " + n);
+      } else {
+        requested.accumulateAndGet(n, (r, m) -> r + m < 0 ? Long.MAX_VALUE : r + m);
+      }
+      drain();
+    }
+
+    @Override
+    public void cancel() {
+      if (!cancelled) {
+        cancelled = true;
+        Statement stmt = statement;
+        if (stmt != null) {
+          try {
+            stmt.cancel();
+          } catch (SQLException e) {
+            logger.log(Level.FINE, "Statement cancel failed", e);
+          }
+        }
+        drain();
+      }
+    }
+
+    @Override
+    public void prepared(Statement stmt) throws SQLException {
+      statement = stmt;
+      if (adaptiveFetchSize) {
+        fetchSize = fetchSize(requested.get());
+        stmt.setFetchSize(fetchSize);
+      }
+    }
+
+    @Override
+    public void executed(ResultSet rs) {
+      resultSet = rs;
+    }
+
+    private void drain() {
+      if (wip.getAndIncrement() == 0) {
+        try {
+          executor.execute(this::drainLoop);
+        } catch (RejectedExecutionException e) {
+          wip.set(0);
+          if (!done) {
+            done = true;
+            subscriber.onError(e);
+          }
+        }
+      }
+    }
+
+    private void drainLoop() {
+      int missed = 1;
+      do {
+        if (!done) {
+          emit();
+        }
+        missed = wip.addAndGet(-missed);
+      } while (missed != 0);
+    }
+
+    private void emit() {
+      try {
+        if (cancelled) {
+          finish();
+          return;
+        } else if (invalidRequest != null) {
+          finish();
+          subscriber.onError(invalidRequest);
+          return;
+        }
+        long demand = requested.get();
+        if (demand == 0) {
+          return;
+        }
+        if (iterator == null) {
+          iterator = source.open(this);
+        }
+        adaptFetchSize(demand);
+        long emitted = 0;
+        while (emitted != demand) {
+          if (cancelled) {
+            finish();
+            return;
+          } else if (!iterator.hasNext()) {
+            finish();
+            subscriber.onComplete();
+            return;
+          }
+          subscriber.onNext(iterator.next());
+          emitted++;
+        }
+        if (demand != Long.MAX_VALUE) {
+          requested.addAndGet(-emitted);
+        }
+      } catch (RuntimeException e) {
+        finish();
+        if (!cancelled) {
+          subscriber.onError(e);
+        }
+      }
+    }
+
+    private void adaptFetchSize(long demand) {
+      if (adaptiveFetchSize && resultSet != null && fetchSize != fetchSize(demand)) {
+        fetchSize = fetchSize(demand);
+        try {
+          resultSet.setFetchSize(fetchSize);
+        } catch (SQLException e) {
+          logger.log(Level.FINE, "Fetch size change failed", e);
+        }
+      }
+    }
+
+    private void finish() {
+      done = true;
+      statement = null;
+      resultSet = null;
+      if (iterator != null) {
+        try {
+          iterator.close();
+        } catch (RuntimeException e) {
+          logger.log(Level.WARNING, "Caught " + e.getClass().getName() + " on close", e);
+        }
+        iterator = null;
+      }
+    }
+  }
+}
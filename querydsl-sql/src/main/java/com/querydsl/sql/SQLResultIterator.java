@@ -42,6 +42,8 @@ public abstract class SQLResultIterator<T> implements CloseableIterator<T> {
 
   private final SQLListenerContext context;
 
+  private long rows;
+
   public SQLResultIterator(Configuration conf, Statement stmt, ResultSet rs) {
     this(conf, stmt, rs, null, null);
   }
@@ -75,6 +77,7 @@ public abstract class SQLResultIterator<T> implements CloseableIterator<T> {
       throw configuration.translate(e);
     } finally {
       if (listener != null) {
+        context.setData(AbstractSQLQuery.ROW_COUNT, rows);
         listener.end(context);
       }
     }
@@ -97,6 +100,7 @@ public abstract class SQLResultIterator<T> implements CloseableIterator<T> {
   public T next() {
     if (hasNext()) {
       next = null;
+      rows++;
       try {
         return produceNext(rs);
       } catch (SQLException e) {
@@ -113,6 +117,17 @@ public abstract class SQLResultIterator<T> implements CloseableIterator<T> {
 
   protected abstract T produceNext(ResultSet rs) throws Exception;
 
+  /**
+   * Add rows to the row count, which is reported to the listeners as {@link
+   * AbstractSQLQuery#ROW_COUNT}. Each element counts as one row, subclasses which read more rows
+   * per element need to add the additional rows.
+   *
+   * @param count amount of additional rows
+   */
+  protected void addRows(int count) {
+    rows += count;
+  }
+
   @Override
   public void remove() {
     try {
@@ -0,0 +1,409 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql;
+
+import com.querydsl.core.types.Constant;
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.Template;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * {@code SQLSerializationCache} is a bounded cache from {@link QueryShape}s to serialized SQL
+ * strings.
+ *
+ * <p>On a cache miss the statement is serialized and the origin of each bound value is recorded, on
+ * a cache hit the cached SQL string is reused and only the bindings are created from the constants
+ * of the new statement. Constants which are rewritten or inlined during serialization, such as LIKE
+ * patterns with escaping, are part of the cached entry and are compared by equality.
+ *
+ * <p>The least recently used entries are evicted when the maximum size is exceeded. The cache is
+ * bound to the {@link Configuration} it is registered in and is cleared when the configuration is
+ * modified.
+ */
+public final class SQLSerializationCache {
+
+  /**
+   * Key of the {@link SQLListenerContext} data entry holding {@link Boolean#TRUE} if the SQL string
+   * of the statement was taken from the cache and {@link Boolean#FALSE} otherwise. The entry is set
+   * before {@link SQLDetailedListener#rendered(SQLListenerContext)} is called.
+   */
+  public static final String CACHE_HIT = SQLSerializationCache.class.getName() + "#CACHE_HIT";
+
+  // element index of bindings which hold all elements of a collection as an array
+  static final int ARRAY = -2;
+
+  private static final Entry NOT_CACHEABLE = new Entry(null, null, null, null, null, null, null);
+
+  private final int maxSize;
+
+  private final Map<QueryShape, Entry> entries;
+
+  private final AtomicLong hits = new AtomicLong();
+
+  private final AtomicLong misses = new AtomicLong();
+
+  /**
+   * Create a new cache instance
+   *
+   * @param maxSize maximum amount of cached SQL strings
+   */
+  public SQLSerializationCache(final int maxSize) {
+    if (maxSize < 1) {
+      throw new IllegalArgumentException("maxSize needs to be positive, got " + maxSize);
+    }
+    this.maxSize = maxSize;
+    this.entries =
+        Collections.synchronizedMap(
+            new LinkedHashMap<QueryShape, Entry>(16, 0.75f, true) {
+              @Override
+              protected boolean removeEldestEntry(Map.Entry<QueryShape, Entry> eldest) {
+                return size() > maxSize;
+              }
+            });
+  }
+
+  /**
+   * Serialize a statement into the given serializer, either by taking the SQL string and the
+   * binding layout from the cache or by invoking the given renderer
+   *
+   * @param shape shape of the statement
+   * @param serializer empty serializer to populate
+   * @param renderer renderer which serializes the statement described by the shape
+   * @return true, if the SQL string was taken from the cache
+   */
+  public boolean serialize(
+      QueryShape shape, SQLSerializer serializer, Consumer<? super SQLSerializer> renderer) {
+    Object[] values = shape.getValues();
+    Entry entry = entries.get(shape);
+    if (entry == NOT_CACHEABLE) {
+      misses.incrementAndGet();
+      renderer.accept(serializer);
+      return false;
+    } else if (entry != null && entry.matches(values)) {
+      hits.incrementAndGet();
+      serializer.append(entry.sql);
+      entry.bind(values, serializer.getConstants());
+      serializer.getConstantPaths().addAll(entry.constantPaths);
+      return true;
+    } else {
+      misses.incrementAndGet();
+      Recorder recorder = new Recorder(values);
+      serializer.recorder = recorder;
+      try {
+        renderer.accept(serializer);
+      } finally {
+        serializer.recorder = null;
+      }
+      entries.put(shape.withoutValues(), recorder.createEntry(serializer));
+      return false;
+    }
+  }
+
+  /**
+   * Get the amount of cache hits
+   *
+   * @return cache hits
+   */
+  public long getHitCount() {
+    return hits.get();
+  }
+
+  /**
+   * Get the amount of cache misses
+   *
+   * @return cache misses
+   */
+  public long getMissCount() {
+    return misses.get();
+  }
+
+  /**
+   * Get the maximum amount of cached entries
+   *
+   * @return maximum size
+   */
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  /**
+   * Get the current amount of cached entries
+   *
+   * @return size
+   */
+  public int size() {
+    return entries.size();
+  }
+
+  /** Remove all entries */
+  public void clear() {
+    entries.clear();
+  }
+
+  /** Cached SQL string with the origins of the bindings */
+  private static final class Entry {
+
+    private final String sql;
+
+    private final List<Path<?>> constantPaths;
+
+    // index of the shape value of each binding, or -1 for fixed bindings
+    private final int[] sources;
+
+    // index of the collection element of each binding, -1 for scalar bindings or ARRAY
+    private final int[] elements;
+
+    private final Object[] fixed;
+
+    // shape values which need to be equal to the given values
+    private final int[] pinned;
+
+    private final Object[] pinnedValues;
+
+    Entry(
+        String sql,
+        List<Path<?>> constantPaths,
+        int[] sources,
+        int[] elements,
+        Object[] fixed,
+        int[] pinned,
+        Object[] pinnedValues) {
+      this.sql = sql;
+      this.constantPaths = constantPaths;
+      this.sources = sources;
+      this.elements = elements;
+      this.fixed = fixed;
+      this.pinned = pinned;
+      this.pinnedValues = pinnedValues;
+    }
+
+    boolean matches(Object[] values) {
+      for (int i = 0; i < pinned.length; i++) {
+        if (!Objects.equals(values[pinned[i]], pinnedValues[i])) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    void bind(Object[] values, List<Object> constants) {
+      Object[][] expanded = null;
+      for (int i = 0; i < sources.length; i++) {
+        int source = sources[i];
+        if (source < 0) {
+          constants.add(fixed[i]);
+        } else if (elements[i] == ARRAY) {
+          constants.add(
+              SQLSerializer.toArray(
+                  (Collection<?>) values[source], fixed[i].getClass().getComponentType()));
+        } else if (elements[i] < 0) {
+          constants.add(values[source]);
+        } else {
+          Object value = values[source];
+          if (value instanceof List && value instanceof RandomAccess) {
+            constants.add(((List<?>) value).get(elements[i]));
+          } else {
+            if (expanded == null) {
+              expanded = new Object[values.length][];
+            }
+            if (expanded[source] == null) {
+              expanded[source] = ((Collection<?>) value).toArray();
+            }
+            constants.add(expanded[source][elements[i]]);
+          }
+        }
+      }
+    }
+  }
+
+  /** Records the origins of the values bound during the serialization of a statement */
+  static final class Recorder {
+
+    private final Object[] values;
+
+    // value -> Integer index or int[] indexes of equal identity
+    private final Map<Object, Object> positions = new IdentityHashMap<>();
+
+    private final boolean[] bound;
+
+    private final boolean[] pinned;
+
+    private final List<Integer> sources = new ArrayList<>();
+
+    private final List<Integer> elements = new ArrayList<>();
+
+    private final List<Object> fixed = new ArrayList<>();
+
+    private int suspended;
+
+    private boolean cacheable = true;
+
+    Recorder(Object[] values) {
+      this.values = values;
+      this.bound = new boolean[values.length];
+      this.pinned = new boolean[values.length];
+      for (int i = 0; i < values.length; i++) {
+        Object existing = positions.get(values[i]);
+        if (existing == null) {
+          positions.put(values[i], i);
+        } else if (existing instanceof Integer) {
+          positions.put(values[i], new int[] {(Integer) existing, i});
+        } else {
+          int[] indexes = (int[]) existing;
+          int[] newIndexes = Arrays.copyOf(indexes, indexes.length + 1);
+          newIndexes[indexes.length] = i;
+          positions.put(values[i], newIndexes);
+        }
+      }
+    }
+
+    /**
+     * Record a bound value
+     *
+     * @param value value or collection of the bound value
+     * @param element index of the bound element in the collection or -1
+     * @param binding actual bound value
+     */
+    void bound(Object value, int element, @Nullable Object binding) {
+      Object position = suspended > 0 ? null : positions.get(value);
+      fixed.add(binding);
+      if (position == null) {
+        sources.add(-1);
+        elements.add(-1);
+      } else if (position instanceof Integer) {
+        bound[(Integer) position] = true;
+        sources.add((Integer) position);
+        elements.add(element);
+      } else {
+        // several values of the same identity, the binding is only valid if they stay equal
+        int[] indexes = (int[]) position;
+        for (int index : indexes) {
+          pinned[index] = true;
+        }
+        sources.add(-1);
+        elements.add(-1);
+      }
+    }
+
+    /**
+     * Mark the given value as being used in a way which doesn't allow it to be replaced by the
+     * value of another statement
+     *
+     * @param value value
+     */
+    void pin(@Nullable Object value) {
+      Object position = positions.get(value);
+      if (position instanceof Integer) {
+        pinned[(Integer) position] = true;
+      } else if (position != null) {
+        for (int index : (int[]) position) {
+          pinned[index] = true;
+        }
+      }
+    }
+
+    /**
+     * Pin the constant arguments of the template, if the template doesn't bind them as such
+     *
+     * @param template template
+     * @param args template arguments
+     */
+    void pin(@Nullable Template template, List<?> args) {
+      if (template == null) {
+        return;
+      }
+      for (Template.Element element : template.getElements()) {
+        if (!(element instanceof Template.ByIndex) && !(element instanceof Template.StaticText)) {
+          for (Object arg : args) {
+            pin(arg instanceof Constant ? ((Constant<?>) arg).getConstant() : arg);
+          }
+          return;
+        }
+      }
+    }
+
+    /** Record values bound until {@link #resume()} as fixed values */
+    void suspend() {
+      suspended++;
+    }
+
+    void resume() {
+      suspended--;
+    }
+
+    /** Mark the statement as not cacheable */
+    void invalidate() {
+      cacheable = false;
+    }
+
+    Entry createEntry(SQLSerializer serializer) {
+      if (!cacheable || sources.size() != serializer.getConstants().size()) {
+        return NOT_CACHEABLE;
+      }
+      List<Integer> pinnedIndexes = new ArrayList<>();
+      for (int i = 0; i < values.length; i++) {
+        if (pinned[i] || !bound[i]) {
+          if (values[i] instanceof Collection && !((Collection<?>) values[i]).isEmpty()) {
+            return NOT_CACHEABLE;
+          }
+          pinnedIndexes.add(i);
+        }
+      }
+      int[] pinnedArray = new int[pinnedIndexes.size()];
+      Object[] pinnedValues = new Object[pinnedArray.length];
+      for (int i = 0; i < pinnedArray.length; i++) {
+        pinnedArray[i] = pinnedIndexes.get(i);
+        pinnedValues[i] = values[pinnedArray[i]];
+      }
+      int[] sourceArray = new int[sources.size()];
+      int[] elementArray = new int[sources.size()];
+      Object[] fixedArray = new Object[sources.size()];
+      for (int i = 0; i < sourceArray.length; i++) {
+        int source = sources.get(i);
+        if (source < 0 || pinned[source]) {
+          sourceArray[i] = -1;
+          elementArray[i] = -1;
+          fixedArray[i] = fixed.get(i);
+        } else {
+          sourceArray[i] = source;
+          elementArray[i] = elements.get(i);
+          if (elementArray[i] == ARRAY) {
+            // keep the recorded array for its component type
+            fixedArray[i] = fixed.get(i);
+          }
+        }
+      }
+      return new Entry(
+          serializer.toString(),
+          Collections.unmodifiableList(new ArrayList<>(serializer.getConstantPaths())),
+          sourceArray,
+          elementArray,
+          fixedArray,
+          pinnedArray,
+          pinnedValues);
+    }
+  }
+}
@@ -23,7 +23,9 @@ import com.querydsl.core.types.dsl.SimpleExpression;
 import com.querydsl.core.util.CollectionUtils;
 import com.querydsl.core.util.StringUtils;
 import com.querydsl.sql.dml.SQLInsertBatch;
+import com.querydsl.sql.dml.SQLMergeBatch;
 import com.querydsl.sql.dml.SQLMergeUsingCase;
+import com.querydsl.sql.types.ArrayType;
 import com.querydsl.sql.types.Null;
 import java.sql.Types;
 import java.util.*;
@@ -77,6 +79,14 @@ public class SQLSerializer extends SerializerBase<SQLSerializer> {
 
   protected boolean useLiterals = false;
 
+  // size of the next IN list including padding
+  private int inListSize;
+
+  // IN list which is bound as the next array constant
+  @Nullable private Collection<?> inListArraySource;
+
+  @Nullable SQLSerializationCache.Recorder recorder;
+
   public SQLSerializer(Configuration conf) {
     this(conf, false);
   }
@@ -166,6 +176,14 @@ public class SQLSerializer extends SerializerBase<SQLSerializer> {
     handleTemplate(TemplateFactory.DEFAULT.create(template), Arrays.asList(args));
   }
 
+  @Override
+  protected void handleTemplate(Template template, List<?> args) {
+    if (recorder != null) {
+      recorder.pin(template, args);
+    }
+    super.handleTemplate(template, args);
+  }
+
   public final SQLSerializer handleSelect(
       final String sep, final List<? extends Expression<?>> expressions) {
     if (inSubquery) {
@@ -498,13 +516,82 @@ public class SQLSerializer extends SerializerBase<SQLSerializer> {
     templates.serializeMerge(metadata, entity, keys, columns, values, subQuery, this);
   }
 
+  public void serializeMerge(
+      QueryMetadata metadata, RelationalPath<?> entity, List<SQLMergeBatch> batches) {
+    this.entity = entity;
+    templates.serializeMerge(metadata, entity, batches, this);
+  }
+
   protected void serializeForMerge(
+      QueryMetadata metadata, RelationalPath<?> entity, List<SQLMergeBatch> batches) {
+    List<List<Expression<?>>> rows = new ArrayList<>(batches.size());
+    for (SQLMergeBatch batch : batches) {
+      rows.add(batch.getValues());
+    }
+    SQLMergeBatch first = batches.get(0);
+    serializeForMergeRows(metadata, entity, first.getKeys(), first.getColumns(), rows, null);
+  }
+
+  /**
+   * Serialize a merge as an INSERT statement with an upsert clause for dialects, which resolve
+   * conflicts of inserts instead of supporting MERGE
+   *
+   * @param metadata metadata
+   * @param entity entity
+   * @param keys keys, defaults to the primary key
+   * @param columns columns
+   * @param values values
+   * @param subQuery sub query
+   */
+  protected void serializeForUpsert(
       QueryMetadata metadata,
       RelationalPath<?> entity,
       List<Path<?>> keys,
       List<Path<?>> columns,
       List<Expression<?>> values,
       @Nullable SubQueryExpression<?> subQuery) {
+    serializeForInsert(metadata, entity, columns, values, subQuery);
+    templates.serializeUpsertUpdate(getUpsertKeys(entity, keys), columns, subQuery, this);
+  }
+
+  protected void serializeForUpsert(
+      QueryMetadata metadata, RelationalPath<?> entity, List<SQLMergeBatch> batches) {
+    List<SQLInsertBatch> rows = new ArrayList<>(batches.size());
+    for (SQLMergeBatch batch : batches) {
+      rows.add(new SQLInsertBatch(batch.getColumns(), batch.getValues(), null));
+    }
+    serializeForInsert(metadata, entity, rows);
+    templates.serializeUpsertUpdate(
+        getUpsertKeys(entity, batches.get(0).getKeys()), batches.get(0).getColumns(), null, this);
+  }
+
+  private static List<? extends Path<?>> getUpsertKeys(
+      RelationalPath<?> entity, List<Path<?>> keys) {
+    if (keys.isEmpty() && entity.getPrimaryKey() != null) {
+      return entity.getPrimaryKey().getLocalColumns();
+    } else {
+      return keys;
+    }
+  }
+
+  protected void serializeForMerge(
+      QueryMetadata metadata,
+      RelationalPath<?> entity,
+      List<Path<?>> keys,
+      List<Path<?>> columns,
+      List<Expression<?>> values,
+      @Nullable SubQueryExpression<?> subQuery) {
+    serializeForMergeRows(
+        metadata, entity, keys, columns, Collections.singletonList(values), subQuery);
+  }
+
+  private void serializeForMergeRows(
+      QueryMetadata metadata,
+      RelationalPath<?> entity,
+      List<Path<?>> keys,
+      List<Path<?>> columns,
+      List<List<Expression<?>>> rows,
+      @Nullable SubQueryExpression<?> subQuery) {
     serialize(Position.START, metadata.getFlags());
 
     if (!serialize(Position.START_OVERRIDE, metadata.getFlags())) {
@@ -536,17 +623,23 @@ public class SQLSerializer extends SerializerBase<SQLSerializer> {
       append("\n");
       serialize(subQuery.getMetadata(), false);
     } else {
-      if (!useLiterals) {
-        for (int i = 0; i < columns.size(); i++) {
-          if (values.get(i) instanceof Constant<?>) {
-            constantPaths.add(columns.get(i));
+      // values
+      append(templates.getValues());
+      for (int i = 0; i < rows.size(); i++) {
+        List<Expression<?>> values = rows.get(i);
+        if (!useLiterals) {
+          for (int j = 0; j < columns.size(); j++) {
+            if (values.get(j) instanceof Constant<?>) {
+              constantPaths.add(columns.get(j));
+            }
           }
         }
+        if (i > 0) {
+          append(COMMA);
+        }
+        append("(").handle(COMMA, values).append(")");
       }
-
-      // values
-      append(templates.getValues());
-      append("(").handle(COMMA, values).append(") ");
+      append(" ");
     }
   }
 
@@ -712,6 +805,7 @@ public class SQLSerializer extends SerializerBase<SQLSerializer> {
       skipParent = false;
       append(")");
     }
+    serialize(Position.AFTER_PROJECTION, metadata.getFlags());
 
     if (subQuery != null) {
       append("\n");
@@ -924,21 +1018,37 @@ public class SQLSerializer extends SerializerBase<SQLSerializer> {
       }
     } else if (constant instanceof Collection) {
       append("(");
+      int start = constants.size();
       boolean first = true;
+      Object last = null;
       for (Object o : ((Collection) constant)) {
         if (!first) {
           append(COMMA);
         }
         serializeConstant(constants.size() + 1, null);
+        if (recorder != null) {
+          recorder.bound(constant, constants.size() - start, o);
+        }
         constants.add(o);
         if (first && (constantPaths.size() < constants.size())) {
           constantPaths.add(null);
         }
         first = false;
+        last = o;
       }
+      int lastIndex = constants.size() - start - 1;
+      for (int i = lastIndex + 1; i < inListSize; i++) {
+        append(COMMA);
+        serializeConstant(constants.size() + 1, null);
+        if (recorder != null) {
+          recorder.bound(constant, lastIndex, last);
+        }
+        constants.add(last);
+      }
+      inListSize = 0;
       append(")");
 
-      int size = ((Collection) constant).size() - 1;
+      int size = constants.size() - start - 1;
       Path<?> lastPath = constantPaths.peekLast();
       for (int i = 0; i < size; i++) {
         constantPaths.add(lastPath);
@@ -954,6 +1064,11 @@ public class SQLSerializer extends SerializerBase<SQLSerializer> {
       } else {
         serializeConstant(constants.size() + 1, null);
       }
+      if (recorder != null && inListArraySource != null) {
+        recorder.bound(inListArraySource, SQLSerializationCache.ARRAY, constant);
+      } else if (recorder != null) {
+        recorder.bound(constant, -1, constant);
+      }
       constants.add(constant);
       if (constantPaths.size() < constants.size()) {
         constantPaths.add(null);
@@ -963,6 +1078,9 @@ public class SQLSerializer extends SerializerBase<SQLSerializer> {
 
   @Override
   public Void visit(ParamExpression<?> param, Void context) {
+    if (recorder != null) {
+      recorder.bound(param, -1, param);
+    }
     constants.add(param);
     serializeConstant(constants.size(), null);
     if (constantPaths.size() < constants.size()) {
@@ -1046,12 +1164,17 @@ public class SQLSerializer extends SerializerBase<SQLSerializer> {
   @Override
   protected void visitOperation(
       Class<?> type, Operator operator, List<? extends Expression<?>> args) {
+    if (recorder != null) {
+      recorder.pin(templates.getTemplate(operator), args);
+    }
     boolean pathAdded = false;
     if (args.size() == 2
         && !useLiterals
         && args.get(0) instanceof Path<?>
         && args.get(1) instanceof Constant<?>
-        && operator != Ops.NUMCAST) {
+        && operator != Ops.NUMCAST
+        && operator != SQLOps.IN_ARRAY
+        && operator != SQLOps.NOT_IN_ARRAY) {
       Object constant = ((Constant<?>) args.get(1)).getConstant();
       if (!Collection.class.isInstance(constant) || !((Collection) constant).isEmpty()) {
         for (Element element : templates.getTemplate(operator).getElements()) {
@@ -1077,6 +1200,9 @@ public class SQLSerializer extends SerializerBase<SQLSerializer> {
       inUnion = oldUnion;
 
     } else if (operator == Ops.LIKE && args.get(1) instanceof Constant<?>) {
+      if (recorder != null) {
+        recorder.pin(((Constant<?>) args.get(1)).getConstant());
+      }
       final String escape = String.valueOf(templates.getEscapeChar());
       final String escaped = args.get(1).toString().replace(escape, escape + escape);
       super.visitOperation(
@@ -1118,13 +1244,35 @@ public class SQLSerializer extends SerializerBase<SQLSerializer> {
       @SuppressWarnings("unchecked")
       Collection<Object> coll = ((Constant<Collection<Object>>) args.get(1)).getConstant();
       if (coll.isEmpty()) {
+        if (recorder != null) {
+          recorder.suspend();
+        }
         super.visitOperation(
             type,
             operator == Ops.IN ? Ops.EQ : Ops.NE,
             Arrays.asList(Expressions.ONE, Expressions.TWO));
+        if (recorder != null) {
+          recorder.resume();
+        }
       } else {
-        if (templates.getListMaxSize() == 0 || coll.size() <= templates.getListMaxSize()) {
+        Object array = getInListArray((Path<?>) args.get(0), coll);
+        if (array != null) {
+          if (pathAdded) {
+            constantPaths.removeLast();
+          }
+          // bound via the array type of the values instead of the column type
+          inListArraySource = coll;
+          super.visitOperation(
+              type,
+              operator == Ops.IN ? SQLOps.IN_ARRAY : SQLOps.NOT_IN_ARRAY,
+              Arrays.asList(args.get(0), ConstantImpl.create(array)));
+          inListArraySource = null;
+        } else if (templates.getListMaxSize() == 0 || coll.size() <= templates.getListMaxSize()) {
+          if (configuration.getInListPadding() && !useLiterals) {
+            inListSize = getPaddedSize(coll.size());
+          }
           super.visitOperation(type, operator, args);
+          inListSize = 0;
         } else {
           // The type of the path is compatible with the constant
           // expression, since the compile time checking mandates it to be
@@ -1133,8 +1281,16 @@ public class SQLSerializer extends SerializerBase<SQLSerializer> {
           if (pathAdded) {
             constantPaths.removeLast();
           }
+          List<Object> values = new ArrayList<>(coll);
+          if (configuration.getInListPadding() && !useLiterals) {
+            // pad the last partition
+            Object last = values.get(values.size() - 1);
+            while (values.size() % templates.getListMaxSize() != 0) {
+              values.add(last);
+            }
+          }
           Iterable<List<Object>> partitioned =
-              CollectionUtils.partition(new ArrayList<>(coll), templates.getListMaxSize());
+              CollectionUtils.partition(values, templates.getListMaxSize());
           Predicate result;
           if (operator == Ops.IN) {
             result = ExpressionUtils.inAny(path, partitioned);
@@ -1175,6 +1331,52 @@ public class SQLSerializer extends SerializerBase<SQLSerializer> {
     this.useLiterals = useLiterals;
   }
 
+  @Nullable
+  private Object getInListArray(Path<?> path, Collection<?> values) {
+    int threshold = configuration.getInListArrayThreshold();
+    if (threshold == 0
+        || values.size() < threshold
+        || useLiterals
+        || !templates.isArrayParametersSupported()
+        || (stage == Stage.SELECT && templates.isWrapSelectParameters())) {
+      return null;
+    }
+    Class<?> componentType = path.getType();
+    Class<?> arrayType = java.lang.reflect.Array.newInstance(componentType, 0).getClass();
+    if (!(configuration.getType(null, arrayType) instanceof ArrayType)) {
+      return null;
+    }
+    for (Object value : values) {
+      if (!componentType.isInstance(value)) {
+        return null;
+      }
+    }
+    return toArray(values, componentType);
+  }
+
+  static Object toArray(Collection<?> values, Class<?> componentType) {
+    Object array = java.lang.reflect.Array.newInstance(componentType, values.size());
+    int i = 0;
+    for (Object value : values) {
+      java.lang.reflect.Array.set(array, i++, value);
+    }
+    return array;
+  }
+
+  private int getPaddedSize(int size) {
+    int padded = Integer.highestOneBit(size);
+    if (padded < size) {
+      padded = padded < (1 << 30) ? padded << 1 : size;
+    }
+    if (templates.getListMaxSize() > 0) {
+      padded = Math.min(padded, templates.getListMaxSize());
+    }
+    if (templates.getMaxParameters() < Integer.MAX_VALUE) {
+      padded = Math.min(padded, templates.getMaxParameters() - constants.size());
+    }
+    return Math.max(padded, size);
+  }
+
   protected void setSkipParent(boolean b) {
     skipParent = b;
   }
@@ -67,6 +67,7 @@ public class SQLServer2005Templates extends SQLServerTemplates {
 
   protected SQLServer2005Templates(Set<String> keywords, char escape, boolean quote) {
     super(keywords, escape, quote);
+    setOutputInsertedSupported(true);
     // The older MSSQL Server suite doesn't support logarithms with a base other
     // than 10 and the natural logarithm, so we do it manually
     add(Ops.MathOps.LOG, "(LOG({0}) / LOG({1}))");
@@ -62,6 +62,8 @@ public class SQLServer2012Templates extends SQLServerTemplates {
 
   protected SQLServer2012Templates(Set<String> keywords, char escape, boolean quote) {
     super(keywords, escape, quote);
+    setCountViaAnalytics(true);
+    setOutputInsertedSupported(true);
     add(SQLOps.NEXTVAL, "next value for {0s}");
   }
 
@@ -0,0 +1,416 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * {@code SQLStatementCache} keeps prepared statements open between executions, per connection and
+ * SQL string.
+ *
+ * <p>The statements handed out by the cache are wrappers, which return the statement to the cache
+ * when they are closed instead of closing it. A statement is used by one execution at a time, while
+ * it is in use another execution of the same SQL string prepares a new statement. Before a
+ * statement is returned to the cache, its parameters and batches are cleared and the statement
+ * options are reset.
+ *
+ * <p>Per connection the least recently used statements are closed when the maximum size is
+ * exceeded. The cache holds strong references to the connections of the cached statements, so
+ * {@link #evict(Connection)} needs to be called before a connection is closed or returned to a
+ * pool. Statements of connections which were closed without being evicted, for example through the
+ * {@link SQLCloseListener}, are closed when the cache prepares a new statement.
+ *
+ * <p>Statements are cached per connection object, so the cache only helps if the same connection
+ * object is used for many executions, for example a connection which is pinned for a batch job.
+ * Connections obtained from a {@code DataSource} or pool per query, as by {@link
+ * SQLQueryFactory#SQLQueryFactory(Configuration, javax.sql.DataSource)}, are usually new wrapper
+ * objects, whose statements are never reused. The cache is useful for drivers and pools without a
+ * statement cache of their own.
+ */
+public final class SQLStatementCache {
+
+  private static final Logger logger = Logger.getLogger(SQLStatementCache.class.getName());
+
+  private static final int NO_KEYS = -1;
+
+  private final int maxSize;
+
+  private final Map<Connection, Map<Key, Entry>> statements = new IdentityHashMap<>();
+
+  private final AtomicLong hits = new AtomicLong();
+
+  private final AtomicLong misses = new AtomicLong();
+
+  /**
+   * Create a new cache instance
+   *
+   * @param maxSize maximum amount of cached statements per connection
+   */
+  public SQLStatementCache(final int maxSize) {
+    if (maxSize < 1) {
+      throw new IllegalArgumentException("maxSize needs to be positive, got " + maxSize);
+    }
+    this.maxSize = maxSize;
+  }
+
+  /**
+   * Get a prepared statement for the given SQL string
+   *
+   * @param connection connection
+   * @param sql SQL string
+   * @return statement, which is returned to the cache when closed
+   * @throws SQLException if the statement could not be prepared
+   * @see Connection#prepareStatement(String)
+   */
+  public PreparedStatement prepareStatement(Connection connection, String sql) throws SQLException {
+    return prepare(connection, new Key(sql, NO_KEYS, null));
+  }
+
+  /**
+   * Get a prepared statement for the given SQL string, which returns the generated keys
+   *
+   * @param connection connection
+   * @param sql SQL string
+   * @param autoGeneratedKeys {@link Statement#RETURN_GENERATED_KEYS} or {@link
+   *     Statement#NO_GENERATED_KEYS}
+   * @return statement, which is returned to the cache when closed
+   * @throws SQLException if the statement could not be prepared
+   * @see Connection#prepareStatement(String, int)
+   */
+  public PreparedStatement prepareStatement(
+      Connection connection, String sql, int autoGeneratedKeys) throws SQLException {
+    return prepare(connection, new Key(sql, autoGeneratedKeys, null));
+  }
+
+  /**
+   * Get a prepared statement for the given SQL string, which returns the given generated columns
+   *
+   * @param connection connection
+   * @param sql SQL string
+   * @param columnNames names of the generated columns
+   * @return statement, which is returned to the cache when closed
+   * @throws SQLException if the statement could not be prepared
+   * @see Connection#prepareStatement(String, String[])
+   */
+  public PreparedStatement prepareStatement(Connection connection, String sql, String[] columnNames)
+      throws SQLException {
+    return prepare(connection, new Key(sql, NO_KEYS, columnNames.clone()));
+  }
+
+  private PreparedStatement prepare(Connection connection, Key key) throws SQLException {
+    Entry entry = checkout(connection, key);
+    if (entry != null) {
+      hits.incrementAndGet();
+    } else {
+      misses.incrementAndGet();
+      purgeClosedConnections();
+      PreparedStatement statement;
+      if (key.columnNames != null) {
+        statement = connection.prepareStatement(key.sql, key.columnNames);
+      } else if (key.autoGeneratedKeys != NO_KEYS) {
+        statement = connection.prepareStatement(key.sql, key.autoGeneratedKeys);
+      } else {
+        statement = connection.prepareStatement(key.sql);
+      }
+      entry = new Entry(statement);
+    }
+    return new Lease(connection, key, entry);
+  }
+
+  @Nullable
+  private Entry checkout(Connection connection, Key key) throws SQLException {
+    List<Entry> closed = null;
+    Entry entry;
+    synchronized (statements) {
+      Map<Key, Entry> entries = statements.get(connection);
+      entry = entries != null ? entries.remove(key) : null;
+      if (entry != null && connection.isClosed()) {
+        // the statements of closed connections are closed as well
+        statements.remove(connection);
+        closed = new ArrayList<>(entries.values());
+        closed.add(entry);
+        entry = null;
+      }
+    }
+    if (closed != null) {
+      closeAll(closed);
+    } else if (entry != null && entry.statement.isClosed()) {
+      entry = null;
+    }
+    return entry;
+  }
+
+  private void release(Connection connection, Key key, Entry entry) {
+    try {
+      if (!entry.statement.isClosed() && !connection.isClosed()) {
+        entry.reset();
+        List<Entry> closed = new ArrayList<>();
+        synchronized (statements) {
+          Map<Key, Entry> entries = statements.get(connection);
+          if (entries == null) {
+            entries = createEntries();
+            statements.put(connection, entries);
+          }
+          Entry replaced = entries.put(key, entry);
+          if (replaced != null) {
+            // the statement of a concurrent execution was returned before
+            closed.add(replaced);
+          }
+        }
+        closeAll(closed);
+        return;
+      }
+    } catch (SQLException e) {
+      logger.log(Level.FINE, "Caught " + e.getClass().getName() + " on release", e);
+    }
+    close(entry);
+  }
+
+  private void purgeClosedConnections() throws SQLException {
+    List<Entry> closed = new ArrayList<>();
+    synchronized (statements) {
+      Iterator<Map.Entry<Connection, Map<Key, Entry>>> it = statements.entrySet().iterator();
+      while (it.hasNext()) {
+        Map.Entry<Connection, Map<Key, Entry>> entry = it.next();
+        if (entry.getKey().isClosed()) {
+          closed.addAll(entry.getValue().values());
+          it.remove();
+        }
+      }
+    }
+    closeAll(closed);
+  }
+
+  private Map<Key, Entry> createEntries() {
+    return new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+        if (size() > maxSize) {
+          close(eldest.getValue());
+          return true;
+        }
+        return false;
+      }
+    };
+  }
+
+  /**
+   * Close and remove the cached statements of the given connection, which needs to be called before
+   * the connection is closed or returned to a pool
+   *
+   * @param connection connection
+   */
+  public void evict(Connection connection) {
+    Map<Key, Entry> entries;
+    synchronized (statements) {
+      entries = statements.remove(connection);
+    }
+    if (entries != null) {
+      closeAll(entries.values());
+    }
+  }
+
+  /** Close and remove all cached statements */
+  public void clear() {
+    List<Entry> entries = new ArrayList<>();
+    synchronized (statements) {
+      for (Map<Key, Entry> values : statements.values()) {
+        entries.addAll(values.values());
+      }
+      statements.clear();
+    }
+    closeAll(entries);
+  }
+
+  /**
+   * Get the amount of statements taken from the cache
+   *
+   * @return cache hits
+   */
+  public long getHitCount() {
+    return hits.get();
+  }
+
+  /**
+   * Get the amount of newly prepared statements
+   *
+   * @return cache misses
+   */
+  public long getMissCount() {
+    return misses.get();
+  }
+
+  /**
+   * Get the maximum amount of cached statements per connection
+   *
+   * @return maximum size
+   */
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  /**
+   * Get the current amount of cached statements
+   *
+   * @return size
+   */
+  public int size() {
+    synchronized (statements) {
+      int size = 0;
+      for (Map<Key, Entry> entries : statements.values()) {
+        size += entries.size();
+      }
+      return size;
+    }
+  }
+
+  private static void closeAll(Iterable<Entry> entries) {
+    for (Entry entry : entries) {
+      close(entry);
+    }
+  }
+
+  private static void close(Entry entry) {
+    try {
+      entry.statement.close();
+    } catch (SQLException e) {
+      logger.log(Level.WARNING, "Caught " + e.getClass().getName() + " on close", e);
+    }
+  }
+
+  /** SQL string and generated keys mode of a statement */
+  private static final class Key {
+
+    private final String sql;
+
+    private final int autoGeneratedKeys;
+
+    @Nullable private final String[] columnNames;
+
+    private final int hashCode;
+
+    Key(String sql, int autoGeneratedKeys, @Nullable String[] columnNames) {
+      this.sql = sql;
+      this.autoGeneratedKeys = autoGeneratedKeys;
+      this.columnNames = columnNames;
+      this.hashCode = 31 * (31 * sql.hashCode() + autoGeneratedKeys) + Arrays.hashCode(columnNames);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (o == this) {
+        return true;
+      } else if (o instanceof Key) {
+        Key other = (Key) o;
+        return sql.equals(other.sql)
+            && autoGeneratedKeys == other.autoGeneratedKeys
+            && Arrays.equals(columnNames, other.columnNames);
+      } else {
+        return false;
+      }
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+
+  /** Cached statement with its initial options */
+  private static final class Entry {
+
+    private final PreparedStatement statement;
+
+    private final int fetchSize, maxFieldSize, queryTimeout, maxRows;
+
+    Entry(PreparedStatement statement) throws SQLException {
+      this.statement = statement;
+      this.fetchSize = statement.getFetchSize();
+      this.maxFieldSize = statement.getMaxFieldSize();
+      this.queryTimeout = statement.getQueryTimeout();
+      this.maxRows = statement.getMaxRows();
+    }
+
+    void reset() throws SQLException {
+      statement.clearParameters();
+      statement.clearBatch();
+      if (statement.getFetchSize() != fetchSize) {
+        statement.setFetchSize(fetchSize);
+      }
+      if (statement.getMaxFieldSize() != maxFieldSize) {
+        statement.setMaxFieldSize(maxFieldSize);
+      }
+      if (statement.getQueryTimeout() != queryTimeout) {
+        statement.setQueryTimeout(queryTimeout);
+      }
+      if (statement.getMaxRows() != maxRows) {
+        statement.setMaxRows(maxRows);
+      }
+    }
+  }
+
+  /** Use of a cached statement by one execution */
+  private final class Lease extends PreparedStatementAdapter {
+
+    private final Connection connection;
+
+    private final Key key;
+
+    private final Entry entry;
+
+    private boolean closed;
+
+    Lease(Connection connection, Key key, Entry entry) {
+      super(entry.statement);
+      this.connection = connection;
+      this.key = key;
+      this.entry = entry;
+    }
+
+    @Override
+    protected PreparedStatement getDelegate() throws SQLException {
+      if (closed) {
+        throw new SQLException("Statement is closed");
+      }
+      return entry.statement;
+    }
+
+    @Override
+    public void close() {
+      if (!closed) {
+        closed = true;
+        release(connection, key, entry);
+      }
+    }
+
+    @Override
+    public boolean isClosed() throws SQLException {
+      return closed || entry.statement.isClosed();
+    }
+  }
+}
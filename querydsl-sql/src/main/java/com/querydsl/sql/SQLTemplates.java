@@ -18,6 +18,7 @@ import com.querydsl.core.QueryFlag.Position;
 import com.querydsl.core.types.*;
 import com.querydsl.core.types.dsl.SimpleExpression;
 import com.querydsl.sql.dml.SQLInsertBatch;
+import com.querydsl.sql.dml.SQLMergeBatch;
 import com.querydsl.sql.dml.SQLMergeUsingCase;
 import com.querydsl.sql.types.Type;
 import java.lang.reflect.Field;
@@ -72,7 +73,7 @@ public class SQLTemplates extends Templates {
   /** Fluent builder for {@code SQLTemplates} instances * */
   public abstract static class Builder {
 
-    protected boolean printSchema, quote, newLineToSingleSpace;
+    protected boolean printSchema, quote, newLineToSingleSpace, upsert;
 
     protected char escape = '\\';
 
@@ -96,6 +97,22 @@ public class SQLTemplates extends Templates {
       return this;
     }
 
+    /**
+     * Execute merges, whose keys are the primary key, as inserts with an upsert clause. Merges with
+     * other keys are still executed as a select followed by an insert or update. Dialects without
+     * upsert support ignore this option.
+     *
+     * <p>MySQL resolves the conflicts of {@code on duplicate key update} on any unique index of the
+     * table, not only on the primary key, so this option should only be used with MySQL if the
+     * merged tables have no other unique indexes.
+     *
+     * @return builder
+     */
+    public Builder upsert() {
+      upsert = true;
+      return this;
+    }
+
     protected abstract SQLTemplates build(char escape, boolean quote);
 
     public SQLTemplates build() {
@@ -104,6 +121,9 @@ public class SQLTemplates extends Templates {
         templates.newLineToSingleSpace();
       }
       templates.setPrintSchema(printSchema);
+      if (upsert && templates.isUpsertSupported()) {
+        templates.setNativeMerge(true);
+      }
       return templates;
     }
   }
@@ -232,8 +252,22 @@ public class SQLTemplates extends Templates {
 
   private boolean batchToBulkSupported = true;
 
+  private boolean upsertSupported = false;
+
+  private boolean outputInsertedSupported = false;
+
+  private boolean arrayParametersSupported = false;
+
+  private boolean rowValueComparisonSupported = false;
+
+  private boolean nullsSortedHigh = false;
+
+  private boolean nullsSortedAtStart = false;
+
   private int listMaxSize = 0;
 
+  private int maxParameters = Integer.MAX_VALUE;
+
   private boolean supportsUnquotedReservedWordsAsIdentifier = false;
 
   private int maxLimit = Integer.MAX_VALUE;
@@ -280,6 +314,8 @@ public class SQLTemplates extends Templates {
     add(Ops.AND, "{0} and {1}");
     add(Ops.NOT, "not {0}", Precedence.NOT);
     add(Ops.OR, "{0} or {1}");
+    add(SQLOps.IN_ARRAY, "{0} = any({1})", Precedence.COMPARISON);
+    add(SQLOps.NOT_IN_ARRAY, "{0} <> all({1})", Precedence.COMPARISON);
 
     // math
     add(Ops.MathOps.RANDOM, "rand()");
@@ -789,6 +825,15 @@ public class SQLTemplates extends Templates {
     return listMaxSize;
   }
 
+  /**
+   * Get the maximum amount of bind parameters of a single statement
+   *
+   * @return parameter limit
+   */
+  public final int getMaxParameters() {
+    return maxParameters;
+  }
+
   public final boolean isSupportsUnquotedReservedWordsAsIdentifier() {
     return supportsUnquotedReservedWordsAsIdentifier;
   }
@@ -797,6 +842,65 @@ public class SQLTemplates extends Templates {
     return batchToBulkSupported;
   }
 
+  /**
+   * Get whether merges can be rendered as inserts, which update the conflicting row of the primary
+   * key, see {@link Builder#upsert()}
+   *
+   * @return true, if upserts are supported
+   */
+  public final boolean isUpsertSupported() {
+    return upsertSupported;
+  }
+
+  /**
+   * Get whether inserted columns can be returned with an OUTPUT INSERTED clause
+   *
+   * @return true, if OUTPUT INSERTED is supported
+   */
+  public final boolean isOutputInsertedSupported() {
+    return outputInsertedSupported;
+  }
+
+  /**
+   * Get whether a value can be compared with the elements of an array parameter via the templates
+   * of {@link SQLOps#IN_ARRAY} and {@link SQLOps#NOT_IN_ARRAY}
+   *
+   * @return true, if array parameters are supported
+   */
+  public final boolean isArrayParametersSupported() {
+    return arrayParametersSupported;
+  }
+
+  /**
+   * Get whether row values can be compared with the ordering operators, as in {@code (a, b) > (?,
+   * ?)}
+   *
+   * @return true, if row value comparisons are supported
+   */
+  public final boolean isRowValueComparisonSupported() {
+    return rowValueComparisonSupported;
+  }
+
+  /**
+   * Get whether null values are ordered after non-null values in ascending order, if no null
+   * ordering is given
+   *
+   * @return true, if nulls are sorted high
+   */
+  public final boolean isNullsSortedHigh() {
+    return nullsSortedHigh;
+  }
+
+  /**
+   * Get whether null values are ordered before non-null values in both ascending and descending
+   * order, if no null ordering is given. This takes precedence over {@link #isNullsSortedHigh()}.
+   *
+   * @return true, if nulls are sorted at the start
+   */
+  public final boolean isNullsSortedAtStart() {
+    return nullsSortedAtStart;
+  }
+
   public final QueryFlag getForShareFlag() {
     return forShareFlag;
   }
@@ -953,13 +1057,56 @@ public class SQLTemplates extends Templates {
       List<Expression<?>> values,
       SubQueryExpression<?> subQuery,
       SQLSerializer context) {
-    context.serializeForMerge(metadata, entity, keys, columns, values, subQuery);
+    if (upsertSupported && nativeMerge) {
+      context.serializeForUpsert(metadata, entity, keys, columns, values, subQuery);
+    } else {
+      context.serializeForMerge(metadata, entity, keys, columns, values, subQuery);
+    }
 
     if (!metadata.getFlags().isEmpty()) {
       context.serialize(Position.END, metadata.getFlags());
     }
   }
 
+  /**
+   * template method for MERGE serialization of several rows
+   *
+   * @param metadata
+   * @param entity
+   * @param batches
+   * @param context
+   */
+  public void serializeMerge(
+      QueryMetadata metadata,
+      RelationalPath<?> entity,
+      List<SQLMergeBatch> batches,
+      SQLSerializer context) {
+    if (upsertSupported && nativeMerge) {
+      context.serializeForUpsert(metadata, entity, batches);
+    } else {
+      context.serializeForMerge(metadata, entity, batches);
+    }
+
+    if (!metadata.getFlags().isEmpty()) {
+      context.serialize(Position.END, metadata.getFlags());
+    }
+  }
+
+  /**
+   * template method for the conflict handling of an INSERT statement, which is used as a MERGE by
+   * dialects with upsert support, see {@link #isUpsertSupported()}
+   *
+   * @param keys keys of the conflict
+   * @param columns inserted columns
+   * @param subQuery subquery of the inserted rows or null, if the rows are given as values
+   * @param context serializer
+   */
+  protected void serializeUpsertUpdate(
+      List<? extends Path<?>> keys,
+      List<Path<?>> columns,
+      SubQueryExpression<?> subQuery,
+      SQLSerializer context) {}
+
   /**
    * template method for MERGE USING serialization
    *
@@ -1247,6 +1394,10 @@ public class SQLTemplates extends Templates {
     listMaxSize = i;
   }
 
+  protected void setMaxParameters(int i) {
+    maxParameters = i;
+  }
+
   protected void setSupportsUnquotedReservedWordsAsIdentifier(boolean b) {
     this.supportsUnquotedReservedWordsAsIdentifier = b;
   }
@@ -1259,6 +1410,30 @@ public class SQLTemplates extends Templates {
     this.batchToBulkSupported = b;
   }
 
+  protected void setUpsertSupported(boolean b) {
+    this.upsertSupported = b;
+  }
+
+  protected void setOutputInsertedSupported(boolean b) {
+    this.outputInsertedSupported = b;
+  }
+
+  protected void setArrayParametersSupported(boolean b) {
+    this.arrayParametersSupported = b;
+  }
+
+  protected void setRowValueComparisonSupported(boolean b) {
+    this.rowValueComparisonSupported = b;
+  }
+
+  protected void setNullsSortedHigh(boolean b) {
+    this.nullsSortedHigh = b;
+  }
+
+  protected void setNullsSortedAtStart(boolean b) {
+    this.nullsSortedAtStart = b;
+  }
+
   protected void setForShareFlag(QueryFlag flag) {
     forShareFlag = flag;
   }
@@ -70,6 +70,7 @@ public class SQLiteTemplates extends SQLTemplates {
     setDefaultValues("\ndefault values");
     setArraysSupported(false);
     setBatchToBulkSupported(false);
+    setMaxParameters(999);
 
     setPrecedence(Precedence.COMPARISON - 1, Ops.LT, Ops.GT, Ops.LOE, Ops.GOE);
     setPrecedence(Precedence.COMPARISON, Ops.EQ, Ops.EQ_IGNORE_CASE, Ops.NE);
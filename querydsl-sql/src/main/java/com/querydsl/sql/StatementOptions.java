@@ -15,6 +15,7 @@
 package com.querydsl.sql;
 
 import com.querydsl.core.annotations.Immutable;
+import java.sql.SQLException;
 import java.sql.Statement;
 
 /** {@code StatementOptions} holds parameters that should be applied to {@link Statement}s. */
@@ -52,6 +53,21 @@ public class StatementOptions {
     return fetchSize;
   }
 
+  void applyTo(Statement statement) throws SQLException {
+    if (fetchSize != null) {
+      statement.setFetchSize(fetchSize);
+    }
+    if (maxFieldSize != null) {
+      statement.setMaxFieldSize(maxFieldSize);
+    }
+    if (queryTimeout != null) {
+      statement.setQueryTimeout(queryTimeout);
+    }
+    if (maxRows != null) {
+      statement.setMaxRows(maxRows);
+    }
+  }
+
   public static Builder builder() {
     return new Builder();
   }
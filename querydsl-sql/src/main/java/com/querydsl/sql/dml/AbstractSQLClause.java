@@ -13,17 +13,26 @@
  */
 package com.querydsl.sql.dml;
 
+import com.querydsl.core.DefaultQueryMetadata;
 import com.querydsl.core.QueryMetadata;
 import com.querydsl.core.dml.DMLClause;
+import com.querydsl.core.types.ConstantImpl;
+import com.querydsl.core.types.ExpressionUtils;
 import com.querydsl.core.types.ParamExpression;
 import com.querydsl.core.types.ParamNotSetException;
 import com.querydsl.core.types.Path;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.Expressions;
 import com.querydsl.sql.*;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -37,6 +46,9 @@ import org.jetbrains.annotations.Nullable;
  */
 public abstract class AbstractSQLClause<C extends AbstractSQLClause<C>> implements DMLClause<C> {
 
+  // maximum amount of distinct batch shapes, whose SQL is kept during a batch execution
+  private static final int MAX_BATCH_SHAPES = 64;
+
   protected final Configuration configuration;
 
   protected final SQLListeners listeners;
@@ -49,6 +61,8 @@ public abstract class AbstractSQLClause<C extends AbstractSQLClause<C>> implemen
 
   @Nullable private Connection conn;
 
+  @Nullable private SQLListenerContext parentContext;
+
   public AbstractSQLClause(Configuration configuration) {
     this.configuration = configuration;
     this.listeners = new SQLListeners(configuration.getListeners());
@@ -77,6 +91,89 @@ public abstract class AbstractSQLClause<C extends AbstractSQLClause<C>> implemen
   /** Clear the internal state of the clause */
   public abstract void clear();
 
+  /**
+   * Asynchronously execute the clause on the executor of the {@link Configuration}.
+   *
+   * <p>The listener context of the asynchronous execution is started on the calling thread and is
+   * available to the context of the executed statement as {@link AbstractSQLQuery#PARENT_CONTEXT}.
+   * The connection is obtained on the executing thread. The clause must not be modified until the
+   * future is completed.
+   *
+   * @return future of the affected rows count
+   * @see #execute()
+   */
+  public CompletableFuture<Long> executeAsync() {
+    final SQLListenerContextImpl asyncContext =
+        new SQLListenerContextImpl(new DefaultQueryMetadata());
+    listeners.start(asyncContext);
+    try {
+      return CompletableFuture.supplyAsync(
+          () -> {
+            parentContext = asyncContext;
+            try {
+              return execute();
+            } catch (RuntimeException e) {
+              onException(asyncContext, e);
+              throw e;
+            } finally {
+              parentContext = null;
+              asyncContext.setConnection(conn);
+              listeners.end(asyncContext);
+            }
+          },
+          configuration.getExecutor());
+    } catch (RuntimeException e) {
+      onException(asyncContext, e);
+      listeners.end(asyncContext);
+      throw e;
+    }
+  }
+
+  /**
+   * Start a context, which is the parent of the contexts of the following executions of this
+   * clause, so the connection of the clause is kept across the executions until the context is
+   * ended with {@link #endParentContext(SQLListenerContextImpl)}
+   *
+   * @return parent context
+   */
+  SQLListenerContextImpl startParentContext() {
+    SQLListenerContextImpl context = new SQLListenerContextImpl(new DefaultQueryMetadata());
+    listeners.start(context);
+    parentContext = context;
+    return context;
+  }
+
+  /**
+   * End the parent context of the executions, which releases the connection of the clause
+   *
+   * @param context parent context
+   */
+  void endParentContext(SQLListenerContextImpl context) {
+    parentContext = null;
+    context.setConnection(conn);
+    listeners.end(context);
+  }
+
+  /**
+   * Get the parent context of the executions of this clause
+   *
+   * @return parent context or null
+   */
+  @Nullable
+  SQLListenerContext getParentContext() {
+    return parentContext;
+  }
+
+  /**
+   * Set the parent context of the executions of this clause, for clauses which are executed on
+   * behalf of another clause and share its connection
+   *
+   * @param context parent context or null
+   */
+  void setParentContext(@Nullable SQLListenerContext context) {
+    parentContext = context;
+  }
+
   /**
    * Called to create and start a new SQL Listener context
    *
@@ -88,6 +185,9 @@ public abstract class AbstractSQLClause<C extends AbstractSQLClause<C>> implemen
   protected SQLListenerContextImpl startContext(
       Connection connection, QueryMetadata metadata, RelationalPath<?> entity) {
     SQLListenerContextImpl context = new SQLListenerContextImpl(metadata, connection, entity);
+    if (parentContext != null) {
+      context.setData(AbstractSQLQuery.PARENT_CONTEXT, parentContext);
+    }
     listeners.start(context);
     return context;
   }
@@ -129,12 +229,102 @@ public abstract class AbstractSQLClause<C extends AbstractSQLClause<C>> implemen
     return new SQLBindings(queryString, args);
   }
 
+  /**
+   * Create the cache for the SQL of the distinct batch shapes of a single batch execution
+   *
+   * @return cache or null, if literals are used
+   */
+  @Nullable
+  protected SQLSerializationCache createBatchCache() {
+    return useLiterals ? null : new SQLSerializationCache(MAX_BATCH_SHAPES);
+  }
+
+  /**
+   * Serialize a batch entry. If a cache and the shape of the entry are given, only the first entry
+   * of each shape is rendered, the following entries reuse its SQL string and are only bound.
+   *
+   * @param cache batch cache or null
+   * @param shape shape of the entry or null
+   * @param serializer empty serializer to populate
+   * @param renderer renderer of the entry
+   * @return true, if the SQL string was taken from the cache
+   */
+  protected boolean serializeBatch(
+      @Nullable SQLSerializationCache cache,
+      @Nullable QueryShape shape,
+      SQLSerializer serializer,
+      Consumer<? super SQLSerializer> renderer) {
+    if (cache != null && shape != null) {
+      return cache.serialize(shape, serializer, renderer);
+    } else {
+      renderer.accept(serializer);
+      return false;
+    }
+  }
+
   protected SQLSerializer createSerializer() {
     SQLSerializer serializer = new SQLSerializer(configuration, true);
     serializer.setUseLiterals(useLiterals);
     return serializer;
   }
 
+  /**
+   * Create the conditions for executing the clause with the given keys. If array binding is enabled
+   * and supported by the templates, the keys are compared with a single array parameter. Otherwise
+   * they are partitioned into IN conditions of at most the given chunk size, which is further
+   * limited by the list limit of the templates and by the largest power of two, with which the
+   * statement stays below the parameter limit of the templates. If there are several chunks, the
+   * last one is padded by repeating its last key, so all conditions render the same SQL and are
+   * executed as a batch of a single statement.
+   *
+   * @param key key column
+   * @param keys keys of the affected rows
+   * @param chunkSize maximum amount of keys per condition
+   * @param params amount of other parameters of the statement
+   * @param arrayBinding true, to compare the keys with an array parameter
+   * @return key conditions
+   * @throws IllegalStateException if the other parameters leave no room for keys
+   */
+  protected <T> List<Predicate> getKeyConditions(
+      Path<T> key, Collection<? extends T> keys, int chunkSize, int params, boolean arrayBinding) {
+    SQLTemplates templates = configuration.getTemplates();
+    List<T> distinct = new ArrayList<>(new LinkedHashSet<>(keys));
+    if (arrayBinding && templates.isArrayParametersSupported() && !useLiterals) {
+      Object array = java.lang.reflect.Array.newInstance(key.getType(), distinct.size());
+      for (int i = 0; i < distinct.size(); i++) {
+        java.lang.reflect.Array.set(array, i, distinct.get(i));
+      }
+      return Collections.singletonList(
+          Expressions.booleanOperation(SQLOps.IN_ARRAY, key, ConstantImpl.create(array)));
+    }
+    int size = chunkSize;
+    if (templates.getListMaxSize() > 0) {
+      size = Math.min(size, templates.getListMaxSize());
+    }
+    if (templates.getMaxParameters() < Integer.MAX_VALUE) {
+      int available = templates.getMaxParameters() - params - 1;
+      if (available < 1) {
+        throw new IllegalStateException(
+            "The statement has "
+                + params
+                + " other parameters, which leave no room for keys within the limit of "
+                + templates.getMaxParameters()
+                + " parameters");
+      }
+      // power of two chunks leave headroom below the limit, as the bulk chunks do
+      size = Math.min(size, Integer.highestOneBit(available));
+    }
+    List<Predicate> conditions = new ArrayList<>();
+    for (int i = 0; i < distinct.size(); i += size) {
+      List<T> chunk = new ArrayList<>(distinct.subList(i, Math.min(i + size, distinct.size())));
+      while (i > 0 && chunk.size() < size) {
+        chunk.add(chunk.get(chunk.size() - 1));
+      }
+      conditions.add(ExpressionUtils.in(key, chunk));
+    }
+    return conditions;
+  }
+
   /**
    * Get the SQL string and bindings
    *
@@ -229,6 +419,55 @@ public abstract class AbstractSQLClause<C extends AbstractSQLClause<C>> implemen
 
   protected void reset() {}
 
+  /**
+   * Prepare a statement for the given SQL string, taking it from the statement cache of the
+   * configuration, if there is one
+   *
+   * @param sql SQL string
+   * @return statement
+   * @throws SQLException if the statement could not be prepared
+   */
+  protected PreparedStatement prepareStatement(String sql) throws SQLException {
+    SQLStatementCache cache = configuration.getStatementCache();
+    return cache != null
+        ? cache.prepareStatement(connection(), sql)
+        : connection().prepareStatement(sql);
+  }
+
+  /**
+   * Prepare a statement for the given SQL string, which returns the generated keys
+   *
+   * @param sql SQL string
+   * @param autoGeneratedKeys generated keys mode
+   * @return statement
+   * @throws SQLException if the statement could not be prepared
+   * @see #prepareStatement(String)
+   */
+  protected PreparedStatement prepareStatement(String sql, int autoGeneratedKeys)
+      throws SQLException {
+    SQLStatementCache cache = configuration.getStatementCache();
+    return cache != null
+        ? cache.prepareStatement(connection(), sql, autoGeneratedKeys)
+        : connection().prepareStatement(sql, autoGeneratedKeys);
+  }
+
+  /**
+   * Prepare a statement for the given SQL string, which returns the given generated columns
+   *
+   * @param sql SQL string
+   * @param columnNames names of the generated columns
+   * @return statement
+   * @throws SQLException if the statement could not be prepared
+   * @see #prepareStatement(String)
+   */
+  protected PreparedStatement prepareStatement(String sql, String[] columnNames)
+      throws SQLException {
+    SQLStatementCache cache = configuration.getStatementCache();
+    return cache != null
+        ? cache.prepareStatement(connection(), sql, columnNames)
+        : connection().prepareStatement(sql, columnNames);
+  }
+
   protected Connection connection() {
     if (conn == null) {
       if (connProvider != null) {
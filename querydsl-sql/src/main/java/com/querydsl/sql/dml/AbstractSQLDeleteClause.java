@@ -17,11 +17,15 @@ import com.querydsl.core.*;
 import com.querydsl.core.QueryFlag.Position;
 import com.querydsl.core.dml.DeleteClause;
 import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Path;
 import com.querydsl.core.types.Predicate;
 import com.querydsl.core.types.ValidatingVisitor;
+import com.querydsl.sql.AbstractSQLQuery;
 import com.querydsl.sql.Configuration;
+import com.querydsl.sql.QueryShape;
 import com.querydsl.sql.RelationalPath;
 import com.querydsl.sql.SQLBindings;
+import com.querydsl.sql.SQLSerializationCache;
 import com.querydsl.sql.SQLSerializer;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -58,6 +62,10 @@ public abstract class AbstractSQLDeleteClause<C extends AbstractSQLDeleteClause<
 
   protected transient List<Object> constants;
 
+  private int keyChunkSize = 500;
+
+  private boolean arrayBinding;
+
   public AbstractSQLDeleteClause(
       Connection connection, Configuration configuration, RelationalPath<?> entity) {
     super(configuration, connection);
@@ -111,6 +119,60 @@ public abstract class AbstractSQLDeleteClause<C extends AbstractSQLDeleteClause<
     return (C) this;
   }
 
+  /**
+   * Set the maximum amount of keys per statement of {@link #executeByKeys(Path, Collection)},
+   * defaults to 500. The chunks are further limited by the list and parameter limits of the
+   * templates.
+   *
+   * @param keyChunkSize keys per statement
+   */
+  public void setKeyChunkSize(int keyChunkSize) {
+    if (keyChunkSize < 1) {
+      throw new IllegalArgumentException("keyChunkSize needs to be positive, got " + keyChunkSize);
+    }
+    this.keyChunkSize = keyChunkSize;
+  }
+
+  /**
+   * Set whether {@link #executeByKeys(Path, Collection)} should bind all keys as a single array
+   * parameter, if the templates support array parameters. Defaults to false.
+   *
+   * @param arrayBinding true, to bind the keys as an array
+   */
+  public void setArrayBinding(boolean arrayBinding) {
+    this.arrayBinding = arrayBinding;
+  }
+
+  /**
+   * Execute the clause for the rows whose key is contained in the given keys. The key condition is
+   * combined with the where conditions of the clause. The keys are partitioned into IN lists of a
+   * fixed size, which are executed as a batch of a single statement.
+   *
+   * @param key key column
+   * @param keys keys of the deleted rows
+   * @return amount of deleted rows
+   */
+  public <T> long executeByKeys(Path<T> key, Collection<? extends T> keys) {
+    if (!batches.isEmpty()) {
+      throw new IllegalStateException("executeByKeys can't be combined with batches");
+    } else if (keys.isEmpty()) {
+      return 0;
+    }
+    SQLSerializer serializer = createSerializer();
+    serializer.serializeDelete(metadata, entity);
+    int params = serializer.getConstants().size();
+    for (Predicate condition : getKeyConditions(key, keys, keyChunkSize, params, arrayBinding)) {
+      QueryMetadata md = metadata.clone();
+      md.addWhere(condition);
+      batches.add(md);
+    }
+    try {
+      return execute();
+    } finally {
+      batches.clear();
+    }
+  }
+
   @Override
   public void clear() {
     batches.clear();
@@ -130,7 +192,7 @@ public abstract class AbstractSQLDeleteClause<C extends AbstractSQLDeleteClause<
     listeners.rendered(context);
 
     listeners.prePrepare(context);
-    PreparedStatement stmt = connection().prepareStatement(queryString);
+    PreparedStatement stmt = prepareStatement(queryString);
     setParameters(
         stmt, serializer.getConstants(), serializer.getConstantPaths(), metadata.getParams());
 
@@ -142,49 +204,55 @@ public abstract class AbstractSQLDeleteClause<C extends AbstractSQLDeleteClause<
 
   protected Collection<PreparedStatement> createStatements() throws SQLException {
     boolean addBatches = !configuration.getUseLiterals();
-    listeners.preRender(context);
-    SQLSerializer serializer = createSerializer();
-    serializer.serializeDelete(batches.get(0), entity);
-    queryString = serializer.toString();
-    constants = serializer.getConstants();
-    logQuery(logger, queryString, constants);
-    context.addSQL(createBindings(metadata, serializer));
-    listeners.rendered(context);
-
+    SQLSerializationCache cache = createBatchCache();
     Map<String, PreparedStatement> stmts = new HashMap<>();
+    Map<QueryShape, PreparedStatement> stmtsByShape = new HashMap<>();
 
-    // add first batch
-    listeners.prePrepare(context);
-    PreparedStatement stmt = connection().prepareStatement(queryString);
-    setParameters(
-        stmt, serializer.getConstants(), serializer.getConstantPaths(), metadata.getParams());
-    if (addBatches) {
-      stmt.addBatch();
-    }
-    stmts.put(queryString, stmt);
-    context.addPreparedStatement(stmt);
-    listeners.prepared(context);
-
-    // add other batches
-    for (int i = 1; i < batches.size(); i++) {
+    for (QueryMetadata batch : batches) {
       listeners.preRender(context);
-      serializer = createSerializer();
-      serializer.serializeDelete(batches.get(i), entity);
+      QueryShape shape = cache != null ? QueryShape.builder().metadata(batch).build() : null;
+      SQLSerializer serializer = createSerializer();
+      boolean cached =
+          serializeBatch(cache, shape, serializer, s -> s.serializeDelete(batch, entity));
+      if (stmts.isEmpty()) {
+        queryString = serializer.toString();
+        constants = serializer.getConstants();
+        logQuery(logger, queryString, constants);
+      }
       context.addSQL(createBindings(metadata, serializer));
       listeners.rendered(context);
 
-      stmt = stmts.get(serializer.toString());
+      // the statement of a cached shape is the one of its last rendering
+      PreparedStatement stmt = cached ? stmtsByShape.get(shape) : null;
+      if (stmt == null) {
+        stmt = stmts.get(serializer.toString());
+      }
+      boolean bound = false;
       if (stmt == null) {
         listeners.prePrepare(context);
-        stmt = connection().prepareStatement(serializer.toString());
+        stmt = prepareStatement(serializer.toString());
+        if (stmts.isEmpty()) {
+          // the first batch is bound before the statement is reported as prepared
+          setParameters(
+              stmt, serializer.getConstants(), serializer.getConstantPaths(), metadata.getParams());
+          if (addBatches) {
+            stmt.addBatch();
+          }
+          bound = true;
+        }
         stmts.put(serializer.toString(), stmt);
         context.addPreparedStatement(stmt);
         listeners.prepared(context);
       }
-      setParameters(
-          stmt, serializer.getConstants(), serializer.getConstantPaths(), metadata.getParams());
-      if (addBatches) {
-        stmt.addBatch();
+      if (shape != null && !cached) {
+        stmtsByShape.put(shape, stmt);
+      }
+      if (!bound) {
+        setParameters(
+            stmt, serializer.getConstants(), serializer.getConstantPaths(), metadata.getParams());
+        if (addBatches) {
+          stmt.addBatch();
+        }
       }
     }
 
@@ -204,6 +272,7 @@ public abstract class AbstractSQLDeleteClause<C extends AbstractSQLDeleteClause<
         listeners.preExecute(context);
         int rc = stmt.executeUpdate();
         listeners.executed(context);
+        context.setData(AbstractSQLQuery.ROW_COUNT, (long) rc);
         return rc;
       } else {
         stmts = createStatements();
@@ -212,6 +281,7 @@ public abstract class AbstractSQLDeleteClause<C extends AbstractSQLDeleteClause<
         listeners.preExecute(context);
         long rc = executeBatch(stmts);
         listeners.executed(context);
+        context.setData(AbstractSQLQuery.ROW_COUNT, rc);
         return rc;
       }
     } catch (SQLException e) {
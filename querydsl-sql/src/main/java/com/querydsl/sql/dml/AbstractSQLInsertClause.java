@@ -202,9 +202,8 @@ public abstract class AbstractSQLInsertClause<C extends AbstractSQLInsertClause<
   }
 
   /**
-   * Execute the clause and return the generated key with the type of the given path. If no rows
-   * were created, or the referenced column is not a generated key, null is returned. Otherwise, the
-   * key of the first row is returned.
+   * Execute the clause and return the generated keys with the type of the given path. If batches
+   * were added, the keys of all rows are returned in the order of the batches.
    *
    * @param <T>
    * @param path path for key
@@ -220,6 +219,9 @@ public abstract class AbstractSQLInsertClause<C extends AbstractSQLInsertClause<
   }
 
   protected <T> List<T> executeWithKeys(Class<T> type, @Nullable Path<T> path) {
+    if (!batches.isEmpty()) {
+      return executeBatchWithKeys(type, path);
+    }
     ResultSet rs = null;
     try {
       rs = executeWithKeys();
@@ -238,6 +240,148 @@ public abstract class AbstractSQLInsertClause<C extends AbstractSQLInsertClause<
     }
   }
 
+  /**
+   * Execute the batches and return the generated keys of all rows in the order of the batches.
+   *
+   * <p>Consecutive batches, or bulk chunks, with the same SQL are executed as a JDBC batch of a
+   * single statement, whose generated keys are read after each run of equal SQL. If the templates
+   * support OUTPUT INSERTED, the keys are selected by the insert statements instead, as generated
+   * keys of JDBC batches are not available there. These statements are executed one by one, so bulk
+   * mode should be used for large inserts.
+   *
+   * @param type type of key
+   * @param path path for key
+   * @return generated keys
+   */
+  protected <T> List<T> executeBatchWithKeys(Class<T> type, @Nullable Path<T> path) {
+    context = startContext(connection(), metadata, entity);
+    QueryMetadata md = metadata;
+    String output = getOutputInserted(path);
+    if (output != null) {
+      md = metadata.clone();
+      md.addFlag(new QueryFlag(Position.AFTER_PROJECTION, output));
+    }
+    // statements are executed on their own with literals or OUTPUT INSERTED
+    boolean immediate = configuration.getUseLiterals() || output != null;
+    List<List<SQLInsertBatch>> units = new ArrayList<>();
+    if (batchToBulk) {
+      units.addAll(getBulkChunks());
+    } else {
+      for (SQLInsertBatch batch : batches) {
+        units.add(Collections.singletonList(batch));
+      }
+    }
+
+    List<T> rv = new ArrayList<>();
+    long rc = 0;
+    PreparedStatement stmt = null;
+    String stmtSQL = null;
+    try {
+      listeners.notifyInserts(entity, metadata, batches);
+      for (List<SQLInsertBatch> unit : units) {
+        listeners.preRender(context);
+        SQLSerializer serializer = createSerializer();
+        if (unit.size() > 1) {
+          serializer.serializeInsert(md, entity, unit);
+        } else {
+          SQLInsertBatch batch = unit.get(0);
+          serializer.serializeInsert(
+              md, entity, batch.getColumns(), batch.getValues(), batch.getSubQuery());
+        }
+        context.addSQL(createBindings(md, serializer));
+        listeners.rendered(context);
+
+        String sql = serializer.toString();
+        if (stmt != null && !sql.equals(stmtSQL)) {
+          if (!immediate) {
+            listeners.preExecute(context);
+            rc += executeBatch(Collections.singletonList(stmt));
+            listeners.executed(context);
+            readKeys(stmt.getGeneratedKeys(), type, path, rv);
+          }
+          close(stmt);
+          stmt = null;
+        }
+        if (stmt == null) {
+          stmt = prepareStatementAndSetParameters(serializer, output == null);
+          stmtSQL = sql;
+        } else {
+          setParameters(
+              stmt, serializer.getConstants(), serializer.getConstantPaths(), md.getParams());
+        }
+
+        if (output != null) {
+          listeners.preExecute(context);
+          ResultSet rs = stmt.executeQuery();
+          listeners.executed(context);
+          int keys = rv.size();
+          readKeys(rs, type, path, rv);
+          rc += rv.size() - keys;
+        } else if (immediate) {
+          listeners.preExecute(context);
+          rc += stmt.executeUpdate();
+          listeners.executed(context);
+          readKeys(stmt.getGeneratedKeys(), type, path, rv);
+        } else {
+          stmt.addBatch();
+        }
+      }
+      if (stmt != null && !immediate) {
+        listeners.preExecute(context);
+        rc += executeBatch(Collections.singletonList(stmt));
+        listeners.executed(context);
+        readKeys(stmt.getGeneratedKeys(), type, path, rv);
+      }
+      context.setData(AbstractSQLQuery.ROW_COUNT, rc);
+      return rv;
+    } catch (SQLException e) {
+      onException(context, e);
+      throw configuration.translate(queryString, constants, e);
+    } finally {
+      if (stmt != null) {
+        close(stmt);
+      }
+      reset();
+      endContext(context);
+    }
+  }
+
+  private <T> void readKeys(ResultSet rs, Class<T> type, @Nullable Path<T> path, List<T> keys)
+      throws SQLException {
+    try {
+      while (rs.next()) {
+        keys.add(configuration.get(rs, path, 1, type));
+      }
+    } finally {
+      rs.close();
+    }
+  }
+
+  @Nullable
+  private String getOutputInserted(@Nullable Path<?> path) {
+    SQLTemplates templates = configuration.getTemplates();
+    List<? extends Path<?>> keys;
+    if (!templates.isOutputInsertedSupported()) {
+      return null;
+    } else if (path != null) {
+      keys = Collections.singletonList(path);
+    } else if (entity.getPrimaryKey() != null) {
+      keys = entity.getPrimaryKey().getLocalColumns();
+    } else {
+      return null;
+    }
+    StringBuilder output = new StringBuilder("\noutput ");
+    for (int i = 0; i < keys.size(); i++) {
+      String column = ColumnMetadata.getName(keys.get(i));
+      column = configuration.getColumnOverride(entity.getSchemaAndTable(), column);
+      output
+          .append(i > 0 ? ", " : "")
+          .append("inserted.")
+          .append(templates.quoteIdentifier(column));
+    }
+    return output.toString();
+  }
+
   protected PreparedStatement createStatement(boolean withKeys) throws SQLException {
     listeners.preRender(context);
     SQLSerializer serializer = createSerializer();
@@ -258,56 +402,158 @@ public abstract class AbstractSQLInsertClause<C extends AbstractSQLInsertClause<
 
   protected Collection<PreparedStatement> createStatements(boolean withKeys) throws SQLException {
     boolean addBatches = !configuration.getUseLiterals();
-    listeners.preRender(context);
 
     if (subQueryBuilder != null) {
       subQuery = subQueryBuilder.select(values.toArray(new Expression[0])).clone();
       values.clear();
     }
 
+    SQLSerializationCache cache = createBatchCache();
     Map<String, PreparedStatement> stmts = new HashMap<>();
+    Map<QueryShape, PreparedStatement> stmtsByShape = new HashMap<>();
 
-    // add first batch
-    SQLSerializer serializer = createSerializer();
-    serializer.serializeInsert(
-        metadata,
-        entity,
-        batches.get(0).getColumns(),
-        batches.get(0).getValues(),
-        batches.get(0).getSubQuery());
-    PreparedStatement stmt = prepareStatementAndSetParameters(serializer, withKeys);
-    if (addBatches) {
-      stmt.addBatch();
+    for (SQLInsertBatch batch : batches) {
+      listeners.preRender(context);
+      QueryShape shape = cache != null ? getShape(batch) : null;
+      SQLSerializer serializer = createSerializer();
+      boolean cached =
+          serializeBatch(
+              cache,
+              shape,
+              serializer,
+              s ->
+                  s.serializeInsert(
+                      metadata,
+                      entity,
+                      batch.getColumns(),
+                      batch.getValues(),
+                      batch.getSubQuery()));
+      // the first batch is reported as rendered after its statement is prepared
+      boolean first = stmts.isEmpty();
+      if (!first) {
+        context.addSQL(createBindings(metadata, serializer));
+        listeners.rendered(context);
+      }
+
+      // the statement of a cached shape is the one of its last rendering
+      PreparedStatement stmt = cached ? stmtsByShape.get(shape) : null;
+      if (stmt == null) {
+        stmt = stmts.get(serializer.toString());
+      }
+      if (stmt == null) {
+        stmt = prepareStatementAndSetParameters(serializer, withKeys);
+        stmts.put(serializer.toString(), stmt);
+      } else {
+        setParameters(
+            stmt, serializer.getConstants(), serializer.getConstantPaths(), metadata.getParams());
+      }
+      if (shape != null && !cached) {
+        stmtsByShape.put(shape, stmt);
+      }
+      if (addBatches) {
+        stmt.addBatch();
+      }
+      if (first) {
+        context.addSQL(createBindings(metadata, serializer));
+        listeners.rendered(context);
+      }
     }
-    stmts.put(serializer.toString(), stmt);
-    context.addSQL(createBindings(metadata, serializer));
-    listeners.rendered(context);
 
-    // add other batches
-    for (int i = 1; i < batches.size(); i++) {
-      SQLInsertBatch batch = batches.get(i);
+    return stmts.values();
+  }
+
+  /**
+   * Create the statements of a bulk insert. All batches are inserted by a single multi row
+   * statement, unless its row count exceeds the largest power of two whose parameters stay within
+   * {@link SQLTemplates#getMaxParameters()}. Then the batches are split into statements of that row
+   * count and a statement of the remaining rows. Statements with the same row count are executed as
+   * a JDBC batch of a single prepared statement.
+   *
+   * @param withKeys whether generated keys should be returned
+   * @return statements
+   * @throws SQLException
+   */
+  protected Collection<PreparedStatement> createBulkStatements(boolean withKeys)
+      throws SQLException {
+    boolean addBatches = !configuration.getUseLiterals();
+    SQLSerializationCache cache = createBatchCache();
+    List<PreparedStatement> stmts = new ArrayList<>();
+    Map<String, PreparedStatement> stmtsBySQL = new HashMap<>();
+    Map<QueryShape, PreparedStatement> stmtsByShape = new HashMap<>();
 
+    for (List<SQLInsertBatch> chunk : getBulkChunks()) {
       listeners.preRender(context);
-      serializer = createSerializer();
-      serializer.serializeInsert(
-          metadata, entity, batch.getColumns(), batch.getValues(), batch.getSubQuery());
+      QueryShape shape = null;
+      if (cache != null) {
+        QueryShape.Builder builder = QueryShape.builder().token(chunk.size());
+        for (SQLInsertBatch batch : chunk) {
+          builder.expressions(batch.getColumns()).expressions(batch.getValues());
+        }
+        shape = builder.build();
+      }
+      SQLSerializer serializer = createSerializer();
+      boolean cached =
+          serializeBatch(cache, shape, serializer, s -> s.serializeInsert(metadata, entity, chunk));
       context.addSQL(createBindings(metadata, serializer));
       listeners.rendered(context);
 
-      stmt = stmts.get(serializer.toString());
+      // the statement of a cached shape is the one of its last rendering
+      PreparedStatement stmt = cached ? stmtsByShape.get(shape) : null;
+      if (stmt == null && addBatches) {
+        stmt = stmtsBySQL.get(serializer.toString());
+      }
       if (stmt == null) {
+        // without batches each chunk needs a statement of its own
         stmt = prepareStatementAndSetParameters(serializer, withKeys);
-        stmts.put(serializer.toString(), stmt);
+        stmts.add(stmt);
+        stmtsBySQL.put(serializer.toString(), stmt);
       } else {
         setParameters(
             stmt, serializer.getConstants(), serializer.getConstantPaths(), metadata.getParams());
       }
+      if (shape != null && !cached) {
+        stmtsByShape.put(shape, stmt);
+      }
       if (addBatches) {
         stmt.addBatch();
       }
     }
 
-    return stmts.values();
+    return stmts;
+  }
+
+  /**
+   * Split the batches into chunks for bulk statements
+   *
+   * @return chunks
+   */
+  protected List<List<SQLInsertBatch>> getBulkChunks() {
+    int maxParameters = configuration.getTemplates().getMaxParameters();
+    if (maxParameters == Integer.MAX_VALUE) {
+      return Collections.singletonList(batches);
+    }
+    // the parameters of the first row are taken as the parameters of all rows
+    SQLSerializer serializer = createSerializer();
+    serializer.serializeInsert(metadata, entity, batches.subList(0, 1));
+    int maxRows = Math.max(1, maxParameters / Math.max(1, serializer.getConstants().size()));
+    // a power of two rows leave headroom below the limit and keep the statements reusable
+    maxRows = Integer.highestOneBit(maxRows);
+    if (batches.size() <= maxRows) {
+      return Collections.singletonList(batches);
+    }
+    List<List<SQLInsertBatch>> chunks = new ArrayList<>();
+    for (int offset = 0; offset < batches.size(); offset += maxRows) {
+      chunks.add(batches.subList(offset, Math.min(offset + maxRows, batches.size())));
+    }
+    return chunks;
+  }
+
+  private static QueryShape getShape(SQLInsertBatch batch) {
+    return QueryShape.builder()
+        .expressions(batch.getColumns())
+        .expressions(batch.getValues())
+        .expression(batch.getSubQuery())
+        .build();
   }
 
   protected PreparedStatement prepareStatementAndSetParameters(
@@ -327,12 +573,12 @@ public abstract class AbstractSQLInsertClause<C extends AbstractSQLInsertClause<
           column = configuration.getColumnOverride(entity.getSchemaAndTable(), column);
           target[i] = column;
         }
-        stmt = connection().prepareStatement(queryString, target);
+        stmt = prepareStatement(queryString, target);
       } else {
-        stmt = connection().prepareStatement(queryString, Statement.RETURN_GENERATED_KEYS);
+        stmt = prepareStatement(queryString, Statement.RETURN_GENERATED_KEYS);
       }
     } else {
-      stmt = connection().prepareStatement(queryString);
+      stmt = prepareStatement(queryString);
     }
     setParameters(
         stmt, serializer.getConstants(), serializer.getConstantPaths(), metadata.getParams());
@@ -414,14 +660,16 @@ public abstract class AbstractSQLInsertClause<C extends AbstractSQLInsertClause<
         listeners.preExecute(context);
         int rc = stmt.executeUpdate();
         listeners.executed(context);
+        context.setData(AbstractSQLQuery.ROW_COUNT, (long) rc);
         return rc;
       } else if (batchToBulk) {
-        stmt = createStatement(false);
+        stmts = createBulkStatements(false);
         listeners.notifyInserts(entity, metadata, batches);
 
         listeners.preExecute(context);
-        int rc = stmt.executeUpdate();
+        long rc = executeBatch(stmts);
         listeners.executed(context);
+        context.setData(AbstractSQLQuery.ROW_COUNT, rc);
         return rc;
       } else {
         stmts = createStatements(false);
@@ -430,6 +678,7 @@ public abstract class AbstractSQLInsertClause<C extends AbstractSQLInsertClause<
         listeners.preExecute(context);
         long rc = executeBatch(stmts);
         listeners.executed(context);
+        context.setData(AbstractSQLQuery.ROW_COUNT, rc);
         return rc;
       }
     } catch (SQLException e) {
@@ -454,9 +703,13 @@ public abstract class AbstractSQLInsertClause<C extends AbstractSQLInsertClause<
       serializer.serializeInsert(metadata, entity, columns, values, subQuery);
       return Collections.singletonList(createBindings(metadata, serializer));
     } else if (batchToBulk) {
-      SQLSerializer serializer = createSerializer();
-      serializer.serializeInsert(metadata, entity, batches);
-      return Collections.singletonList(createBindings(metadata, serializer));
+      List<SQLBindings> builder = new ArrayList<>();
+      for (List<SQLInsertBatch> chunk : getBulkChunks()) {
+        SQLSerializer serializer = createSerializer();
+        serializer.serializeInsert(metadata, entity, chunk);
+        builder.add(createBindings(metadata, serializer));
+      }
+      return CollectionUtils.unmodifiableList(builder);
     } else {
       List<SQLBindings> builder = new ArrayList<>();
       for (SQLInsertBatch batch : batches) {
@@ -550,10 +803,7 @@ public abstract class AbstractSQLInsertClause<C extends AbstractSQLInsertClause<
    */
   @SuppressWarnings("rawtypes")
   public <T> C populate(T obj, Mapper<T> mapper) {
-    Map<Path<?>, Object> values = mapper.createMap(entity, obj);
-    for (Map.Entry<Path<?>, Object> entry : values.entrySet()) {
-      set((Path) entry.getKey(), entry.getValue());
-    }
+    mapper.populate(entity, obj, (path, value) -> set((Path) path, value));
     return (C) this;
   }
 
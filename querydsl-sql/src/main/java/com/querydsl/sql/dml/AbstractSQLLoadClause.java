@@ -0,0 +1,359 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql.dml;
+
+import com.querydsl.core.DefaultQueryMetadata;
+import com.querydsl.core.JoinType;
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.types.Constant;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Path;
+import com.querydsl.sql.ColumnMetadata;
+import com.querydsl.sql.Configuration;
+import com.querydsl.sql.RelationalPath;
+import com.querydsl.sql.SQLBindings;
+import com.querydsl.sql.SQLTemplates;
+import com.querydsl.sql.SchemaAndTable;
+import com.querydsl.sql.types.Null;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * {@code AbstractSQLLoadClause} is a superclass for clauses, which load rows with the native bulk
+ * load protocol of a database instead of INSERT statements.
+ *
+ * <p>The rows are populated like the batches of an insert clause, but only constant values are
+ * supported. The columns of the first batch define the columns of the load, all further batches
+ * need to set the same columns. The values are encoded with the literal encoding of their {@link
+ * com.querydsl.sql.types.Type} into tab separated text lines, in which nulls are written as {@code
+ * \N} and backslashes, tabs and line breaks are escaped with a backslash. The lines are streamed to
+ * the database on execution.
+ *
+ * @param <C> concrete subtype
+ */
+public abstract class AbstractSQLLoadClause<C extends AbstractSQLLoadClause<C>>
+    extends AbstractSQLClause<C> {
+
+  protected final RelationalPath<?> entity;
+
+  protected final QueryMetadata metadata = new DefaultQueryMetadata();
+
+  private final List<Path<?>> columns = new ArrayList<>();
+
+  private final Map<Path<?>, Object> values = new LinkedHashMap<>();
+
+  private final List<String> lines = new ArrayList<>();
+
+  public AbstractSQLLoadClause(
+      Connection connection, Configuration configuration, RelationalPath<?> entity) {
+    super(configuration, connection);
+    this.entity = entity;
+    metadata.addJoin(JoinType.DEFAULT, entity);
+  }
+
+  public AbstractSQLLoadClause(
+      Supplier<Connection> connection, Configuration configuration, RelationalPath<?> entity) {
+    super(configuration, connection);
+    this.entity = entity;
+    metadata.addJoin(JoinType.DEFAULT, entity);
+  }
+
+  /**
+   * Set the value of the given column in the current row
+   *
+   * @param path column
+   * @param value constant value or null
+   * @return the current object
+   */
+  @SuppressWarnings("unchecked")
+  public <T> C set(Path<T> path, @Nullable T value) {
+    values.put(path, value);
+    return (C) this;
+  }
+
+  /**
+   * Set the given column in the current row to null
+   *
+   * @param path column
+   * @return the current object
+   */
+  @SuppressWarnings("unchecked")
+  public <T> C setNull(Path<T> path) {
+    values.put(path, null);
+    return (C) this;
+  }
+
+  /**
+   * Populate the current row with the properties of the given bean. The properties need to match
+   * the fields of the clause's entity instance.
+   *
+   * @param bean bean to use for population
+   * @return the current object
+   */
+  public C populate(Object bean) {
+    return populate(bean, DefaultMapper.DEFAULT);
+  }
+
+  /**
+   * Populate the current row with the properties of the given bean using the given Mapper.
+   *
+   * @param obj object to use for population
+   * @param mapper mapper to use
+   * @return the current object
+   */
+  @SuppressWarnings("unchecked")
+  public <T> C populate(T obj, Mapper<T> mapper) {
+    mapper.populate(entity, obj, values::put);
+    return (C) this;
+  }
+
+  /**
+   * Add the current row as a batch entry
+   *
+   * @return the current object
+   */
+  @SuppressWarnings("unchecked")
+  public C addBatch() {
+    if (columns.isEmpty()) {
+      columns.addAll(values.keySet());
+    } else if (values.size() != columns.size() || !values.keySet().containsAll(columns)) {
+      throw new IllegalArgumentException(
+          "Batch columns " + values.keySet() + " differ from the columns " + columns);
+    }
+    StringBuilder line = new StringBuilder();
+    for (Path<?> column : columns) {
+      if (line.length() > 0) {
+        line.append('\t');
+      }
+      append(line, column, values.get(column));
+    }
+    lines.add(line.append('\n').toString());
+    values.clear();
+    return (C) this;
+  }
+
+  private void append(StringBuilder line, Path<?> column, @Nullable Object value) {
+    if (value instanceof Constant<?>) {
+      value = ((Constant<?>) value).getConstant();
+    }
+    if (value == null || value instanceof Null) {
+      line.append("\\N");
+    } else if (value instanceof Expression<?>) {
+      throw new IllegalArgumentException("Only constant values can be loaded, got " + value);
+    } else {
+      String text = toText(column, value);
+      for (int i = 0; i < text.length(); i++) {
+        char c = text.charAt(i);
+        switch (c) {
+          case '\\':
+            line.append("\\\\");
+            break;
+          case '\t':
+            line.append("\\t");
+            break;
+          case '\n':
+            line.append("\\n");
+            break;
+          case '\r':
+            line.append("\\r");
+            break;
+          default:
+            line.append(c);
+        }
+      }
+    }
+  }
+
+  /**
+   * Get the unescaped text of the given non-null value
+   *
+   * @param column column of the value
+   * @param value value
+   * @return text
+   */
+  protected String toText(Path<?> column, Object value) {
+    if (value instanceof byte[]) {
+      throw new IllegalArgumentException("Binary values are not supported for " + column);
+    }
+    return configuration.getLiteral(column, value);
+  }
+
+  /**
+   * Get the quoted name of the table, including the schema, if schemas are printed
+   *
+   * @return table name
+   */
+  protected String getTableName() {
+    SQLTemplates templates = configuration.getTemplates();
+    SchemaAndTable schemaAndTable = configuration.getOverride(entity.getSchemaAndTable());
+    if (templates.isPrintSchema() && schemaAndTable.getSchema() != null) {
+      return templates.quoteIdentifier(schemaAndTable.getSchema())
+          + "."
+          + templates.quoteIdentifier(schemaAndTable.getTable(), true);
+    } else {
+      return templates.quoteIdentifier(schemaAndTable.getTable());
+    }
+  }
+
+  /**
+   * Get the quoted names of the loaded columns
+   *
+   * @return column names
+   */
+  protected List<String> getColumnNames() {
+    SQLTemplates templates = configuration.getTemplates();
+    List<String> names = new ArrayList<>();
+    for (Path<?> column : columns.isEmpty() ? values.keySet() : columns) {
+      String name =
+          configuration.getColumnOverride(
+              entity.getSchemaAndTable(), ColumnMetadata.getName(column));
+      names.add(templates.quoteIdentifier(name));
+    }
+    return names;
+  }
+
+  /**
+   * Get the statement, which loads the rows
+   *
+   * @return load statement
+   */
+  protected abstract String getLoadSQL();
+
+  /**
+   * Load the rows of the given stream
+   *
+   * @param connection connection
+   * @param sql load statement
+   * @param data rows as UTF-8 encoded text lines
+   * @return affected rows count
+   * @throws SQLException if the load fails
+   */
+  protected abstract long load(Connection connection, String sql, InputStream data)
+      throws SQLException;
+
+  /**
+   * Create a stream of the batch rows as UTF-8 encoded text lines
+   *
+   * @return row stream
+   */
+  protected InputStream createInputStream() {
+    return new LineInputStream(new ArrayList<>(lines).iterator());
+  }
+
+  @Override
+  public long execute() {
+    if (lines.isEmpty()) {
+      return 0;
+    }
+    context = startContext(connection(), metadata, entity);
+    String sql = getLoadSQL();
+    try {
+      listeners.preRender(context);
+      context.addSQL(new SQLBindings(sql, Collections.emptyList()));
+      listeners.rendered(context);
+
+      listeners.preExecute(context);
+      long rc = load(connection(), sql, createInputStream());
+      listeners.executed(context);
+      return rc;
+    } catch (SQLException e) {
+      onException(context, e);
+      throw configuration.translate(sql, Collections.emptyList(), e);
+    } finally {
+      reset();
+      endContext(context);
+    }
+  }
+
+  @Override
+  public List<SQLBindings> getSQL() {
+    return Collections.singletonList(new SQLBindings(getLoadSQL(), Collections.emptyList()));
+  }
+
+  @Override
+  public void clear() {
+    columns.clear();
+    values.clear();
+    lines.clear();
+  }
+
+  public boolean isEmpty() {
+    return values.isEmpty() && lines.isEmpty();
+  }
+
+  @Override
+  public int getBatchCount() {
+    return lines.size();
+  }
+
+  @Override
+  public String toString() {
+    return getLoadSQL();
+  }
+
+  // encodes the lines lazily, so that only a single line is held as bytes at a time
+  private static final class LineInputStream extends InputStream {
+
+    private final Iterator<String> lines;
+
+    private byte[] buffer = new byte[0];
+
+    private int position;
+
+    LineInputStream(Iterator<String> lines) {
+      this.lines = lines;
+    }
+
+    private boolean fill() {
+      while (position == buffer.length) {
+        if (!lines.hasNext()) {
+          return false;
+        }
+        buffer = lines.next().getBytes(StandardCharsets.UTF_8);
+        position = 0;
+      }
+      return true;
+    }
+
+    @Override
+    public int read() {
+      return fill() ? buffer[position++] & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+      if (len == 0) {
+        return 0;
+      }
+      int read = 0;
+      while (read < len && fill()) {
+        int count = Math.min(len - read, buffer.length - position);
+        System.arraycopy(buffer, position, b, off + read, count);
+        position += count;
+        read += count;
+      }
+      return read == 0 ? -1 : read;
+    }
+  }
+}
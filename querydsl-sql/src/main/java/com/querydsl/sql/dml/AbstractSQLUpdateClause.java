@@ -20,9 +20,12 @@ import com.querydsl.core.types.ConstantImpl;
 import com.querydsl.core.types.Expression;
 import com.querydsl.core.types.Path;
 import com.querydsl.core.types.Predicate;
+import com.querydsl.sql.AbstractSQLQuery;
 import com.querydsl.sql.Configuration;
+import com.querydsl.sql.QueryShape;
 import com.querydsl.sql.RelationalPath;
 import com.querydsl.sql.SQLBindings;
+import com.querydsl.sql.SQLSerializationCache;
 import com.querydsl.sql.SQLSerializer;
 import com.querydsl.sql.types.Null;
 import java.sql.Connection;
@@ -56,6 +59,10 @@ public abstract class AbstractSQLUpdateClause<C extends AbstractSQLUpdateClause<
 
   protected transient List<Object> constants;
 
+  private int keyChunkSize = 500;
+
+  private boolean arrayBinding;
+
   public AbstractSQLUpdateClause(
       Connection connection, Configuration configuration, RelationalPath<?> entity) {
     super(configuration, connection);
@@ -107,6 +114,60 @@ public abstract class AbstractSQLUpdateClause<C extends AbstractSQLUpdateClause<
     return (C) this;
   }
 
+  /**
+   * Set the maximum amount of keys per statement of {@link #executeByKeys(Path, Collection)},
+   * defaults to 500. The chunks are further limited by the list and parameter limits of the
+   * templates.
+   *
+   * @param keyChunkSize keys per statement
+   */
+  public void setKeyChunkSize(int keyChunkSize) {
+    if (keyChunkSize < 1) {
+      throw new IllegalArgumentException("keyChunkSize needs to be positive, got " + keyChunkSize);
+    }
+    this.keyChunkSize = keyChunkSize;
+  }
+
+  /**
+   * Set whether {@link #executeByKeys(Path, Collection)} should bind all keys as a single array
+   * parameter, if the templates support array parameters. Defaults to false.
+   *
+   * @param arrayBinding true, to bind the keys as an array
+   */
+  public void setArrayBinding(boolean arrayBinding) {
+    this.arrayBinding = arrayBinding;
+  }
+
+  /**
+   * Execute the clause for the rows whose key is contained in the given keys. The key condition is
+   * combined with the where conditions of the clause. The keys are partitioned into IN lists of a
+   * fixed size, which are executed as a batch of a single statement.
+   *
+   * @param key key column
+   * @param keys keys of the updated rows
+   * @return amount of updated rows
+   */
+  public <T> long executeByKeys(Path<T> key, Collection<? extends T> keys) {
+    if (!batches.isEmpty()) {
+      throw new IllegalStateException("executeByKeys can't be combined with batches");
+    } else if (keys.isEmpty()) {
+      return 0;
+    }
+    SQLSerializer serializer = createSerializer();
+    serializer.serializeUpdate(metadata, entity, updates);
+    int params = serializer.getConstants().size();
+    for (Predicate condition : getKeyConditions(key, keys, keyChunkSize, params, arrayBinding)) {
+      QueryMetadata md = metadata.clone();
+      md.addWhere(condition);
+      batches.add(new SQLUpdateBatch(md, updates));
+    }
+    try {
+      return execute();
+    } finally {
+      batches.clear();
+    }
+  }
+
   @Override
   public void clear() {
     batches.clear();
@@ -126,7 +187,7 @@ public abstract class AbstractSQLUpdateClause<C extends AbstractSQLUpdateClause<
     listeners.prepared(context);
 
     listeners.prePrepare(context);
-    PreparedStatement stmt = connection().prepareStatement(queryString);
+    PreparedStatement stmt = prepareStatement(queryString);
     setParameters(
         stmt, serializer.getConstants(), serializer.getConstantPaths(), metadata.getParams());
     context.addPreparedStatement(stmt);
@@ -137,55 +198,74 @@ public abstract class AbstractSQLUpdateClause<C extends AbstractSQLUpdateClause<
 
   protected Collection<PreparedStatement> createStatements() throws SQLException {
     boolean addBatches = !configuration.getUseLiterals();
-    listeners.preRender(context);
-    SQLSerializer serializer = createSerializer();
-    serializer.serializeUpdate(batches.get(0).getMetadata(), entity, batches.get(0).getUpdates());
-    queryString = serializer.toString();
-    constants = serializer.getConstants();
-    logQuery(logger, queryString, constants);
-    context.addSQL(createBindings(metadata, serializer));
-    listeners.rendered(context);
-
+    SQLSerializationCache cache = createBatchCache();
     Map<String, PreparedStatement> stmts = new HashMap<>();
+    Map<QueryShape, PreparedStatement> stmtsByShape = new HashMap<>();
 
-    // add first batch
-    listeners.prePrepare(context);
-    PreparedStatement stmt = connection().prepareStatement(queryString);
-    setParameters(
-        stmt, serializer.getConstants(), serializer.getConstantPaths(), metadata.getParams());
-    if (addBatches) {
-      stmt.addBatch();
-    }
-    stmts.put(serializer.toString(), stmt);
-    context.addPreparedStatement(stmt);
-    listeners.prepared(context);
-
-    // add other batches
-    for (int i = 1; i < batches.size(); i++) {
+    for (SQLUpdateBatch batch : batches) {
       listeners.preRender(context);
-      serializer = createSerializer();
-      serializer.serializeUpdate(batches.get(i).getMetadata(), entity, batches.get(i).getUpdates());
+      QueryShape shape = cache != null ? getShape(batch) : null;
+      SQLSerializer serializer = createSerializer();
+      boolean cached =
+          serializeBatch(
+              cache,
+              shape,
+              serializer,
+              s -> s.serializeUpdate(batch.getMetadata(), entity, batch.getUpdates()));
+      if (stmts.isEmpty()) {
+        queryString = serializer.toString();
+        constants = serializer.getConstants();
+        logQuery(logger, queryString, constants);
+      }
       context.addSQL(createBindings(metadata, serializer));
       listeners.rendered(context);
 
-      stmt = stmts.get(serializer.toString());
+      // the statement of a cached shape is the one of its last rendering
+      PreparedStatement stmt = cached ? stmtsByShape.get(shape) : null;
+      if (stmt == null) {
+        stmt = stmts.get(serializer.toString());
+      }
+      boolean bound = false;
       if (stmt == null) {
         listeners.prePrepare(context);
-        stmt = connection().prepareStatement(serializer.toString());
+        stmt = prepareStatement(serializer.toString());
+        if (stmts.isEmpty()) {
+          // the first batch is bound before the statement is reported as prepared
+          setParameters(
+              stmt, serializer.getConstants(), serializer.getConstantPaths(), metadata.getParams());
+          if (addBatches) {
+            stmt.addBatch();
+          }
+          bound = true;
+        }
         stmts.put(serializer.toString(), stmt);
         context.addPreparedStatement(stmt);
         listeners.prepared(context);
       }
-      setParameters(
-          stmt, serializer.getConstants(), serializer.getConstantPaths(), metadata.getParams());
-      if (addBatches) {
-        stmt.addBatch();
+      if (shape != null && !cached) {
+        stmtsByShape.put(shape, stmt);
+      }
+      if (!bound) {
+        setParameters(
+            stmt, serializer.getConstants(), serializer.getConstantPaths(), metadata.getParams());
+        if (addBatches) {
+          stmt.addBatch();
+        }
       }
     }
 
     return stmts.values();
   }
 
+  private static QueryShape getShape(SQLUpdateBatch batch) {
+    QueryShape.Builder builder = QueryShape.builder().metadata(batch.getMetadata());
+    builder.token(batch.getUpdates().size());
+    for (Map.Entry<Path<?>, Expression<?>> update : batch.getUpdates().entrySet()) {
+      builder.expression(update.getKey()).expression(update.getValue());
+    }
+    return builder.build();
+  }
+
   @Override
   public long execute() {
     context = startContext(connection(), metadata, entity);
@@ -200,6 +280,7 @@ public abstract class AbstractSQLUpdateClause<C extends AbstractSQLUpdateClause<
         listeners.preExecute(context);
         int rc = stmt.executeUpdate();
         listeners.executed(context);
+        context.setData(AbstractSQLQuery.ROW_COUNT, (long) rc);
         return rc;
       } else {
         stmts = createStatements();
@@ -208,6 +289,7 @@ public abstract class AbstractSQLUpdateClause<C extends AbstractSQLUpdateClause<
         listeners.preExecute(context);
         long rc = executeBatch(stmts);
         listeners.executed(context);
+        context.setData(AbstractSQLQuery.ROW_COUNT, rc);
         return rc;
       }
     } catch (SQLException e) {
@@ -334,12 +416,14 @@ public abstract class AbstractSQLUpdateClause<C extends AbstractSQLUpdateClause<
         entity.getPrimaryKey() != null
             ? entity.getPrimaryKey().getLocalColumns()
             : Collections.<Path<?>>emptyList();
-    Map<Path<?>, Object> values = mapper.createMap(entity, obj);
-    for (Map.Entry<Path<?>, Object> entry : values.entrySet()) {
-      if (!primaryKeyColumns.contains(entry.getKey())) {
-        set((Path) entry.getKey(), entry.getValue());
-      }
-    }
+    mapper.populate(
+        entity,
+        obj,
+        (path, value) -> {
+          if (!primaryKeyColumns.contains(path)) {
+            set((Path) path, value);
+          }
+        });
     return (C) this;
   }
 
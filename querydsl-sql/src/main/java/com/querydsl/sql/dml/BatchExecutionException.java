@@ -0,0 +1,42 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql.dml;
+
+import com.querydsl.core.QueryException;
+
+/**
+ * {@code BatchExecutionException} is thrown when a batch of a load operation fails
+ *
+ * @see SQLParallelLoader
+ */
+public class BatchExecutionException extends QueryException {
+
+  private static final long serialVersionUID = -3591246704389915420L;
+
+  private final long batchIndex;
+
+  public BatchExecutionException(long batchIndex, Throwable t) {
+    super("Batch " + batchIndex + " failed", t);
+    this.batchIndex = batchIndex;
+  }
+
+  /**
+   * Get the zero based index of the failed batch in the input
+   *
+   * @return batch index
+   */
+  public long getBatchIndex() {
+    return batchIndex;
+  }
+}
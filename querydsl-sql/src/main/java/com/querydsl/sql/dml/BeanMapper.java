@@ -13,17 +13,32 @@
  */
 package com.querydsl.sql.dml;
 
+import com.querydsl.core.QueryException;
 import com.querydsl.core.types.Path;
-import com.querydsl.core.util.BeanMap;
 import com.querydsl.sql.RelationalPath;
 import com.querydsl.sql.types.Null;
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
 
 /**
  * Creates the mapping by inspecting object via bean inspection. Given bean doesn't need to
  * have @Column metadata, but the fields need to have the same name as in the given relational path.
  *
+ * <p>The getters of the columns are resolved once per bean class and layout of column names into
+ * method handles, so populating clauses with many beans of the same class doesn't repeat the bean
+ * inspection.
+ *
  * @author tiwe
  */
 public class BeanMapper extends AbstractMapper<Object> {
@@ -32,6 +47,20 @@ public class BeanMapper extends AbstractMapper<Object> {
 
   public static final BeanMapper WITH_NULL_BINDINGS = new BeanMapper(true);
 
+  private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+  // getter of inaccessible properties, which are treated as null properties
+  private static final MethodHandle NULL_GETTER =
+      MethodHandles.dropArguments(MethodHandles.constant(Object.class, null), 0, Object.class);
+
+  private static final ClassValue<Map<List<String>, Plan>> PLANS =
+      new ClassValue<Map<List<String>, Plan>>() {
+        @Override
+        protected Map<List<String>, Plan> computeValue(Class<?> type) {
+          return new ConcurrentHashMap<>();
+        }
+      };
+
   private final boolean withNullBindings;
 
   public BeanMapper() {
@@ -42,24 +71,89 @@ public class BeanMapper extends AbstractMapper<Object> {
     this.withNullBindings = withNullBindings;
   }
 
-  @SuppressWarnings({"rawtypes", "unchecked"})
   @Override
   public Map<Path<?>, Object> createMap(RelationalPath<?> entity, Object bean) {
     Map<Path<?>, Object> values = new LinkedHashMap<>();
-    Map<String, Object> map = new BeanMap(bean);
-    Map<String, Path<?>> columns = getColumns(entity);
+    populate(entity, bean, values::put);
+    return values;
+  }
+
+  @Override
+  public void populate(RelationalPath<?> entity, Object bean, BiConsumer<Path<?>, Object> updates) {
+    List<Path<?>> columns = entity.getColumns();
+    List<String> names = new ArrayList<>(columns.size());
+    for (Path<?> column : columns) {
+      names.add(column.getMetadata().getName());
+    }
+    Plan plan =
+        PLANS.get(bean.getClass()).computeIfAbsent(names, n -> createPlan(n, bean.getClass()));
+    for (int i = 0; i < plan.columns.length; i++) {
+      Path<?> column = columns.get(plan.columns[i]);
+      Object value;
+      try {
+        value = (Object) plan.getters[i].invokeExact(bean);
+      } catch (Error e) {
+        throw e;
+      } catch (Throwable e) {
+        // failing getters are treated as null properties
+        value = null;
+      }
+      if (value != null) {
+        updates.accept(column, value);
+      } else if (withNullBindings && !isPrimaryKeyColumn(entity, column)) {
+        updates.accept(column, Null.DEFAULT);
+      }
+    }
+  }
+
+  private static Plan createPlan(List<String> names, Class<?> beanClass) {
+    Map<String, PropertyDescriptor> properties = new HashMap<>();
+    try {
+      for (PropertyDescriptor property :
+          Introspector.getBeanInfo(beanClass).getPropertyDescriptors()) {
+        properties.put(property.getName(), property);
+      }
+    } catch (IntrospectionException e) {
+      throw new QueryException(e);
+    }
+    // the last column of a name is populated at the position of the first one
+    Map<String, Integer> indexes = new LinkedHashMap<>();
+    for (int i = 0; i < names.size(); i++) {
+      indexes.put(names.get(i), i);
+    }
+    List<Integer> columns = new ArrayList<>();
+    List<MethodHandle> getters = new ArrayList<>();
     // populate in column order
-    for (Map.Entry<String, Path<?>> entry : columns.entrySet()) {
-      Path<?> path = entry.getValue();
-      if (map.containsKey(entry.getKey())) {
-        Object value = map.get(entry.getKey());
-        if (value != null) {
-          values.put(path, value);
-        } else if (withNullBindings && !isPrimaryKeyColumn(entity, path)) {
-          values.put(path, Null.DEFAULT);
+    for (Map.Entry<String, Integer> entry : indexes.entrySet()) {
+      PropertyDescriptor property = properties.get(entry.getKey());
+      if (property != null && property.getReadMethod() != null) {
+        MethodHandle getter;
+        try {
+          getter = MethodHandles.lookup().unreflect(property.getReadMethod()).asType(GETTER_TYPE);
+        } catch (IllegalAccessException e) {
+          getter = NULL_GETTER;
         }
+        columns.add(entry.getValue());
+        getters.add(getter);
       }
     }
-    return values;
+    int[] columnIndexes = new int[columns.size()];
+    for (int i = 0; i < columnIndexes.length; i++) {
+      columnIndexes[i] = columns.get(i);
+    }
+    return new Plan(columnIndexes, getters.toArray(new MethodHandle[0]));
+  }
+
+  private static final class Plan {
+
+    // indexes of the populated columns in the columns of the relational path
+    private final int[] columns;
+
+    private final MethodHandle[] getters;
+
+    Plan(int[] columns, MethodHandle[] getters) {
+      this.columns = columns;
+      this.getters = getters;
+    }
   }
 }
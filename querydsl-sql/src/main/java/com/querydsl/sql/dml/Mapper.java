@@ -16,6 +16,7 @@ package com.querydsl.sql.dml;
 import com.querydsl.core.types.Path;
 import com.querydsl.sql.RelationalPath;
 import java.util.Map;
+import java.util.function.BiConsumer;
 
 /**
  * Create a Map of updates for a given domain object
@@ -33,4 +34,17 @@ public interface Mapper<T> {
    * @return bindings
    */
   Map<Path<?>, Object> createMap(RelationalPath<?> path, T object);
+
+  /**
+   * Pass the updates for the given path and instance to the given consumer in column order. The
+   * default implementation iterates over the result of {@link #createMap(RelationalPath, Object)},
+   * implementations can override it to avoid the intermediate map.
+   *
+   * @param path path
+   * @param object instance
+   * @param updates consumer of the bindings
+   */
+  default void populate(RelationalPath<?> path, T object, BiConsumer<Path<?>, Object> updates) {
+    createMap(path, object).forEach(updates);
+  }
 }
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql.dml;
+
+import com.querydsl.core.types.Path;
+import com.querydsl.sql.SQLBaseListener;
+import com.querydsl.sql.SQLDetailedListener;
+import com.querydsl.sql.SQLListenerContext;
+import com.querydsl.sql.SQLListenerContextImpl;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * {@code SQLBulkInserter} inserts a stream of objects in bounded chunks.
+ *
+ * <p>The objects are mapped into batch entries of the given insert clause. The batch is executed
+ * and cleared whenever it reaches the chunk size or the estimated size of its values reaches the
+ * byte limit, so only a single chunk is held in memory at a time. Each chunk is executed in its own
+ * listener context, which holds the zero based index of the chunk as {@link #CHUNK}. The chunk
+ * contexts share a parent context, so the connection of the clause is kept open, for example by the
+ * {@link com.querydsl.sql.SQLCloseListener}, until all chunks are inserted.
+ *
+ * <pre>{@code
+ * SQLBulkInserter<Employee> inserter =
+ *     new SQLBulkInserter<>(queryFactory.insert(employee), new BeanMapper());
+ * inserter.setChunkSize(5000);
+ * inserter.setCommitChunks(true);
+ * long rows = inserter.insert(employees.stream());
+ * }</pre>
+ *
+ * @param <T> type of the inserted objects
+ */
+public class SQLBulkInserter<T> {
+
+  /**
+   * Key of the {@link SQLListenerContext} data entry holding the index of the chunk as an {@link
+   * Integer}. The entry is set when the context is started.
+   */
+  public static final String CHUNK = SQLBulkInserter.class.getName() + "#CHUNK";
+
+  private final AbstractSQLInsertClause<?> clause;
+
+  private final Mapper<? super T> mapper;
+
+  private int chunkSize = 1000;
+
+  private long maxChunkBytes = Long.MAX_VALUE;
+
+  private boolean commitChunks;
+
+  private int chunk;
+
+  private long chunkBytes;
+
+  // registered on the clause only while inserting
+  private final SQLDetailedListener chunkListener =
+      new SQLBaseListener() {
+        @Override
+        public void start(SQLListenerContext context) {
+          context.setData(CHUNK, chunk);
+        }
+      };
+
+  /**
+   * Create a new inserter, which populates the clause with the {@link DefaultMapper}
+   *
+   * @param clause insert clause without bindings
+   */
+  public SQLBulkInserter(AbstractSQLInsertClause<?> clause) {
+    this(clause, DefaultMapper.DEFAULT);
+  }
+
+  /**
+   * Create a new inserter
+   *
+   * @param clause insert clause without bindings
+   * @param mapper mapper of the inserted objects
+   */
+  public SQLBulkInserter(AbstractSQLInsertClause<?> clause, Mapper<? super T> mapper) {
+    this.clause = clause;
+    this.mapper = mapper;
+  }
+
+  /**
+   * Set the maximum amount of rows per chunk, defaults to 1000
+   *
+   * @param chunkSize rows per chunk
+   */
+  public void setChunkSize(int chunkSize) {
+    if (chunkSize < 1) {
+      throw new IllegalArgumentException("chunkSize needs to be positive, got " + chunkSize);
+    }
+    this.chunkSize = chunkSize;
+  }
+
+  /**
+   * Set the maximum estimated size of the values of a chunk in bytes. Strings are estimated with
+   * two bytes per character, byte arrays with their length and other values with eight bytes. The
+   * size is unbounded by default.
+   *
+   * @param maxChunkBytes estimated bytes per chunk
+   */
+  public void setMaxChunkBytes(long maxChunkBytes) {
+    if (maxChunkBytes < 1) {
+      throw new IllegalArgumentException(
+          "maxChunkBytes needs to be positive, got " + maxChunkBytes);
+    }
+    this.maxChunkBytes = maxChunkBytes;
+  }
+
+  /**
+   * Set whether the connection should be committed after each chunk, defaults to false
+   *
+   * @param commitChunks true to commit each chunk
+   */
+  public void setCommitChunks(boolean commitChunks) {
+    this.commitChunks = commitChunks;
+  }
+
+  /**
+   * Insert the given objects
+   *
+   * @param objects objects to insert
+   * @return affected rows count
+   */
+  public long insert(Stream<? extends T> objects) {
+    return insert(objects.iterator());
+  }
+
+  /**
+   * Insert the given objects
+   *
+   * @param objects objects to insert
+   * @return affected rows count
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  public long insert(Iterator<? extends T> objects) {
+    chunk = 0;
+    chunkBytes = 0;
+    long rows = 0;
+    SQLListenerContextImpl context = clause.startParentContext();
+    clause.addListener(chunkListener);
+    try {
+      while (objects.hasNext()) {
+        mapper.populate(
+            clause.entity,
+            objects.next(),
+            (path, value) -> {
+              clause.set((Path) path, value);
+              chunkBytes += estimateSize(value);
+            });
+        clause.addBatch();
+        if (clause.getBatchCount() >= chunkSize || chunkBytes >= maxChunkBytes) {
+          rows += flush();
+          chunkBytes = 0;
+        }
+      }
+      if (clause.getBatchCount() > 0) {
+        rows += flush();
+      }
+      return rows;
+    } finally {
+      clause.listeners.getListeners().remove(chunkListener);
+      clause.clear();
+      clause.endParentContext(context);
+    }
+  }
+
+  private long flush() {
+    long rows = clause.execute();
+    clause.clear();
+    if (commitChunks) {
+      try {
+        clause.connection().commit();
+      } catch (SQLException e) {
+        throw clause.configuration.translate(e);
+      }
+    }
+    chunk++;
+    return rows;
+  }
+
+  private static long estimateSize(@Nullable Object value) {
+    if (value instanceof CharSequence) {
+      return 2L * ((CharSequence) value).length();
+    } else if (value instanceof byte[]) {
+      return ((byte[]) value).length;
+    } else {
+      return 8;
+    }
+  }
+}
@@ -23,7 +23,10 @@ import com.querydsl.core.util.CollectionUtils;
 import com.querydsl.core.util.ResultSetAdapter;
 import com.querydsl.sql.*;
 import com.querydsl.sql.types.Null;
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.sql.*;
+import java.time.LocalDate;
 import java.util.*;
 import java.util.function.Supplier;
 import java.util.logging.Logger;
@@ -39,6 +42,9 @@ public class SQLMergeClause extends AbstractSQLClause<SQLMergeClause>
 
   protected static final Logger logger = Logger.getLogger(SQLMergeClause.class.getName());
 
+  // maximum amount of keys per lookup of existing rows in a composite batch merge
+  private static final int MAX_PROBE_KEYS = 1000;
+
   protected final List<Path<?>> columns = new ArrayList<Path<?>>();
 
   protected final RelationalPath<?> entity;
@@ -57,6 +63,8 @@ public class SQLMergeClause extends AbstractSQLClause<SQLMergeClause>
 
   protected transient List<Object> constants;
 
+  protected transient boolean batchToBulk;
+
   public SQLMergeClause(Connection connection, SQLTemplates templates, RelationalPath<?> entity) {
     this(connection, new Configuration(templates), entity);
   }
@@ -99,6 +107,18 @@ public class SQLMergeClause extends AbstractSQLClause<SQLMergeClause>
     return this;
   }
 
+  /**
+   * Set whether batches should be optimized into bulk operations with several rows per statement.
+   * Will revert to batches, if bulk is not supported, or if the batches differ in their keys or
+   * columns or contain sub queries
+   */
+  public void setBatchToBulk(boolean b) {
+    this.batchToBulk =
+        b
+            && configuration.getTemplates().isNativeMerge()
+            && configuration.getTemplates().isBatchToBulkSupported();
+  }
+
   public SQLMergeUsingClause using(SimpleExpression<?> dataQuery) {
     clear();
     return new SQLMergeUsingClause(connection(), configuration, entity, dataQuery);
@@ -120,9 +140,9 @@ public class SQLMergeClause extends AbstractSQLClause<SQLMergeClause>
    * @return the current object
    */
   public SQLMergeClause addBatch() {
-    if (!configuration.getTemplates().isNativeMerge()) {
+    if (!isNativeMerge(keys) && subQuery != null) {
       throw new IllegalStateException(
-          "batch only supported for databases that support native merge");
+          "batch with subquery only supported for databases that support native merge");
     }
 
     batches.add(new SQLMergeBatch(keys, columns, values, subQuery));
@@ -233,7 +253,7 @@ public class SQLMergeClause extends AbstractSQLClause<SQLMergeClause>
   public ResultSet executeWithKeys() {
     context = startContext(connection(), metadata, entity);
     try {
-      if (configuration.getTemplates().isNativeMerge()) {
+      if (isNativeMerge()) {
         PreparedStatement stmt = null;
         if (batches.isEmpty()) {
           stmt = createStatement(true);
@@ -270,6 +290,9 @@ public class SQLMergeClause extends AbstractSQLClause<SQLMergeClause>
             }
           }
         };
+      } else if (!batches.isEmpty()) {
+        throw new IllegalStateException(
+            "executeWithKeys with batches only supported for databases that support native merge");
       } else {
         if (hasRow()) {
           // update
@@ -284,8 +307,21 @@ public class SQLMergeClause extends AbstractSQLClause<SQLMergeClause>
           // insert
           SQLInsertClause insert = new SQLInsertClause(connection(), configuration, entity);
           insert.addListener(listeners);
+          // the connection is released with the context of the merge
+          insert.setParentContext(context);
           populate(insert);
-          return insert.executeWithKeys();
+          final SQLListenerContextImpl mergeContext = context;
+          return new ResultSetAdapter(insert.executeWithKeys()) {
+            @Override
+            public void close() throws SQLException {
+              try {
+                super.close();
+              } finally {
+                reset();
+                endContext(mergeContext);
+              }
+            }
+          };
         }
       }
     } catch (SQLException e) {
@@ -298,7 +334,7 @@ public class SQLMergeClause extends AbstractSQLClause<SQLMergeClause>
 
   @Override
   public long execute() {
-    if (configuration.getTemplates().isNativeMerge()) {
+    if (isNativeMerge()) {
       return executeNativeMerge();
     } else {
       return executeCompositeMerge();
@@ -311,6 +347,14 @@ public class SQLMergeClause extends AbstractSQLClause<SQLMergeClause>
       SQLSerializer serializer = createSerializer();
       serializer.serializeMerge(metadata, entity, keys, columns, values, subQuery);
       return Collections.singletonList(createBindings(metadata, serializer));
+    } else if (isBulk()) {
+      List<SQLBindings> builder = new ArrayList<>();
+      for (List<SQLMergeBatch> chunk : getBulkChunks()) {
+        SQLSerializer serializer = createSerializer();
+        serializer.serializeMerge(metadata, entity, chunk);
+        builder.add(createBindings(metadata, serializer));
+      }
+      return CollectionUtils.unmodifiableList(builder);
     } else {
       List<SQLBindings> builder = new ArrayList<>();
       for (SQLMergeBatch batch : batches) {
@@ -328,6 +372,37 @@ public class SQLMergeClause extends AbstractSQLClause<SQLMergeClause>
     }
   }
 
+  /**
+   * Get whether the merge is executed natively. Upserts resolve conflicts of the primary key, so
+   * merges with other keys are executed as composite merges.
+   *
+   * @return true, if native merge is used
+   */
+  protected boolean isNativeMerge() {
+    if (batches.isEmpty()) {
+      return isNativeMerge(keys);
+    }
+    for (SQLMergeBatch batch : batches) {
+      if (!isNativeMerge(batch.getKeys())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private boolean isNativeMerge(List<Path<?>> keys) {
+    SQLTemplates templates = configuration.getTemplates();
+    if (!templates.isNativeMerge()) {
+      return false;
+    } else if (!templates.isUpsertSupported()) {
+      return true;
+    }
+    PrimaryKey<?> primaryKey = entity.getPrimaryKey();
+    return primaryKey != null
+        && (keys.isEmpty()
+            || new HashSet<>(keys).equals(new HashSet<>(primaryKey.getLocalColumns())));
+  }
+
   protected boolean hasRow() {
     SQLQuery<?> query = new SQLQuery<Void>(connection(), configuration).from(entity);
     for (SQLListener listener : listeners.getListeners()) {
@@ -338,9 +413,16 @@ public class SQLMergeClause extends AbstractSQLClause<SQLMergeClause>
     return query.select(Expressions.ONE).fetchFirst() != null;
   }
 
-  @SuppressWarnings("unchecked")
   protected void addKeyConditions(FilteredClause<?> query) {
-    List<? extends Path<?>> keys = getKeys();
+    addKeyConditions(query, getKeys(), columns, values);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static void addKeyConditions(
+      FilteredClause<?> query,
+      List<? extends Path<?>> keys,
+      List<Path<?>> columns,
+      List<Expression<?>> values) {
     for (int i = 0; i < columns.size(); i++) {
       if (keys.contains(columns.get(i))) {
         if (values.get(i) instanceof NullExpression) {
@@ -354,30 +436,246 @@ public class SQLMergeClause extends AbstractSQLClause<SQLMergeClause>
 
   @SuppressWarnings("unchecked")
   protected long executeCompositeMerge() {
-    if (hasRow()) {
-      // update
-      SQLUpdateClause update = new SQLUpdateClause(connection(), configuration, entity);
-      populate(update);
-      addListeners(update);
-      addKeyConditions(update);
-      return update.execute();
+    // the statements share a parent context, which releases the connection after the last one
+    SQLListenerContextImpl parent = getParentContext() == null ? startParentContext() : null;
+    try {
+      if (!batches.isEmpty()) {
+        return executeCompositeMergeBatch();
+      } else if (hasRow()) {
+        // update
+        SQLUpdateClause update = new SQLUpdateClause(connection(), configuration, entity);
+        populate(update);
+        addListeners(update);
+        addKeyConditions(update);
+        return update.execute();
+      } else {
+        // insert
+        SQLInsertClause insert = new SQLInsertClause(connection(), configuration, entity);
+        addListeners(insert);
+        populate(insert);
+        return insert.execute();
+      }
+    } finally {
+      if (parent != null) {
+        endParentContext(parent);
+      }
+    }
+  }
+
+  /**
+   * Execute the batches as a composite merge. The existing rows of batches with constant key values
+   * are looked up with a single query per group of keys, after which the new rows are inserted with
+   * a batch insert and the existing rows are updated with a batch update. Batches with other key
+   * values are merged one by one afterwards.
+   *
+   * <p>The looked up keys are matched to the batches in Java, so only keys of types, whose equality
+   * in Java agrees with the equality in SQL, are looked up. Numbers are compared without regard to
+   * their scale. Batches with other key types, such as strings, which are compared according to the
+   * collation of the column, are merged one by one.
+   *
+   * @return affected rows count
+   */
+  protected long executeCompositeMergeBatch() {
+    Map<List<? extends Path<?>>, List<SQLMergeBatch>> batchesByKeys = new LinkedHashMap<>();
+    List<SQLMergeBatch> singles = new ArrayList<>();
+    for (SQLMergeBatch batch : batches) {
+      List<? extends Path<?>> keys = batch.getKeys().isEmpty() ? getKeys() : batch.getKeys();
+      if (getKeyValues(keys, batch) != null) {
+        batchesByKeys.computeIfAbsent(keys, k -> new ArrayList<>()).add(batch);
+      } else {
+        singles.add(batch);
+      }
+    }
+
+    long rc = 0;
+    for (Map.Entry<List<? extends Path<?>>, List<SQLMergeBatch>> entry : batchesByKeys.entrySet()) {
+      Long count = executeCompositeMergeBatch(entry.getKey(), entry.getValue());
+      if (count != null) {
+        rc += count;
+      } else {
+        singles.addAll(entry.getValue());
+      }
+    }
+    for (SQLMergeBatch batch : singles) {
+      SQLMergeClause merge = new SQLMergeClause(connection(), configuration, entity);
+      addListeners(merge);
+      merge.keys.addAll(batch.getKeys());
+      merge.columns.addAll(batch.getColumns());
+      merge.values.addAll(batch.getValues());
+      rc += merge.execute();
+    }
+    return rc;
+  }
+
+  @Nullable
+  private Long executeCompositeMergeBatch(
+      List<? extends Path<?>> keys, List<SQLMergeBatch> batches) {
+    // normalized key values of the batches to their first bound key values
+    Map<List<Object>, List<Object>> keyValues = new LinkedHashMap<>();
+    for (SQLMergeBatch batch : batches) {
+      keyValues.putIfAbsent(getKeyValues(keys, batch), getBoundKeyValues(keys, batch));
+    }
+    Set<List<Object>> existing = getExistingKeys(keys, new ArrayList<>(keyValues.values()));
+    if (existing == null) {
+      return null;
+    }
+
+    SQLInsertClause insert = new SQLInsertClause(connection(), configuration, entity);
+    addListeners(insert);
+    SQLUpdateClause update = new SQLUpdateClause(connection(), configuration, entity);
+    addListeners(update);
+    for (SQLMergeBatch batch : batches) {
+      // rows are inserted before the updates, so a repeated new key is an update
+      if (existing.add(getKeyValues(keys, batch))) {
+        populate(insert, batch.getColumns(), batch.getValues());
+        insert.addBatch();
+      } else {
+        populate(update, batch.getColumns(), batch.getValues());
+        addKeyConditions(update, keys, batch.getColumns(), batch.getValues());
+        update.addBatch();
+      }
+    }
+
+    long rc = 0;
+    if (insert.getBatchCount() > 0) {
+      rc += insert.execute();
+    }
+    if (update.getBatchCount() > 0) {
+      rc += update.execute();
+    }
+    return rc;
+  }
+
+  /**
+   * Get the normalized key values of the given batch
+   *
+   * @return key values or null, if the key values are not all constants of comparable types
+   */
+  @Nullable
+  private static List<Object> getKeyValues(List<? extends Path<?>> keys, SQLMergeBatch batch) {
+    List<Object> keyValues = getBoundKeyValues(keys, batch);
+    if (keyValues == null) {
+      return null;
+    }
+    for (int i = 0; i < keyValues.size(); i++) {
+      Object value = normalize(keyValues.get(i));
+      if (value == null) {
+        return null;
+      }
+      keyValues.set(i, value);
+    }
+    return keyValues;
+  }
+
+  @Nullable
+  private static List<Object> getBoundKeyValues(List<? extends Path<?>> keys, SQLMergeBatch batch) {
+    List<Object> keyValues = new ArrayList<>(keys.size());
+    for (Path<?> key : keys) {
+      int index = batch.getColumns().indexOf(key);
+      if (index < 0 || !(batch.getValues().get(index) instanceof Constant<?>)) {
+        return null;
+      }
+      Object value = ((Constant<?>) batch.getValues().get(index)).getConstant();
+      if (value instanceof Null) {
+        return null;
+      }
+      keyValues.add(value);
+    }
+    return keyValues;
+  }
+
+  /**
+   * Normalize the given key value, so that it is equal to the values, which are equal to it in SQL
+   *
+   * @return normalized value or null, if the type of the value is not comparable in Java
+   */
+  @Nullable
+  private static Object normalize(@Nullable Object value) {
+    if (value instanceof Byte
+        || value instanceof Short
+        || value instanceof Integer
+        || value instanceof Long) {
+      return BigDecimal.valueOf(((Number) value).longValue());
+    } else if (value instanceof BigInteger) {
+      return new BigDecimal((BigInteger) value);
+    } else if (value instanceof BigDecimal) {
+      BigDecimal decimal = ((BigDecimal) value).stripTrailingZeros();
+      return decimal.signum() == 0 ? BigDecimal.ZERO : decimal;
+    } else if (value instanceof Boolean || value instanceof UUID || value instanceof LocalDate) {
+      return value;
     } else {
-      // insert
-      SQLInsertClause insert = new SQLInsertClause(connection(), configuration, entity);
-      addListeners(insert);
-      populate(insert);
-      return insert.execute();
+      return null;
+    }
+  }
+
+  @Nullable
+  @SuppressWarnings("unchecked")
+  private Set<List<Object>> getExistingKeys(
+      List<? extends Path<?>> keys, List<List<Object>> keyValues) {
+    Set<List<Object>> existing = new HashSet<>();
+    int chunkSize =
+        Math.max(
+            1,
+            Math.min(
+                MAX_PROBE_KEYS, configuration.getTemplates().getMaxParameters() / keys.size()));
+    for (int i = 0; i < keyValues.size(); i += chunkSize) {
+      List<List<Object>> chunk = keyValues.subList(i, Math.min(keyValues.size(), i + chunkSize));
+      Predicate condition;
+      if (keys.size() == 1) {
+        List<Object> values = new ArrayList<>(chunk.size());
+        for (List<Object> keyValue : chunk) {
+          values.add(keyValue.get(0));
+        }
+        condition = ExpressionUtils.in((Expression<Object>) keys.get(0), values);
+      } else {
+        List<Predicate> conditions = new ArrayList<>(chunk.size());
+        for (List<Object> keyValue : chunk) {
+          List<Predicate> equalities = new ArrayList<>(keys.size());
+          for (int j = 0; j < keys.size(); j++) {
+            equalities.add(
+                ExpressionUtils.eq(
+                    (Expression<Object>) keys.get(j), ConstantImpl.create(keyValue.get(j))));
+          }
+          conditions.add(ExpressionUtils.allOf(equalities));
+        }
+        condition = ExpressionUtils.anyOf(conditions);
+      }
+
+      SQLQuery<?> query = new SQLQuery<Void>(connection(), configuration).from(entity);
+      for (SQLListener listener : listeners.getListeners()) {
+        query.addListener(listener);
+      }
+      query.addListener(SQLNoCloseListener.DEFAULT);
+      for (Tuple row : query.where(condition).select(keys.toArray(new Expression<?>[0])).fetch()) {
+        List<Object> keyValue = new ArrayList<>(keys.size());
+        for (Object value : row.toArray()) {
+          value = normalize(value);
+          if (value == null) {
+            // the column type doesn't match the type of the key values
+            return null;
+          }
+          keyValue.add(value);
+        }
+        existing.add(keyValue);
+      }
     }
+    return existing;
   }
 
   protected void addListeners(AbstractSQLClause<?> clause) {
     for (SQLListener listener : listeners.getListeners()) {
       clause.addListener(listener);
     }
+    clause.setParentContext(getParentContext());
   }
 
-  @SuppressWarnings("unchecked")
   protected void populate(StoreClause<?> clause) {
+    populate(clause, columns, values);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static void populate(
+      StoreClause<?> clause, List<Path<?>> columns, List<Expression<?>> values) {
     for (int i = 0; i < columns.size(); i++) {
       clause.set((Path) columns.get(i), (Object) values.get(i));
     }
@@ -442,39 +740,41 @@ public class SQLMergeClause extends AbstractSQLClause<SQLMergeClause>
 
   protected Collection<PreparedStatement> createStatements(boolean withKeys) throws SQLException {
     boolean addBatches = !configuration.getUseLiterals();
+    SQLSerializationCache cache = createBatchCache();
     Map<String, PreparedStatement> stmts = new HashMap<>();
+    Map<QueryShape, PreparedStatement> stmtsByShape = new HashMap<>();
 
-    // add first batch
-    listeners.preRender(context);
-    SQLSerializer serializer = createSerializer();
-    serializer.serializeMerge(
-        metadata,
-        entity,
-        batches.get(0).getKeys(),
-        batches.get(0).getColumns(),
-        batches.get(0).getValues(),
-        batches.get(0).getSubQuery());
-    context.addSQL(createBindings(metadata, serializer));
-    listeners.rendered(context);
-
-    PreparedStatement stmt = prepareStatementAndSetParameters(serializer, withKeys);
-    stmts.put(serializer.toString(), stmt);
-    if (addBatches) {
-      stmt.addBatch();
-    }
-
-    // add other batches
-    for (int i = 1; i < batches.size(); i++) {
-      SQLMergeBatch batch = batches.get(i);
-      serializer = createSerializer();
-      serializer.serializeMerge(
-          metadata,
-          entity,
-          batch.getKeys(),
-          batch.getColumns(),
-          batch.getValues(),
-          batch.getSubQuery());
-      stmt = stmts.get(serializer.toString());
+    for (SQLMergeBatch batch : batches) {
+      // only the first batch is reported to the listeners
+      boolean first = stmts.isEmpty();
+      if (first) {
+        listeners.preRender(context);
+      }
+      QueryShape shape = cache != null ? getShape(batch) : null;
+      SQLSerializer serializer = createSerializer();
+      boolean cached =
+          serializeBatch(
+              cache,
+              shape,
+              serializer,
+              s ->
+                  s.serializeMerge(
+                      metadata,
+                      entity,
+                      batch.getKeys(),
+                      batch.getColumns(),
+                      batch.getValues(),
+                      batch.getSubQuery()));
+      if (first) {
+        context.addSQL(createBindings(metadata, serializer));
+        listeners.rendered(context);
+      }
+
+      // the statement of a cached shape is the one of its last rendering
+      PreparedStatement stmt = cached ? stmtsByShape.get(shape) : null;
+      if (stmt == null) {
+        stmt = stmts.get(serializer.toString());
+      }
       if (stmt == null) {
         stmt = prepareStatementAndSetParameters(serializer, withKeys);
         stmts.put(serializer.toString(), stmt);
@@ -482,6 +782,9 @@ public class SQLMergeClause extends AbstractSQLClause<SQLMergeClause>
         setParameters(
             stmt, serializer.getConstants(), serializer.getConstantPaths(), metadata.getParams());
       }
+      if (shape != null && !cached) {
+        stmtsByShape.put(shape, stmt);
+      }
       if (addBatches) {
         stmt.addBatch();
       }
@@ -490,6 +793,107 @@ public class SQLMergeClause extends AbstractSQLClause<SQLMergeClause>
     return stmts.values();
   }
 
+  /**
+   * Create the statements of a bulk merge, which merge a chunk of the batches each
+   *
+   * @return statements
+   * @throws SQLException
+   */
+  protected Collection<PreparedStatement> createBulkStatements() throws SQLException {
+    boolean addBatches = !configuration.getUseLiterals();
+    List<PreparedStatement> stmts = new ArrayList<>();
+    // only consecutive chunks share a statement, so that the chunks are merged in order
+    String lastSQL = null;
+
+    for (List<SQLMergeBatch> chunk : getBulkChunks()) {
+      listeners.preRender(context);
+      SQLSerializer serializer = createSerializer();
+      serializer.serializeMerge(metadata, entity, chunk);
+      context.addSQL(createBindings(metadata, serializer));
+      listeners.rendered(context);
+
+      PreparedStatement stmt =
+          addBatches && serializer.toString().equals(lastSQL) ? stmts.get(stmts.size() - 1) : null;
+      if (stmt == null) {
+        stmt = prepareStatementAndSetParameters(serializer, false);
+        stmts.add(stmt);
+        lastSQL = serializer.toString();
+      } else {
+        setParameters(
+            stmt, serializer.getConstants(), serializer.getConstantPaths(), metadata.getParams());
+      }
+      if (addBatches) {
+        stmt.addBatch();
+      }
+    }
+    return stmts;
+  }
+
+  private boolean isBulk() {
+    if (!batchToBulk || batches.isEmpty()) {
+      return false;
+    }
+    SQLMergeBatch first = batches.get(0);
+    for (SQLMergeBatch batch : batches) {
+      if (batch.getSubQuery() != null
+          || !batch.getKeys().equals(first.getKeys())
+          || !batch.getColumns().equals(first.getColumns())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Split the batches into chunks for bulk statements. A chunk doesn't contain the same constant
+   * key values twice, since a statement may not update a row twice on some databases.
+   *
+   * @return chunks
+   */
+  protected List<List<SQLMergeBatch>> getBulkChunks() {
+    int maxParameters = configuration.getTemplates().getMaxParameters();
+    int maxRows = Integer.MAX_VALUE;
+    if (maxParameters < Integer.MAX_VALUE) {
+      // the parameters of the first row are taken as the parameters of all rows
+      SQLSerializer serializer = createSerializer();
+      serializer.serializeMerge(metadata, entity, batches.subList(0, 1));
+      maxRows = Math.max(1, maxParameters / Math.max(1, serializer.getConstants().size()));
+    }
+    // power of two chunks, so that statements of equal chunk sizes can be reused
+    maxRows = Integer.highestOneBit(maxRows);
+    List<List<SQLMergeBatch>> chunks = new ArrayList<>();
+    int offset = 0;
+    List<? extends Path<?>> keys = batches.get(0).getKeys();
+    if (keys.isEmpty() && entity.getPrimaryKey() != null) {
+      keys = entity.getPrimaryKey().getLocalColumns();
+    }
+    Set<List<Object>> keyValues = new HashSet<>();
+    while (offset < batches.size()) {
+      int distinct = 0;
+      keyValues.clear();
+      while (offset + distinct < batches.size()) {
+        List<Object> values = getBoundKeyValues(keys, batches.get(offset + distinct));
+        if (!keys.isEmpty() && values != null && !keyValues.add(values)) {
+          break;
+        }
+        distinct++;
+      }
+      int rows = Math.min(Integer.highestOneBit(distinct), maxRows);
+      chunks.add(batches.subList(offset, offset + rows));
+      offset += rows;
+    }
+    return chunks;
+  }
+
+  private static QueryShape getShape(SQLMergeBatch batch) {
+    return QueryShape.builder()
+        .expressions(batch.getKeys())
+        .expressions(batch.getColumns())
+        .expressions(batch.getValues())
+        .expression(batch.getSubQuery())
+        .build();
+  }
+
   protected PreparedStatement prepareStatementAndSetParameters(
       SQLSerializer serializer, boolean withKeys) throws SQLException {
     listeners.prePrepare(context);
@@ -503,9 +907,9 @@ public class SQLMergeClause extends AbstractSQLClause<SQLMergeClause>
       for (int i = 0; i < target.length; i++) {
         target[i] = ColumnMetadata.getName(getKeys().get(i));
       }
-      stmt = connection().prepareStatement(queryString, target);
+      stmt = prepareStatement(queryString, target);
     } else {
-      stmt = connection().prepareStatement(queryString);
+      stmt = prepareStatement(queryString);
     }
     setParameters(
         stmt, serializer.getConstants(), serializer.getConstantPaths(), metadata.getParams());
@@ -527,14 +931,23 @@ public class SQLMergeClause extends AbstractSQLClause<SQLMergeClause>
         listeners.preExecute(context);
         int rc = stmt.executeUpdate();
         listeners.executed(context);
+        if (configuration.getTemplates().isUpsertSupported()) {
+          // MySQL reports an updated row twice
+          rc = Math.min(rc, 1);
+        }
+        context.setData(AbstractSQLQuery.ROW_COUNT, (long) rc);
         return rc;
       } else {
-        stmts = createStatements(false);
+        stmts = isBulk() ? createBulkStatements() : createStatements(false);
         listeners.notifyMerges(entity, metadata, batches);
 
         listeners.preExecute(context);
         long rc = executeBatch(stmts);
         listeners.executed(context);
+        if (configuration.getTemplates().isUpsertSupported()) {
+          rc = Math.min(rc, batches.size());
+        }
+        context.setData(AbstractSQLQuery.ROW_COUNT, rc);
         return rc;
       }
     } catch (SQLException e) {
@@ -283,7 +283,7 @@ public class SQLMergeUsingClause extends AbstractSQLClause<SQLMergeUsingClause>
     constants = serializer.getConstants();
     logQuery(logger, queryString, constants);
     PreparedStatement stmt;
-    stmt = connection().prepareStatement(queryString);
+    stmt = prepareStatement(queryString);
     setParameters(
         stmt, serializer.getConstants(), serializer.getConstantPaths(), metadata.getParams());
     context.addPreparedStatement(stmt);
@@ -302,6 +302,7 @@ public class SQLMergeUsingClause extends AbstractSQLClause<SQLMergeUsingClause>
       listeners.preExecute(context);
       int rc = stmt.executeUpdate();
       listeners.executed(context);
+      context.setData(AbstractSQLQuery.ROW_COUNT, (long) rc);
       return rc;
     } catch (SQLException e) {
       onException(context, e);
@@ -0,0 +1,285 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql.dml;
+
+import com.querydsl.core.QueryException;
+import com.querydsl.sql.Configuration;
+import com.querydsl.sql.SQLListenerContextImpl;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * {@code SQLParallelLoader} loads a stream of objects with several batch clauses in parallel.
+ *
+ * <p>The input is split into batches, which are handed round robin to a fixed amount of workers.
+ * Each worker has a bounded queue of pending batches, the reading of the input blocks while the
+ * queue of the next worker is full. Each worker creates a single clause of the given supplier and
+ * executes all its batches with it, so each worker uses one connection of its own for the whole
+ * load, if the clauses are created by a query factory with a connection provider, such as a
+ * connection pool. The connection is released when the worker is finished.
+ *
+ * <p>The binder adds a batch entry for a single object to the clause:
+ *
+ * <pre>{@code
+ * SQLParallelLoader<Employee, SQLInsertClause> loader =
+ *     new SQLParallelLoader<>(
+ *         queryFactory.getConfiguration(),
+ *         () -> queryFactory.insert(employee),
+ *         (insert, e) -> insert.populate(e).addBatch());
+ * loader.setWorkers(4);
+ * long rows = loader.load(employees.stream());
+ * }</pre>
+ *
+ * <p>If a batch fails, no further batches are started and the failure is thrown as a {@link
+ * BatchExecutionException} holding the index of the batch. Batches which were executed before are
+ * not rolled back.
+ *
+ * @param <T> type of the loaded objects
+ * @param <C> clause type
+ */
+public class SQLParallelLoader<T, C extends AbstractSQLClause<?>> {
+
+  private final Configuration configuration;
+
+  private final Supplier<? extends C> clauses;
+
+  private final BiConsumer<? super C, ? super T> binder;
+
+  private int workers = 2;
+
+  private int batchSize = 1000;
+
+  private int queueSize = 2;
+
+  @Nullable private Executor executor;
+
+  /**
+   * Create a new loader
+   *
+   * @param configuration configuration of the clauses
+   * @param clauses supplier of the clause of each worker
+   * @param binder binder, which adds a batch entry for an object to the clause
+   */
+  public SQLParallelLoader(
+      Configuration configuration,
+      Supplier<? extends C> clauses,
+      BiConsumer<? super C, ? super T> binder) {
+    this.configuration = configuration;
+    this.clauses = clauses;
+    this.binder = binder;
+  }
+
+  /**
+   * Set the amount of workers, defaults to 2
+   *
+   * @param workers amount of parallel workers
+   */
+  public void setWorkers(int workers) {
+    if (workers < 1) {
+      throw new IllegalArgumentException("workers needs to be positive, got " + workers);
+    }
+    this.workers = workers;
+  }
+
+  /**
+   * Set the amount of objects per batch, defaults to 1000
+   *
+   * @param batchSize objects per batch
+   */
+  public void setBatchSize(int batchSize) {
+    if (batchSize < 1) {
+      throw new IllegalArgumentException("batchSize needs to be positive, got " + batchSize);
+    }
+    this.batchSize = batchSize;
+  }
+
+  /**
+   * Set the amount of batches, which may be pending per worker, defaults to 2
+   *
+   * @param queueSize pending batches per worker
+   */
+  public void setQueueSize(int queueSize) {
+    if (queueSize < 1) {
+      throw new IllegalArgumentException("queueSize needs to be positive, got " + queueSize);
+    }
+    this.queueSize = queueSize;
+  }
+
+  /**
+   * Set the executor of the workers, defaults to the executor of the {@link Configuration}
+   *
+   * @param executor executor or null for the default
+   */
+  public void setExecutor(@Nullable Executor executor) {
+    this.executor = executor;
+  }
+
+  /**
+   * Load the given objects
+   *
+   * @param objects objects to load
+   * @return affected rows count
+   * @throws BatchExecutionException if a batch fails
+   */
+  public long load(Stream<? extends T> objects) {
+    return load(objects.iterator());
+  }
+
+  /**
+   * Load the given objects
+   *
+   * @param objects objects to load
+   * @return affected rows count
+   * @throws BatchExecutionException if a batch fails
+   */
+  public long load(Iterator<? extends T> objects) {
+    Executor executor = this.executor != null ? this.executor : configuration.getExecutor();
+    AtomicLong rows = new AtomicLong();
+    AtomicReference<BatchExecutionException> failure = new AtomicReference<>();
+    CountDownLatch finished = new CountDownLatch(workers);
+    List<BlockingQueue<List<T>>> queues = new ArrayList<>(workers);
+    for (int i = 0; i < workers; i++) {
+      BlockingQueue<List<T>> queue = new ArrayBlockingQueue<>(queueSize);
+      queues.add(queue);
+      Worker worker = new Worker(queue, workers, i, rows, failure, finished);
+      try {
+        executor.execute(worker);
+      } catch (RuntimeException e) {
+        failure.compareAndSet(null, new BatchExecutionException(i, e));
+        finished.countDown();
+        queues.remove(queue);
+      }
+    }
+
+    try {
+      long batchIndex = 0;
+      List<T> batch = new ArrayList<>(batchSize);
+      while (failure.get() == null && objects.hasNext()) {
+        batch.add(objects.next());
+        if (batch.size() == batchSize || !objects.hasNext()) {
+          queues.get((int) (batchIndex++ % workers)).put(batch);
+          batch = new ArrayList<>(batchSize);
+        }
+      }
+      for (BlockingQueue<List<T>> queue : queues) {
+        queue.put(Collections.emptyList());
+      }
+      finished.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      // stop the workers after their current batch
+      for (BlockingQueue<List<T>> queue : queues) {
+        queue.clear();
+        queue.offer(Collections.emptyList());
+      }
+      throw new QueryException(e);
+    }
+
+    if (failure.get() != null) {
+      throw failure.get();
+    }
+    return rows.get();
+  }
+
+  private final class Worker implements Runnable {
+
+    private final BlockingQueue<List<T>> queue;
+
+    private final int workers;
+
+    private final AtomicLong rows;
+
+    private final AtomicReference<BatchExecutionException> failure;
+
+    private final CountDownLatch finished;
+
+    // index of the next batch of this worker
+    private long batchIndex;
+
+    @Nullable private C clause;
+
+    @Nullable private SQLListenerContextImpl context;
+
+    Worker(
+        BlockingQueue<List<T>> queue,
+        int workers,
+        int index,
+        AtomicLong rows,
+        AtomicReference<BatchExecutionException> failure,
+        CountDownLatch finished) {
+      this.queue = queue;
+      this.workers = workers;
+      this.batchIndex = index;
+      this.rows = rows;
+      this.failure = failure;
+      this.finished = finished;
+    }
+
+    @Override
+    public void run() {
+      try {
+        List<T> batch;
+        while (!(batch = queue.take()).isEmpty()) {
+          // after a failure the remaining batches are only drained
+          if (failure.get() == null) {
+            execute(batch);
+          }
+          batchIndex += workers;
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        failure.compareAndSet(null, new BatchExecutionException(batchIndex, e));
+      } finally {
+        try {
+          if (context != null) {
+            clause.endParentContext(context);
+          }
+        } catch (RuntimeException e) {
+          failure.compareAndSet(null, new BatchExecutionException(batchIndex - workers, e));
+        } finally {
+          finished.countDown();
+        }
+      }
+    }
+
+    private void execute(List<T> batch) {
+      try {
+        if (clause == null) {
+          clause = clauses.get();
+          context = clause.startParentContext();
+        } else {
+          clause.clear();
+        }
+        for (T object : batch) {
+          binder.accept(clause, object);
+        }
+        rows.addAndGet(clause.execute());
+      } catch (RuntimeException e) {
+        failure.compareAndSet(null, new BatchExecutionException(batchIndex, e));
+      }
+    }
+  }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@code Histogram} is a lock-free histogram of non-negative long values.
+ *
+ * <p>Values are counted in logarithmic buckets, each power of two is split into 8 linear sub
+ * buckets, so that percentiles are reported with a relative error of at most 12.5%. Values up to 7
+ * are counted exactly and values of 2<sup>44</sup> and above are counted in the last bucket. The
+ * count, sum and maximum are exact.
+ *
+ * <p>Recording never blocks. Values recorded while the histogram is read may or may not be
+ * reflected in the result.
+ */
+public final class Histogram {
+
+  private static final int SUB_BUCKET_BITS = 3;
+
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+  private static final int MAX_EXPONENT = 43;
+
+  private static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+  private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+  private final LongAdder count = new LongAdder();
+
+  private final LongAdder sum = new LongAdder();
+
+  private final AtomicLong max = new AtomicLong();
+
+  /**
+   * Record a value, negative values are recorded as 0
+   *
+   * @param value value
+   */
+  public void record(long value) {
+    if (value < 0) {
+      value = 0;
+    }
+    buckets.incrementAndGet(indexOf(value));
+    count.increment();
+    sum.add(value);
+    long current = max.get();
+    while (value > current && !max.compareAndSet(current, value)) {
+      current = max.get();
+    }
+  }
+
+  /**
+   * Get the amount of recorded values
+   *
+   * @return count
+   */
+  public long getCount() {
+    return count.sum();
+  }
+
+  /**
+   * Get the sum of the recorded values
+   *
+   * @return sum
+   */
+  public long getSum() {
+    return sum.sum();
+  }
+
+  /**
+   * Get the largest recorded value
+   *
+   * @return maximum or 0, if no values have been recorded
+   */
+  public long getMax() {
+    return max.get();
+  }
+
+  /**
+   * Get the mean of the recorded values
+   *
+   * @return mean or 0, if no values have been recorded
+   */
+  public double getMean() {
+    long n = count.sum();
+    return n > 0 ? (double) sum.sum() / n : 0.0;
+  }
+
+  /**
+   * Get the value below or at which the given percentage of the recorded values lie. The result is
+   * the highest value of the bucket of the percentile, but not more than the maximum.
+   *
+   * @param percentile percentile between 0 and 100
+   * @return value at the percentile or 0, if no values have been recorded
+   */
+  public long getValueAtPercentile(double percentile) {
+    if (percentile < 0.0 || percentile > 100.0) {
+      throw new IllegalArgumentException(
+          "percentile needs to be between 0 and 100, got " + percentile);
+    }
+    long[] counts = new long[BUCKETS];
+    long total = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      counts[i] = buckets.get(i);
+      total += counts[i];
+    }
+    if (total == 0) {
+      return 0;
+    }
+    long target = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      seen += counts[i];
+      if (seen >= target) {
+        return Math.min(highestValueOf(i), max.get());
+      }
+    }
+    return max.get();
+  }
+
+  static int indexOf(long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+    int exponent = Math.min(63 - Long.numberOfLeadingZeros(value), MAX_EXPONENT);
+    if (exponent == MAX_EXPONENT && value >= 1L << (MAX_EXPONENT + 1)) {
+      return BUCKETS - 1;
+    }
+    int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+    return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+  }
+
+  static long highestValueOf(int index) {
+    if (index < SUB_BUCKETS) {
+      return index;
+    }
+    int shift = index / SUB_BUCKETS - 1;
+    long lowest = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+    return lowest + (1L << shift) - 1;
+  }
+}
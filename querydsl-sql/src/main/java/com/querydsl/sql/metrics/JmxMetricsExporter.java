@@ -0,0 +1,189 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+
+/**
+ * {@code JmxMetricsExporter} registers a {@link QueryMetricsMBean} per query fingerprint.
+ *
+ * <p>The object names are of the form {@code
+ * <domain>:type=QueryMetrics,listener="<listener>",name="<fingerprint>"}, so the metrics of several
+ * listeners can be exported to the same server. Registration failures are logged and don't affect
+ * the execution of statements.
+ */
+public class JmxMetricsExporter implements MetricsExporter {
+
+  private static final Logger logger = Logger.getLogger(JmxMetricsExporter.class.getName());
+
+  public static final String DEFAULT_DOMAIN = "com.querydsl.sql";
+
+  private final MBeanServer server;
+
+  private final String domain;
+
+  /** Create a new exporter for the platform MBean server and the default domain */
+  public JmxMetricsExporter() {
+    this(ManagementFactory.getPlatformMBeanServer(), DEFAULT_DOMAIN);
+  }
+
+  /**
+   * Create a new exporter
+   *
+   * @param server MBean server
+   * @param domain domain of the object names
+   */
+  public JmxMetricsExporter(MBeanServer server, String domain) {
+    this.server = server;
+    this.domain = domain;
+  }
+
+  /**
+   * Get the object name of the given metrics
+   *
+   * @param metrics metrics
+   * @return object name
+   * @throws JMException if the name is not valid
+   */
+  public ObjectName getObjectName(QueryMetrics metrics) throws JMException {
+    return new ObjectName(
+        domain
+            + ":type=QueryMetrics,listener="
+            + ObjectName.quote(metrics.getListener())
+            + ",name="
+            + ObjectName.quote(metrics.getFingerprint()));
+  }
+
+  @Override
+  public void register(QueryMetrics metrics) {
+    try {
+      server.registerMBean(
+          new StandardMBean(new QueryMetricsView(metrics), QueryMetricsMBean.class),
+          getObjectName(metrics));
+    } catch (JMException e) {
+      logger.log(Level.WARNING, "Caught " + e.getClass().getName() + " on register", e);
+    }
+  }
+
+  @Override
+  public void unregister(QueryMetrics metrics) {
+    try {
+      server.unregisterMBean(getObjectName(metrics));
+    } catch (InstanceNotFoundException e) {
+      // not registered
+    } catch (JMException e) {
+      logger.log(Level.WARNING, "Caught " + e.getClass().getName() + " on unregister", e);
+    }
+  }
+
+  private static final class QueryMetricsView implements QueryMetricsMBean {
+
+    private final QueryMetrics metrics;
+
+    QueryMetricsView(QueryMetrics metrics) {
+      this.metrics = metrics;
+    }
+
+    private static double micros(double nanos) {
+      return nanos / TimeUnit.MICROSECONDS.toNanos(1);
+    }
+
+    private static long micros(long nanos) {
+      return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+
+    @Override
+    public String getFingerprint() {
+      return metrics.getFingerprint();
+    }
+
+    @Override
+    public long getExecutionCount() {
+      return metrics.getExecutionCount();
+    }
+
+    @Override
+    public long getErrorCount() {
+      return metrics.getErrorCount();
+    }
+
+    @Override
+    public double getRenderTimeMean() {
+      return micros(metrics.getRenderTime().getMean());
+    }
+
+    @Override
+    public double getPrepareTimeMean() {
+      return micros(metrics.getPrepareTime().getMean());
+    }
+
+    @Override
+    public double getExecuteTimeMean() {
+      return micros(metrics.getExecuteTime().getMean());
+    }
+
+    @Override
+    public long getExecuteTime50thPercentile() {
+      return micros(metrics.getExecuteTime().getValueAtPercentile(50.0));
+    }
+
+    @Override
+    public long getExecuteTime99thPercentile() {
+      return micros(metrics.getExecuteTime().getValueAtPercentile(99.0));
+    }
+
+    @Override
+    public long getExecuteTimeMax() {
+      return micros(metrics.getExecuteTime().getMax());
+    }
+
+    @Override
+    public double getFetchTimeMean() {
+      return micros(metrics.getFetchTime().getMean());
+    }
+
+    @Override
+    public long getFetchTime99thPercentile() {
+      return micros(metrics.getFetchTime().getValueAtPercentile(99.0));
+    }
+
+    @Override
+    public long getFetchTimeMax() {
+      return micros(metrics.getFetchTime().getMax());
+    }
+
+    @Override
+    public double getRowsMean() {
+      return metrics.getRows().getMean();
+    }
+
+    @Override
+    public long getRows99thPercentile() {
+      return metrics.getRows().getValueAtPercentile(99.0);
+    }
+
+    @Override
+    public long getRowsMax() {
+      return metrics.getRows().getMax();
+    }
+  }
+}
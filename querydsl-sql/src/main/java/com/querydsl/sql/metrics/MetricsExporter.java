@@ -0,0 +1,43 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql.metrics;
+
+/**
+ * {@code MetricsExporter} publishes the {@link QueryMetrics} of a {@link MetricsSQLListener} to a
+ * monitoring system.
+ *
+ * <p>The metrics are live objects, exporters register them once and read them when the monitoring
+ * system asks for values. The callbacks are invoked on the thread executing the first statement of
+ * a fingerprint and should not block.
+ *
+ * @see JmxMetricsExporter
+ */
+public interface MetricsExporter {
+
+  /**
+   * Called when the metrics of a new fingerprint are created, or for the existing metrics when the
+   * exporter is added to the listener
+   *
+   * @param metrics metrics
+   */
+  void register(QueryMetrics metrics);
+
+  /**
+   * Called when metrics are discarded by the listener, or for all metrics when the exporter is
+   * removed from the listener
+   *
+   * @param metrics metrics
+   */
+  void unregister(QueryMetrics metrics);
+}
@@ -0,0 +1,374 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql.metrics;
+
+import com.querydsl.sql.AbstractSQLQuery;
+import com.querydsl.sql.SQLBaseListener;
+import com.querydsl.sql.SQLListenerContext;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * {@code MetricsSQLListener} records the durations of the phases of each statement and the amount
+ * of rows read or affected, grouped by the fingerprint of the SQL string.
+ *
+ * <p>Usage:
+ *
+ * <pre>{@code
+ * MetricsSQLListener metrics = new MetricsSQLListener();
+ * metrics.addExporter(new JmxMetricsExporter());
+ * configuration.addListener(metrics);
+ * }</pre>
+ *
+ * <p>The durations of rendering, preparing, executing and fetching are recorded in {@link
+ * Histogram}s of the {@link QueryMetrics} of the fingerprint. Statements without a SQL string, such
+ * as the enclosing context of {@code fetchResults()}, are not recorded. Statements of new
+ * fingerprints are recorded under {@link #OTHER} once the maximum amount of fingerprints is
+ * reached.
+ */
+public class MetricsSQLListener extends SQLBaseListener {
+
+  /** Fingerprint of the statements exceeding the maximum amount of fingerprints */
+  public static final String OTHER = "<other>";
+
+  private static final String TIMINGS = MetricsSQLListener.class.getName() + "#TIMINGS";
+
+  private static final Pattern LIST = Pattern.compile("\\(\\?(?:, ?\\?)+\\)");
+
+  private static final Pattern ROWS = Pattern.compile("\\(\\?\\)(?:, ?\\(\\?\\))+");
+
+  private static final AtomicInteger NAMES = new AtomicInteger();
+
+  private final String name;
+
+  private final int maxFingerprints;
+
+  private final Map<String, QueryMetrics> metrics = new ConcurrentHashMap<>();
+
+  // SQL string -> metrics, avoids normalizing the SQL strings of recurring statements
+  private final Map<String, QueryMetrics> bySQL = new ConcurrentHashMap<>();
+
+  private final List<MetricsExporter> exporters = new CopyOnWriteArrayList<>();
+
+  /** Create a new listener for up to 1000 fingerprints */
+  public MetricsSQLListener() {
+    this(1000);
+  }
+
+  /**
+   * Create a new listener, which is named by a sequence number
+   *
+   * @param maxFingerprints maximum amount of fingerprints
+   */
+  public MetricsSQLListener(int maxFingerprints) {
+    this(String.valueOf(NAMES.incrementAndGet()), maxFingerprints);
+  }
+
+  /**
+   * Create a new listener
+   *
+   * @param name name of the listener, which distinguishes its metrics from those of other listeners
+   * @param maxFingerprints maximum amount of fingerprints
+   */
+  public MetricsSQLListener(String name, int maxFingerprints) {
+    if (maxFingerprints < 1) {
+      throw new IllegalArgumentException(
+          "maxFingerprints needs to be positive, got " + maxFingerprints);
+    }
+    this.name = name;
+    this.maxFingerprints = maxFingerprints;
+  }
+
+  /**
+   * Normalize the given SQL string into a fingerprint. Literals are replaced with {@code ?},
+   * whitespace is collapsed and lists of parameters, such as the elements of IN lists or the rows
+   * of multi row inserts, are collapsed to a single element.
+   *
+   * @param sql SQL string
+   * @return fingerprint
+   */
+  public static String fingerprint(String sql) {
+    StringBuilder builder = new StringBuilder(sql.length());
+    int length = sql.length();
+    int i = 0;
+    while (i < length) {
+      char c = sql.charAt(i);
+      if (Character.isWhitespace(c)) {
+        while (i < length && Character.isWhitespace(sql.charAt(i))) {
+          i++;
+        }
+        if (builder.length() > 0 && i < length) {
+          builder.append(' ');
+        }
+      } else if (c == '\'') {
+        // string literal, quotes are escaped by doubling
+        i++;
+        while (i < length) {
+          if (sql.charAt(i) == '\'') {
+            if (i + 1 < length && sql.charAt(i + 1) == '\'') {
+              i += 2;
+            } else {
+              break;
+            }
+          } else {
+            i++;
+          }
+        }
+        i++;
+        builder.append('?');
+      } else if (c == '"' || c == '`' || c == '[') {
+        // quoted identifier
+        char end = c == '[' ? ']' : c;
+        int start = i;
+        i = sql.indexOf(end, i + 1);
+        i = i < 0 ? length : i + 1;
+        builder.append(sql, start, i);
+      } else if (Character.isDigit(c)) {
+        // numeric literal
+        while (i < length && (Character.isLetterOrDigit(sql.charAt(i)) || sql.charAt(i) == '.')) {
+          i++;
+        }
+        builder.append('?');
+      } else if (Character.isLetter(c) || c == '_' || c == '$') {
+        // identifier or keyword, which may contain digits
+        int start = i;
+        while (i < length
+            && (Character.isLetterOrDigit(sql.charAt(i))
+                || sql.charAt(i) == '_'
+                || sql.charAt(i) == '$')) {
+          i++;
+        }
+        builder.append(sql, start, i);
+      } else {
+        builder.append(c);
+        i++;
+      }
+    }
+    String fingerprint = builder.toString();
+    if (fingerprint.indexOf('?') >= 0) {
+      fingerprint = LIST.matcher(fingerprint).replaceAll("(?)");
+      fingerprint = ROWS.matcher(fingerprint).replaceAll("(?)");
+    }
+    return fingerprint;
+  }
+
+  /**
+   * Add an exporter, the metrics of the existing fingerprints are registered immediately
+   *
+   * @param exporter exporter
+   */
+  public void addExporter(MetricsExporter exporter) {
+    exporters.add(exporter);
+    for (QueryMetrics m : metrics.values()) {
+      exporter.register(m);
+    }
+  }
+
+  /**
+   * Remove an exporter and unregister the metrics of the existing fingerprints from it
+   *
+   * @param exporter exporter
+   */
+  public void removeExporter(MetricsExporter exporter) {
+    if (exporters.remove(exporter)) {
+      for (QueryMetrics m : metrics.values()) {
+        exporter.unregister(m);
+      }
+    }
+  }
+
+  /**
+   * Get the metrics of all fingerprints
+   *
+   * @return metrics
+   */
+  public Collection<QueryMetrics> getMetrics() {
+    return Collections.unmodifiableCollection(new ArrayList<>(metrics.values()));
+  }
+
+  /**
+   * Get the metrics of the given fingerprint
+   *
+   * @param fingerprint fingerprint
+   * @return metrics or null, if no statements of the fingerprint have been recorded
+   */
+  @Nullable
+  public QueryMetrics getMetrics(String fingerprint) {
+    return metrics.get(fingerprint);
+  }
+
+  /** Discard the metrics of all fingerprints */
+  public void clear() {
+    List<QueryMetrics> removed = new ArrayList<>(metrics.values());
+    bySQL.clear();
+    metrics.values().removeAll(removed);
+    for (QueryMetrics m : removed) {
+      for (MetricsExporter exporter : exporters) {
+        exporter.unregister(m);
+      }
+    }
+  }
+
+  /**
+   * Get the name of the listener
+   *
+   * @return name
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Get the maximum amount of fingerprints
+   *
+   * @return maximum amount of fingerprints
+   */
+  public int getMaxFingerprints() {
+    return maxFingerprints;
+  }
+
+  private QueryMetrics getOrCreate(String sql) {
+    QueryMetrics m = bySQL.get(sql);
+    if (m == null) {
+      String fingerprint = fingerprint(sql);
+      m = metrics.get(fingerprint);
+      if (m == null) {
+        if (metrics.size() >= maxFingerprints) {
+          fingerprint = OTHER;
+          m = metrics.get(fingerprint);
+        }
+        if (m == null) {
+          QueryMetrics created = new QueryMetrics(name, fingerprint);
+          m = metrics.putIfAbsent(fingerprint, created);
+          if (m == null) {
+            m = created;
+            for (MetricsExporter exporter : exporters) {
+              exporter.register(m);
+            }
+          }
+        }
+      }
+      if (bySQL.size() < 4 * maxFingerprints) {
+        bySQL.put(sql, m);
+      }
+    }
+    return m;
+  }
+
+  @Override
+  public void start(SQLListenerContext context) {
+    context.setData(TIMINGS, new Timings());
+  }
+
+  @Override
+  public void preRender(SQLListenerContext context) {
+    Timings timings = (Timings) context.getData(TIMINGS);
+    if (timings != null) {
+      timings.mark = System.nanoTime();
+    }
+  }
+
+  @Override
+  public void rendered(SQLListenerContext context) {
+    Timings timings = (Timings) context.getData(TIMINGS);
+    if (timings != null) {
+      timings.render += System.nanoTime() - timings.mark;
+    }
+  }
+
+  @Override
+  public void prePrepare(SQLListenerContext context) {
+    Timings timings = (Timings) context.getData(TIMINGS);
+    if (timings != null) {
+      timings.mark = System.nanoTime();
+    }
+  }
+
+  @Override
+  public void prepared(SQLListenerContext context) {
+    Timings timings = (Timings) context.getData(TIMINGS);
+    if (timings != null) {
+      timings.prepare += System.nanoTime() - timings.mark;
+    }
+  }
+
+  @Override
+  public void preExecute(SQLListenerContext context) {
+    Timings timings = (Timings) context.getData(TIMINGS);
+    if (timings != null) {
+      timings.mark = System.nanoTime();
+    }
+  }
+
+  @Override
+  public void executed(SQLListenerContext context) {
+    Timings timings = (Timings) context.getData(TIMINGS);
+    if (timings != null) {
+      timings.executed = true;
+      timings.executedAt = System.nanoTime();
+      timings.execute += timings.executedAt - timings.mark;
+    }
+  }
+
+  @Override
+  public void exception(SQLListenerContext context) {
+    Timings timings = (Timings) context.getData(TIMINGS);
+    if (timings != null) {
+      timings.failed = true;
+    }
+  }
+
+  @Override
+  public void end(SQLListenerContext context) {
+    Timings timings = (Timings) context.getData(TIMINGS);
+    String sql = context.getSQL();
+    if (timings == null || sql == null) {
+      return;
+    }
+    QueryMetrics m = getOrCreate(sql);
+    if (timings.failed) {
+      m.error();
+      return;
+    } else if (!timings.executed) {
+      return;
+    }
+    m.getRenderTime().record(timings.render);
+    m.getPrepareTime().record(timings.prepare);
+    m.getFetchTime().record(System.nanoTime() - timings.executedAt);
+    Object rows = context.getData(AbstractSQLQuery.ROW_COUNT);
+    if (rows instanceof Long) {
+      m.getRows().record((Long) rows);
+    }
+    m.getExecuteTime().record(timings.execute);
+  }
+
+  /** Durations of the phases of one statement */
+  private static final class Timings {
+
+    private long mark, render, prepare, execute;
+
+    // end of the last execution
+    private long executedAt;
+
+    private boolean executed, failed;
+  }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@code QueryMetrics} holds the metrics of the statements of one query fingerprint, see {@link
+ * MetricsSQLListener#fingerprint(String)}.
+ *
+ * <p>Durations are recorded in nanoseconds.
+ */
+public final class QueryMetrics {
+
+  private final String listener;
+
+  private final String fingerprint;
+
+  private final Histogram renderTime = new Histogram();
+
+  private final Histogram prepareTime = new Histogram();
+
+  private final Histogram executeTime = new Histogram();
+
+  private final Histogram fetchTime = new Histogram();
+
+  private final Histogram rows = new Histogram();
+
+  private final LongAdder errors = new LongAdder();
+
+  QueryMetrics(String listener, String fingerprint) {
+    this.listener = listener;
+    this.fingerprint = fingerprint;
+  }
+
+  /**
+   * Get the name of the listener which recorded the metrics, see {@link
+   * MetricsSQLListener#getName()}
+   *
+   * @return listener name
+   */
+  public String getListener() {
+    return listener;
+  }
+
+  /**
+   * Get the fingerprint of the statements
+   *
+   * @return fingerprint
+   */
+  public String getFingerprint() {
+    return fingerprint;
+  }
+
+  /**
+   * Get the durations of rendering the SQL strings
+   *
+   * @return render durations
+   */
+  public Histogram getRenderTime() {
+    return renderTime;
+  }
+
+  /**
+   * Get the durations of preparing the statements and setting the parameters
+   *
+   * @return prepare durations
+   */
+  public Histogram getPrepareTime() {
+    return prepareTime;
+  }
+
+  /**
+   * Get the durations of executing the statements
+   *
+   * @return execute durations
+   */
+  public Histogram getExecuteTime() {
+    return executeTime;
+  }
+
+  /**
+   * Get the durations from the end of the execution to the end of the statement, which include
+   * reading the results and closing the statement
+   *
+   * @return fetch durations
+   */
+  public Histogram getFetchTime() {
+    return fetchTime;
+  }
+
+  /**
+   * Get the amounts of rows read by queries or affected by DML clauses
+   *
+   * @return row counts
+   */
+  public Histogram getRows() {
+    return rows;
+  }
+
+  /**
+   * Get the amount of completed executions
+   *
+   * @return execution count
+   */
+  public long getExecutionCount() {
+    return executeTime.getCount();
+  }
+
+  /**
+   * Get the amount of executions which failed with an exception
+   *
+   * @return error count
+   */
+  public long getErrorCount() {
+    return errors.sum();
+  }
+
+  void error() {
+    errors.increment();
+  }
+
+  @Override
+  public String toString() {
+    return fingerprint;
+  }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql.metrics;
+
+/**
+ * {@code QueryMetricsMBean} is the management interface of the {@link QueryMetrics} registered by
+ * the {@link JmxMetricsExporter}. Durations are reported in microseconds.
+ */
+public interface QueryMetricsMBean {
+
+  String getFingerprint();
+
+  long getExecutionCount();
+
+  long getErrorCount();
+
+  double getRenderTimeMean();
+
+  double getPrepareTimeMean();
+
+  double getExecuteTimeMean();
+
+  long getExecuteTime50thPercentile();
+
+  long getExecuteTime99thPercentile();
+
+  long getExecuteTimeMax();
+
+  double getFetchTimeMean();
+
+  long getFetchTime99thPercentile();
+
+  long getFetchTimeMax();
+
+  double getRowsMean();
+
+  long getRows99thPercentile();
+
+  long getRowsMax();
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql.mysql;
+
+import com.querydsl.core.QueryException;
+import com.querydsl.sql.Configuration;
+import com.querydsl.sql.RelationalPath;
+import com.querydsl.sql.SQLTemplates;
+import com.querydsl.sql.dml.AbstractSQLLoadClause;
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.function.Supplier;
+
+/**
+ * {@code MySQLLoadDataClause} loads rows with a {@code LOAD DATA LOCAL INFILE} statement
+ *
+ * <p>The rows are streamed from memory in the default tab separated format of LOAD DATA, so no file
+ * is written. This requires MySQL Connector/J with the {@code allowLoadLocalInfile=true} connection
+ * property and the {@code local_infile} server variable to be enabled. Binary values are not
+ * supported.
+ *
+ * <pre>{@code
+ * MySQLLoadDataClause load = queryFactory.loadData(employee);
+ * for (Employee e : employees) {
+ *   load.populate(e).addBatch();
+ * }
+ * long rows = load.execute();
+ * }</pre>
+ */
+public class MySQLLoadDataClause extends AbstractSQLLoadClause<MySQLLoadDataClause> {
+
+  public MySQLLoadDataClause(
+      Connection connection, SQLTemplates templates, RelationalPath<?> entity) {
+    this(connection, new Configuration(templates), entity);
+  }
+
+  public MySQLLoadDataClause(
+      Connection connection, Configuration configuration, RelationalPath<?> entity) {
+    super(connection, configuration, entity);
+  }
+
+  public MySQLLoadDataClause(
+      Supplier<Connection> connection, Configuration configuration, RelationalPath<?> entity) {
+    super(connection, configuration, entity);
+  }
+
+  @Override
+  protected String getLoadSQL() {
+    // the file name is ignored, as the rows are read from the stream of the statement
+    return "load data local infile 'stream' into table "
+        + getTableName()
+        + " character set utf8mb4 ("
+        + String.join(", ", getColumnNames())
+        + ")";
+  }
+
+  @Override
+  protected long load(Connection connection, String sql, InputStream data) throws SQLException {
+    Statement stmt = connection.createStatement();
+    try {
+      Class<?> jdbcStatement = Class.forName("com.mysql.cj.jdbc.JdbcStatement");
+      jdbcStatement
+          .getMethod("setLocalInfileInputStream", InputStream.class)
+          .invoke(stmt.unwrap(jdbcStatement), data);
+      return stmt.executeUpdate(sql);
+    } catch (InvocationTargetException e) {
+      throw new QueryException(e.getCause());
+    } catch (ReflectiveOperationException e) {
+      throw new QueryException("LOAD DATA requires the MySQL Connector/J driver", e);
+    } finally {
+      close(stmt);
+    }
+  }
+}
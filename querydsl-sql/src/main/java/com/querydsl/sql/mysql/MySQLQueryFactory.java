@@ -106,6 +106,16 @@ public class MySQLQueryFactory extends AbstractSQLQueryFactory<MySQLQuery<?>> {
     return new MySQLQuery<Void>(connection, configuration);
   }
 
+  /**
+   * Create a LOAD DATA LOCAL INFILE clause
+   *
+   * @param entity table to load into
+   * @return load clause
+   */
+  public MySQLLoadDataClause loadData(RelationalPath<?> entity) {
+    return new MySQLLoadDataClause(connection, configuration, entity);
+  }
+
   public MySQLReplaceClause replace(RelationalPath<?> entity) {
     return new MySQLReplaceClause(connection.get(), configuration, entity);
   }
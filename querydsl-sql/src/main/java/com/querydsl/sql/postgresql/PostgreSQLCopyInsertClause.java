@@ -0,0 +1,99 @@
+/*
+ * Copyright 2015, The Querydsl Team (http://www.querydsl.com/team)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.querydsl.sql.postgresql;
+
+import com.querydsl.core.QueryException;
+import com.querydsl.core.types.Path;
+import com.querydsl.sql.Configuration;
+import com.querydsl.sql.RelationalPath;
+import com.querydsl.sql.SQLTemplates;
+import com.querydsl.sql.dml.AbstractSQLLoadClause;
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.function.Supplier;
+
+/**
+ * {@code PostgreSQLCopyInsertClause} loads rows with a {@code COPY ... FROM STDIN} statement
+ *
+ * <p>The rows are streamed in the text format of COPY through the {@code CopyManager} of the
+ * PostgreSQL JDBC driver, which needs to be available at runtime. Binary values are encoded in the
+ * hex format of {@code bytea}.
+ *
+ * <pre>{@code
+ * PostgreSQLCopyInsertClause copy = queryFactory.copyInsert(employee);
+ * for (Employee e : employees) {
+ *   copy.populate(e).addBatch();
+ * }
+ * long rows = copy.execute();
+ * }</pre>
+ */
+public class PostgreSQLCopyInsertClause extends AbstractSQLLoadClause<PostgreSQLCopyInsertClause> {
+
+  private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+  public PostgreSQLCopyInsertClause(
+      Connection connection, SQLTemplates templates, RelationalPath<?> entity) {
+    this(connection, new Configuration(templates), entity);
+  }
+
+  public PostgreSQLCopyInsertClause(
+      Connection connection, Configuration configuration, RelationalPath<?> entity) {
+    super(connection, configuration, entity);
+  }
+
+  public PostgreSQLCopyInsertClause(
+      Supplier<Connection> connection, Configuration configuration, RelationalPath<?> entity) {
+    super(connection, configuration, entity);
+  }
+
+  @Override
+  protected String toText(Path<?> column, Object value) {
+    if (value instanceof byte[]) {
+      byte[] bytes = (byte[]) value;
+      StringBuilder text = new StringBuilder(2 + 2 * bytes.length).append("\\x");
+      for (byte b : bytes) {
+        text.append(HEX[(b >> 4) & 0xF]).append(HEX[b & 0xF]);
+      }
+      return text.toString();
+    }
+    return super.toText(column, value);
+  }
+
+  @Override
+  protected String getLoadSQL() {
+    return "copy " + getTableName() + " (" + String.join(", ", getColumnNames()) + ") from stdin";
+  }
+
+  @Override
+  protected long load(Connection connection, String sql, InputStream data) throws SQLException {
+    try {
+      Class<?> pgConnection = Class.forName("org.postgresql.PGConnection");
+      Object copyManager =
+          pgConnection.getMethod("getCopyAPI").invoke(connection.unwrap(pgConnection));
+      return (Long)
+          Class.forName("org.postgresql.copy.CopyManager")
+              .getMethod("copyIn", String.class, InputStream.class)
+              .invoke(copyManager, sql, data);
+    } catch (InvocationTargetException e) {
+      if (e.getCause() instanceof SQLException) {
+        throw (SQLException) e.getCause();
+      }
+      throw new QueryException(e.getCause());
+    } catch (ReflectiveOperationException e) {
+      throw new QueryException("COPY requires the PostgreSQL JDBC driver", e);
+    }
+  }
+}
@@ -39,6 +39,16 @@ public class PostgreSQLQueryFactory extends AbstractSQLQueryFactory<PostgreSQLQu
     this(new Configuration(templates), connection);
   }
 
+  /**
+   * Create a COPY FROM STDIN clause
+   *
+   * @param entity table to load into
+   * @return copy clause
+   */
+  public PostgreSQLCopyInsertClause copyInsert(RelationalPath<?> entity) {
+    return new PostgreSQLCopyInsertClause(connection, configuration, entity);
+  }
+
   @Override
   public PostgreSQLQuery<?> query() {
     return new PostgreSQLQuery<Void>(connection, configuration);
@@ -86,7 +86,7 @@ public class SetQueryBandClause extends AbstractSQLClause<SetQueryBandClause> {
   public long execute() {
     PreparedStatement stmt = null;
     try {
-      stmt = connection().prepareStatement(toString());
+      stmt = prepareStatement(toString());
       if (parameter != null) {
         stmt.setString(1, parameter);
       }
@@ -23,7 +23,7 @@ import java.sql.Types;
  *
  * @author tiwe
  */
-public class ShortType extends AbstractType<Short> {
+public class ShortType extends AbstractNumberType<Short> {
 
   public ShortType() {
     super(Types.SMALLINT);
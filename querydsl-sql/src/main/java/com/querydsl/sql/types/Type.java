@@ -62,6 +62,60 @@ public interface Type<T> {
   @Nullable
   T getValue(ResultSet rs, int startIndex) throws SQLException;
 
+  /**
+   * Get the object from the result set as a long
+   *
+   * <p>If the value is SQL NULL, 0 is returned and {@link ResultSet#wasNull()} returns true. The
+   * default implementation unboxes the result of {@link #getValue(ResultSet, int)}, the types of
+   * primitive numbers override it to read the value without boxing.
+   *
+   * @param rs result set
+   * @param startIndex column index in result set
+   * @return value or 0
+   * @throws SQLException
+   * @throws ClassCastException if the values of this type are not numbers
+   */
+  default long getLong(ResultSet rs, int startIndex) throws SQLException {
+    Object value = getValue(rs, startIndex);
+    return value != null ? ((Number) value).longValue() : 0L;
+  }
+
+  /**
+   * Get the object from the result set as an int
+   *
+   * <p>If the value is SQL NULL, 0 is returned and {@link ResultSet#wasNull()} returns true. The
+   * default implementation unboxes the result of {@link #getValue(ResultSet, int)}, the types of
+   * primitive numbers override it to read the value without boxing.
+   *
+   * @param rs result set
+   * @param startIndex column index in result set
+   * @return value or 0
+   * @throws SQLException
+   * @throws ClassCastException if the values of this type are not numbers
+   */
+  default int getInt(ResultSet rs, int startIndex) throws SQLException {
+    Object value = getValue(rs, startIndex);
+    return value != null ? ((Number) value).intValue() : 0;
+  }
+
+  /**
+   * Get the object from the result set as a double
+   *
+   * <p>If the value is SQL NULL, 0 is returned and {@link ResultSet#wasNull()} returns true. The
+   * default implementation unboxes the result of {@link #getValue(ResultSet, int)}, the types of
+   * primitive numbers override it to read the value without boxing.
+   *
+   * @param rs result set
+   * @param startIndex column index in result set
+   * @return value or 0
+   * @throws SQLException
+   * @throws ClassCastException if the values of this type are not numbers
+   */
+  default double getDouble(ResultSet rs, int startIndex) throws SQLException {
+    Object value = getValue(rs, startIndex);
+    return value != null ? ((Number) value).doubleValue() : 0.0;
+  }
+
   /**
    * Set the object to the statement
    *
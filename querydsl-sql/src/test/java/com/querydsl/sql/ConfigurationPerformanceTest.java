@@ -0,0 +1,127 @@
+package com.querydsl.sql;
+
+import com.querydsl.core.testutil.Performance;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/**
+ * Measures {@link Configuration#get} and {@link Configuration#set} with a shared configuration, the
+ * throughput per thread should not degrade with the amount of threads
+ */
+@Category(Performance.class)
+@State(Scope.Benchmark)
+public class ConfigurationPerformanceTest {
+
+  private static final Object[] VALUES = {
+    "abc", 1, 2L, 3.0, new BigDecimal("4.5"), new Timestamp(0L), Boolean.TRUE
+  };
+
+  private final Configuration conf = new Configuration(H2Templates.DEFAULT);
+
+  private final ResultSet rs =
+      (ResultSet)
+          Proxy.newProxyInstance(
+              getClass().getClassLoader(),
+              new Class<?>[] {ResultSet.class},
+              (proxy, method, args) -> {
+                switch (method.getName()) {
+                  case "wasNull":
+                    return false;
+                  case "getString":
+                    return "abc";
+                  case "getLong":
+                    return 1L;
+                  case "getInt":
+                    return 1;
+                  default:
+                    return null;
+                }
+              });
+
+  private final PreparedStatement stmt =
+      (PreparedStatement)
+          Proxy.newProxyInstance(
+              getClass().getClassLoader(),
+              new Class<?>[] {PreparedStatement.class},
+              (proxy, method, args) -> null);
+
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  @Threads(1)
+  public void get_1(Blackhole bh) throws SQLException {
+    get(bh);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  @Threads(32)
+  public void get_32(Blackhole bh) throws SQLException {
+    get(bh);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  @Threads(1)
+  public void set_1() throws SQLException {
+    set();
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  @Threads(32)
+  public void set_32() throws SQLException {
+    set();
+  }
+
+  private void get(Blackhole bh) throws SQLException {
+    bh.consume(conf.get(rs, null, 1, String.class));
+    bh.consume(conf.get(rs, null, 1, Long.class));
+    bh.consume(conf.get(rs, null, 1, Integer.class));
+  }
+
+  private void set() throws SQLException {
+    for (int i = 0; i < VALUES.length; i++) {
+      conf.set(stmt, null, i + 1, VALUES[i]);
+    }
+  }
+
+  @Test
+  public void launchBenchmark() throws Exception {
+    Options opt =
+        new OptionsBuilder()
+            .include(this.getClass().getName() + ".*")
+            .warmupTime(TimeValue.seconds(1))
+            .warmupIterations(1)
+            .measurementTime(TimeValue.seconds(1))
+            .measurementIterations(3)
+            .forks(1)
+            .shouldFailOnError(true)
+            .shouldDoGC(true)
+            .build();
+
+    new Runner(opt).run();
+  }
+}
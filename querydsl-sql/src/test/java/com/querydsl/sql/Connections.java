@@ -129,7 +129,8 @@ public final class Connections {
 
   private static Connection getMySQL() throws SQLException, ClassNotFoundException {
     Class.forName("com.mysql.jdbc.Driver");
-    String url = "jdbc:mysql://localhost:3306/querydsl?useLegacyDatetimeCode=false";
+    String url =
+        "jdbc:mysql://localhost:3306/querydsl?useLegacyDatetimeCode=false&allowLoadLocalInfile=true";
     return DriverManager.getConnection(url, "querydsl", "querydsl");
   }
 
@@ -25,6 +25,10 @@ import com.querydsl.sql.dml.SQLDeleteClause;
 import com.querydsl.sql.domain.QEmployee;
 import com.querydsl.sql.domain.QSurvey;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -59,6 +63,33 @@ public class DeleteBase extends AbstractBaseTest {
     assertThat(delete.execute()).isEqualTo(2);
   }
 
+  @Test
+  public void batch_listener_order() throws SQLException {
+    RecordingListener listener = new RecordingListener();
+    SQLDeleteClause delete = delete(survey);
+    delete.addListener(listener);
+    delete.where(survey.name.eq("A")).addBatch();
+    delete.where(survey.name.eq("B")).addBatch();
+
+    delete.execute();
+    List<String> events =
+        new ArrayList<>(
+            Arrays.asList(
+                "start",
+                "preRender",
+                "rendered",
+                "prePrepare",
+                "prepared",
+                "preRender",
+                "rendered"));
+    if (configuration.getUseLiterals()) {
+      // each batch with literals is prepared as a statement of its own
+      events.addAll(Arrays.asList("prePrepare", "prepared"));
+    }
+    events.addAll(Arrays.asList("preExecute", "executed", "end"));
+    assertThat(listener.getEvents()).isEqualTo(events);
+  }
+
   @Test
   @ExcludeIn({CUBRID, SQLITE, FIREBIRD})
   public void batch_templates() throws SQLException {
@@ -71,6 +102,43 @@ public class DeleteBase extends AbstractBaseTest {
     assertThat(delete.execute()).isEqualTo(2);
   }
 
+  @Test
+  public void executeByKeys() {
+    for (int i = 2; i < 10; i++) {
+      insert(survey).values(i, "A", "B").execute();
+    }
+    AtomicInteger prepared = new AtomicInteger();
+    SQLDeleteClause delete = delete(survey).where(survey.name.eq("A"));
+    delete.addListener(
+        new SQLBaseListener() {
+          @Override
+          public void prepared(SQLListenerContext context) {
+            prepared.incrementAndGet();
+          }
+        });
+    delete.setKeyChunkSize(3);
+
+    assertThat(delete.executeByKeys(survey.id, Arrays.asList(1, 2, 3, 4, 5, 6, 7, 12)))
+        .isEqualTo(6);
+    assertThat(prepared.get()).isEqualTo(configuration.getUseLiterals() ? 3 : 1);
+    assertThat(query().from(survey).orderBy(survey.id.asc()).select(survey.id).fetch())
+        .containsExactly(1, 8, 9);
+  }
+
+  @Test
+  @IncludeIn({H2, POSTGRESQL})
+  public void executeByKeys_arrayBinding() {
+    for (int i = 2; i < 10; i++) {
+      insert(survey).values(i, "A", "B").execute();
+    }
+    SQLDeleteClause delete = delete(survey);
+    delete.setArrayBinding(true);
+
+    assertThat(delete.executeByKeys(survey.id, Arrays.asList(2, 3, 5, 12))).isEqualTo(3);
+    assertThat(query().from(survey).orderBy(survey.id.asc()).select(survey.id).fetch())
+        .containsExactly(1, 4, 6, 7, 8, 9);
+  }
+
   @Test
   @ExcludeIn(MYSQL)
   public void delete() throws SQLException {
@@ -28,16 +28,25 @@ import com.querydsl.core.types.ExpressionUtils;
 import com.querydsl.core.types.Path;
 import com.querydsl.core.types.dsl.Expressions;
 import com.querydsl.core.types.dsl.Param;
+import com.querydsl.sql.dml.AbstractSQLLoadClause;
 import com.querydsl.sql.dml.DefaultMapper;
 import com.querydsl.sql.dml.Mapper;
 import com.querydsl.sql.dml.SQLInsertClause;
 import com.querydsl.sql.domain.*;
+import com.querydsl.sql.mysql.MySQLLoadDataClause;
+import com.querydsl.sql.postgresql.PostgreSQLCopyInsertClause;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Ignore;
@@ -155,6 +164,18 @@ public class InsertBase extends AbstractBaseTest {
     assertThat(query().from(survey).where(survey.name.eq("66")).fetchCount()).isEqualTo(1L);
   }
 
+  @Test
+  public void insert_batch_to_bulk_chunks() {
+    SQLInsertClause insert = insert(survey);
+    insert.setBatchToBulk(true);
+    for (int i = 5; i < 12; i++) {
+      insert.set(survey.id, i).set(survey.name, String.valueOf(i)).addBatch();
+    }
+
+    assertThat(insert.execute()).isEqualTo(7);
+    assertThat(query().from(survey).where(survey.id.between(5, 11)).fetchCount()).isEqualTo(7);
+  }
+
   @Test
   public void insert_batch_Templates() {
     SQLInsertClause insert =
@@ -180,6 +201,62 @@ public class InsertBase extends AbstractBaseTest {
     assertThat(insert.execute()).isEqualTo(2);
   }
 
+  @Test
+  public void insert_batch_shapes() {
+    AtomicInteger prepared = new AtomicInteger();
+    SQLInsertClause insert = insert(survey);
+    insert.addListener(
+        new SQLBaseListener() {
+          @Override
+          public void prepared(SQLListenerContext context) {
+            prepared.incrementAndGet();
+          }
+        });
+    insert.set(survey.id, 5).set(survey.name, "55").addBatch();
+    insert.set(survey.id, 6).setNull(survey.name).addBatch();
+    insert.set(survey.id, 7).set(survey.name, "77").addBatch();
+    insert.set(survey.id, 8).setNull(survey.name).addBatch();
+
+    Set<String> sql = new HashSet<>();
+    for (SQLBindings bindings : insert.getSQL()) {
+      sql.add(bindings.getSQL());
+    }
+
+    assertThat(insert.execute()).isEqualTo(4);
+    assertThat(prepared.get()).isEqualTo(sql.size());
+    assertThat(query().from(survey).where(survey.name.eq("77")).select(survey.id).fetch())
+        .containsExactly(7);
+    assertThat(query().from(survey).where(survey.id.in(6, 8), survey.name.isNull()).fetchCount())
+        .isEqualTo(2);
+  }
+
+  @Test
+  public void insert_batch_listener_order() {
+    RecordingListener listener = new RecordingListener();
+    SQLInsertClause insert = insert(survey);
+    insert.addListener(listener);
+    insert.set(survey.id, 5).set(survey.name, "55").addBatch();
+    insert.set(survey.id, 6).set(survey.name, "66").addBatch();
+
+    assertThat(insert.execute()).isEqualTo(2);
+    List<String> events =
+        new ArrayList<>(
+            Arrays.asList(
+                "start",
+                "preRender",
+                "prePrepare",
+                "prepared",
+                "rendered",
+                "preRender",
+                "rendered"));
+    if (configuration.getUseLiterals()) {
+      // each batch with literals is prepared as a statement of its own
+      events.addAll(Arrays.asList("prePrepare", "prepared"));
+    }
+    events.addAll(Arrays.asList("preExecute", "executed", "end"));
+    assertThat(listener.getEvents()).isEqualTo(events);
+  }
+
   @Test
   public void insert_null_with_columns() {
     assertThat(insert(survey).columns(survey.id, survey.name).values(3, null).execute())
@@ -271,6 +348,42 @@ public class InsertBase extends AbstractBaseTest {
     assertThat(result.get()).isTrue();
   }
 
+  @Test
+  @ExcludeIn({CUBRID, DERBY, SQLSERVER, SQLITE})
+  public void insert_batch_with_keys() {
+    SQLInsertClause insert = insert(survey);
+    insert.set(survey.name, "a").addBatch();
+    insert.set(survey.name, "b").set(survey.name2, "B").addBatch();
+    insert.set(survey.name, "c").addBatch();
+    insert.set(survey.name, "d").addBatch();
+
+    List<Integer> ids = insert.executeWithKeys(survey.id);
+    assertThat(ids).hasSize(4);
+    List<String> names = new ArrayList<>();
+    for (Integer id : ids) {
+      names.add(query().from(survey).where(survey.id.eq(id)).select(survey.name).fetchOne());
+    }
+    assertThat(names).containsExactly("a", "b", "c", "d");
+  }
+
+  @Test
+  @ExcludeIn({CUBRID, DERBY, SQLSERVER, SQLITE})
+  public void insert_batch_to_bulk_with_keys() {
+    SQLInsertClause insert = insert(survey);
+    insert.setBatchToBulk(true);
+    for (String name : Arrays.asList("a", "b", "c")) {
+      insert.set(survey.name, name).addBatch();
+    }
+
+    List<Integer> ids = insert.executeWithKeys(survey.id);
+    assertThat(ids).hasSize(3);
+    List<String> names = new ArrayList<>();
+    for (Integer id : ids) {
+      names.add(query().from(survey).where(survey.id.eq(id)).select(survey.name).fetchOne());
+    }
+    assertThat(names).containsExactly("a", "b", "c");
+  }
+
   @Test
   @ExcludeIn({CUBRID, SQLSERVER, SQLITE})
   public void insert_with_keys_Projected() throws SQLException {
@@ -486,6 +599,21 @@ public class InsertBase extends AbstractBaseTest {
         .isEqualTo(1);
   }
 
+  @Test
+  @IncludeIn({MYSQL, POSTGRESQL})
+  public void load() {
+    AbstractSQLLoadClause<?> load =
+        target == POSTGRESQL
+            ? new PostgreSQLCopyInsertClause(connection, configuration, survey)
+            : new MySQLLoadDataClause(connection, configuration, survey);
+    load.set(survey.id, 2).set(survey.name, "Tab\tbed").addBatch();
+    load.set(survey.id, 3).setNull(survey.name).addBatch();
+
+    assertThat(load.execute()).isEqualTo(2);
+    assertThat(query().from(survey).where(survey.name.eq("Tab\tbed")).fetchCount()).isEqualTo(1);
+    assertThat(query().from(survey).where(survey.name.isNull()).fetchCount()).isEqualTo(1);
+  }
+
   @Test
   @IncludeIn({H2, POSTGRESQL})
   @SkipForQuoted
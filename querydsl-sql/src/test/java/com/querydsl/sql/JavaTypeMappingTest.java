@@ -18,6 +18,13 @@ import static org.assertj.core.api.Assertions.assertThat;
 import com.querydsl.sql.types.*;
 import java.io.FileInputStream;
 import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.junit.Test;
 
 public class JavaTypeMappingTest {
@@ -31,6 +38,42 @@ public class JavaTypeMappingTest {
     assertThat(typeMapping.getType(FileInputStream.class)).isNotNull();
   }
 
+  @Test
+  public void getType_after_register() {
+    assertThat(typeMapping.getType(InputStream.class).getClass()).isEqualTo(ObjectType.class);
+    typeMapping.register(new InputStreamType());
+    assertThat(typeMapping.getType(InputStream.class).getClass()).isEqualTo(InputStreamType.class);
+  }
+
+  @Test
+  public void getType_concurrently() throws Exception {
+    Class<?>[] classes = {String.class, Integer.class, Long.class, BigDecimal.class, int.class};
+    Class<?>[] types = {
+      StringType.class, IntegerType.class, LongType.class, BigDecimalType.class, IntegerType.class
+    };
+    ExecutorService executor = Executors.newFixedThreadPool(32);
+    try {
+      List<Callable<Boolean>> tasks = new ArrayList<>();
+      for (int i = 0; i < 32; i++) {
+        tasks.add(
+            () -> {
+              for (int j = 0; j < 10000; j++) {
+                int k = j % classes.length;
+                if (typeMapping.getType(classes[k]).getClass() != types[k]) {
+                  return false;
+                }
+              }
+              return true;
+            });
+      }
+      for (Future<Boolean> result : executor.invokeAll(tasks)) {
+        assertThat(result.get()).isTrue();
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
   @Test
   public void getType_with_interfaces() {
     assertThat(typeMapping.getType(DummyBlob.class).getClass()).isEqualTo(BlobType.class);
@@ -27,6 +27,9 @@ import com.querydsl.sql.dml.SQLMergeClause;
 import com.querydsl.sql.domain.QSurvey;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.After;
@@ -110,6 +113,26 @@ public class MergeBase extends AbstractBaseTest {
         .isEqualTo(1);
   }
 
+  @Test
+  @IncludeIn(H2)
+  public void merge_batch_listener_order() {
+    RecordingListener listener = new RecordingListener();
+    SQLMergeClause merge = merge(survey);
+    merge.addListener(listener);
+    merge.keys(survey.id).set(survey.id, 5).set(survey.name, "5").addBatch();
+    merge.keys(survey.id).set(survey.id, 6).set(survey.name, "6").addBatch();
+
+    assertThat(merge.execute()).isEqualTo(2);
+    List<String> events =
+        new ArrayList<>(Arrays.asList("start", "preRender", "rendered", "prePrepare", "prepared"));
+    if (configuration.getUseLiterals()) {
+      // each batch with literals is prepared as a statement of its own
+      events.addAll(Arrays.asList("prePrepare", "prepared"));
+    }
+    events.addAll(Arrays.asList("preExecute", "executed", "end"));
+    assertThat(listener.getEvents()).isEqualTo(events);
+  }
+
   @Test
   public void merge_with_keys_columns_and_values() {
     // keys + columns + values
@@ -190,6 +213,84 @@ public class MergeBase extends AbstractBaseTest {
     assertThat(query().from(survey).where(survey.name.eq("6")).fetchCount()).isEqualTo(1L);
   }
 
+  @Test
+  public void mergeBatch_existing_and_new() {
+    final AtomicInteger executions = new AtomicInteger(0);
+    SQLMergeClause merge = merge(survey);
+    merge.addListener(
+        new SQLBaseListener() {
+          @Override
+          public void executed(SQLListenerContext context) {
+            executions.incrementAndGet();
+          }
+        });
+    merge.keys(survey.id).set(survey.id, 1).set(survey.name, "updated").addBatch();
+    merge.keys(survey.id).set(survey.id, 5).set(survey.name, "5").addBatch();
+    merge.keys(survey.id).set(survey.id, 5).set(survey.name, "5b").addBatch();
+    merge.keys(survey.id).set(survey.id, 6).set(survey.name, "6").addBatch();
+
+    assertThat(merge.execute()).isEqualTo(4);
+    if (!configuration.getTemplates().isNativeMerge()) {
+      // one lookup of the existing keys, one batch insert and one batch update
+      assertThat(executions.intValue()).isEqualTo(3);
+    }
+
+    assertThat(query().from(survey).where(survey.name.eq("updated")).fetchCount()).isEqualTo(1L);
+    assertThat(query().from(survey).where(survey.name.eq("5b")).fetchCount()).isEqualTo(1L);
+    assertThat(query().from(survey).where(survey.name.eq("6")).fetchCount()).isEqualTo(1L);
+    assertThat(query().from(survey).where(survey.id.in(5, 6)).fetchCount()).isEqualTo(2L);
+  }
+
+  @Test
+  public void mergeBatch_string_keys() {
+    final AtomicInteger executions = new AtomicInteger(0);
+    SQLMergeClause merge = merge(survey);
+    merge.addListener(
+        new SQLBaseListener() {
+          @Override
+          public void executed(SQLListenerContext context) {
+            executions.incrementAndGet();
+          }
+        });
+    merge
+        .keys(survey.name)
+        .set(survey.id, 1)
+        .set(survey.name, "Hello World")
+        .set(survey.name2, "updated")
+        .addBatch();
+    merge
+        .keys(survey.name)
+        .set(survey.id, 5)
+        .set(survey.name, "5")
+        .set(survey.name2, "5")
+        .addBatch();
+
+    assertThat(merge.execute()).isEqualTo(2);
+    if (!configuration.getTemplates().isNativeMerge()) {
+      // strings are compared by the collation of the column, so each row is looked up on its own
+      assertThat(executions.intValue()).isEqualTo(4);
+    }
+
+    assertThat(query().from(survey).where(survey.name2.eq("updated")).fetchCount()).isEqualTo(1L);
+    assertThat(query().from(survey).where(survey.name.eq("5")).fetchCount()).isEqualTo(1L);
+  }
+
+  @Test
+  @IncludeIn(H2)
+  public void mergeBatch_bulk() {
+    SQLMergeClause merge = merge(survey);
+    merge.setBatchToBulk(true);
+    merge.keys(survey.id).set(survey.id, 1).set(survey.name, "updated").addBatch();
+    merge.keys(survey.id).set(survey.id, 5).set(survey.name, "5").addBatch();
+    merge.keys(survey.id).set(survey.id, 6).set(survey.name, "6").addBatch();
+
+    assertThat(merge.getSQL()).hasSize(2);
+    assertThat(merge.execute()).isEqualTo(3);
+
+    assertThat(query().from(survey).where(survey.name.eq("updated")).fetchCount()).isEqualTo(1L);
+    assertThat(query().from(survey).where(survey.id.in(5, 6)).fetchCount()).isEqualTo(2L);
+  }
+
   @Test
   @IncludeIn(H2)
   public void mergeBatch_templates() {
@@ -0,0 +1,59 @@
+package com.querydsl.sql;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** Records the names of the detailed callbacks in the order of invocation */
+public class RecordingListener extends SQLBaseListener {
+
+  private final List<String> events = new ArrayList<>();
+
+  public List<String> getEvents() {
+    return events;
+  }
+
+  @Override
+  public void start(SQLListenerContext context) {
+    events.add("start");
+  }
+
+  @Override
+  public void preRender(SQLListenerContext context) {
+    events.add("preRender");
+  }
+
+  @Override
+  public void rendered(SQLListenerContext context) {
+    events.add("rendered");
+  }
+
+  @Override
+  public void prePrepare(SQLListenerContext context) {
+    events.add("prePrepare");
+  }
+
+  @Override
+  public void prepared(SQLListenerContext context) {
+    events.add("prepared");
+  }
+
+  @Override
+  public void preExecute(SQLListenerContext context) {
+    events.add("preExecute");
+  }
+
+  @Override
+  public void executed(SQLListenerContext context) {
+    events.add("executed");
+  }
+
+  @Override
+  public void exception(SQLListenerContext context) {
+    events.add("exception");
+  }
+
+  @Override
+  public void end(SQLListenerContext context) {
+    events.add("end");
+  }
+}
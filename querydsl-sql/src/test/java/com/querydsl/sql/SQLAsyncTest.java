@@ -0,0 +1,131 @@
+package com.querydsl.sql;
+
+import static com.querydsl.sql.Constants.employee;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.querydsl.core.NonUniqueResultException;
+import com.querydsl.core.testutil.H2;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(H2.class)
+public class SQLAsyncTest {
+
+  private final Map<SQLListenerContext, Thread> started = new ConcurrentHashMap<>();
+
+  private final List<SQLListenerContext> ended = new CopyOnWriteArrayList<>();
+
+  private final AtomicInteger executions = new AtomicInteger();
+
+  private SQLQueryFactory queryFactory;
+
+  @Before
+  public void setUp() throws SQLException, ClassNotFoundException {
+    Connections.initH2();
+    Configuration conf = new Configuration(H2Templates.DEFAULT);
+    conf.addListener(
+        new SQLBaseListener() {
+          @Override
+          public void start(SQLListenerContext context) {
+            started.put(context, Thread.currentThread());
+          }
+
+          @Override
+          public void end(SQLListenerContext context) {
+            ended.add(context);
+          }
+        });
+    conf.setExecutor(
+        command -> {
+          executions.incrementAndGet();
+          new Thread(command).start();
+        });
+    Connection connection = Connections.getConnection();
+    queryFactory = new SQLQueryFactory(conf, () -> connection);
+  }
+
+  @After
+  public void tearDown() throws SQLException {
+    Connections.close();
+  }
+
+  @Test
+  public void fetchAsync() throws Exception {
+    List<Integer> ids =
+        queryFactory
+            .select(employee.id)
+            .from(employee)
+            .orderBy(employee.id.asc())
+            .fetchAsync()
+            .get(10, TimeUnit.SECONDS);
+
+    assertThat(ids)
+        .isEqualTo(
+            queryFactory.select(employee.id).from(employee).orderBy(employee.id.asc()).fetch());
+    assertThat(executions.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void fetchAsync_context() throws Exception {
+    queryFactory.select(employee.id).from(employee).fetchAsync().get(10, TimeUnit.SECONDS);
+
+    assertThat(ended).hasSize(2);
+    SQLListenerContext child = ended.get(0);
+    SQLListenerContext parent = ended.get(1);
+    assertThat(child.getData(AbstractSQLQuery.PARENT_CONTEXT)).isSameAs(parent);
+    assertThat(child.getSQL()).isNotNull();
+    assertThat(parent.getConnection()).isSameAs(child.getConnection());
+    assertThat(started.get(parent)).isSameAs(Thread.currentThread());
+    assertThat(started.get(child)).isNotSameAs(Thread.currentThread());
+  }
+
+  @Test
+  public void fetchOneAsync() throws Exception {
+    assertThat(
+            queryFactory
+                .select(employee.firstname)
+                .from(employee)
+                .where(employee.id.eq(1))
+                .fetchOneAsync()
+                .get(10, TimeUnit.SECONDS))
+        .isEqualTo("Mike");
+  }
+
+  @Test
+  public void fetchOneAsync_nonUnique() throws Exception {
+    try {
+      queryFactory.select(employee.id).from(employee).fetchOneAsync().get(10, TimeUnit.SECONDS);
+      throw new AssertionError("Expected failure");
+    } catch (ExecutionException e) {
+      assertThat(e.getCause()).isInstanceOf(NonUniqueResultException.class);
+    }
+    assertThat(ended).hasSize(2);
+    assertThat(ended.get(1).getException()).isInstanceOf(NonUniqueResultException.class);
+  }
+
+  @Test
+  public void executeAsync() throws Exception {
+    long count =
+        queryFactory
+            .update(employee)
+            .set(employee.firstname, employee.firstname)
+            .where(employee.id.eq(1))
+            .executeAsync()
+            .get(10, TimeUnit.SECONDS);
+
+    assertThat(count).isEqualTo(1);
+    assertThat(ended).hasSize(2);
+    assertThat(ended.get(0).getData(AbstractSQLQuery.PARENT_CONTEXT)).isSameAs(ended.get(1));
+  }
+}
@@ -1,12 +1,20 @@
 package com.querydsl.sql;
 
 import static com.querydsl.sql.Constants.employee;
+import static com.querydsl.sql.Constants.survey;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import com.mysema.commons.lang.CloseableIterator;
+import com.querydsl.core.QueryException;
 import com.querydsl.core.testutil.H2;
+import com.querydsl.sql.dml.SQLMergeClause;
 import com.querydsl.sql.domain.Employee;
+import java.sql.Connection;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -15,6 +23,10 @@ import org.junit.experimental.categories.Category;
 @Category(H2.class)
 public class SQLCloseListenerTest {
 
+  private final List<Connection> connections = new ArrayList<>();
+
+  private int openContexts;
+
   private SQLQuery<Employee> query;
 
   @Before
@@ -27,9 +39,51 @@ public class SQLCloseListenerTest {
 
   @After
   public void tearDown() throws SQLException {
+    try (Connection connection = Connections.getH2();
+        Statement stmt = connection.createStatement()) {
+      stmt.execute("delete from SURVEY where ID > 1");
+      stmt.execute("update SURVEY set NAME = 'Hello World' where ID = 1");
+    } catch (ClassNotFoundException e) {
+      throw new SQLException(e);
+    }
     Connections.close();
   }
 
+  private SQLQueryFactory compositeMergeFactory() {
+    // merges are executed as selects, inserts and updates without native merge support
+    Configuration conf = new Configuration(PostgreSQLTemplates.DEFAULT);
+    conf.addListener(SQLCloseListener.DEFAULT);
+    conf.addListener(
+        new SQLBaseListener() {
+          @Override
+          public void start(SQLListenerContext context) {
+            openContexts++;
+          }
+
+          @Override
+          public void end(SQLListenerContext context) {
+            openContexts--;
+          }
+        });
+    return new SQLQueryFactory(
+        conf,
+        () -> {
+          try {
+            Connection connection = Connections.getH2();
+            connections.add(connection);
+            return connection;
+          } catch (SQLException | ClassNotFoundException e) {
+            throw new QueryException(e);
+          }
+        });
+  }
+
+  private void assertClosed() throws SQLException {
+    assertThat(connections).hasSize(1);
+    assertThat(connections.get(0).isClosed()).isTrue();
+    assertThat(openContexts).isEqualTo(0);
+  }
+
   @Test
   public void fetch() {
     assertThat(query.fetch()).isNotEmpty();
@@ -58,4 +112,54 @@ public class SQLCloseListenerTest {
       }
     }
   }
+
+  @Test
+  public void merge() throws SQLException {
+    SQLQueryFactory queryFactory = compositeMergeFactory();
+    assertThat(
+            queryFactory
+                .merge(survey)
+                .keys(survey.id)
+                .set(survey.id, 1)
+                .set(survey.name, "A")
+                .execute())
+        .isEqualTo(1);
+    assertClosed();
+  }
+
+  @Test
+  public void merge_batch() throws SQLException {
+    SQLQueryFactory queryFactory = compositeMergeFactory();
+    SQLMergeClause merge = queryFactory.merge(survey).keys(survey.id);
+    merge.set(survey.id, 100).set(survey.name, "A").addBatch();
+    merge.set(survey.id, 1).set(survey.name, "B").addBatch();
+    merge.set(survey.id, 101).set(survey.name, "C").addBatch();
+    assertThat(merge.execute()).isEqualTo(3);
+    assertClosed();
+
+    assertThat(
+            queryFactory
+                .select(survey.name)
+                .from(survey)
+                .where(survey.id.in(1, 100, 101))
+                .orderBy(survey.id.asc())
+                .fetch())
+        .containsExactly("B", "A", "C");
+  }
+
+  @Test
+  public void merge_withKeys() throws SQLException {
+    SQLQueryFactory queryFactory = compositeMergeFactory();
+    try (ResultSet rs =
+        queryFactory
+            .merge(survey)
+            .keys(survey.id)
+            .set(survey.id, 100)
+            .set(survey.name, "A")
+            .executeWithKeys()) {
+      assertThat(rs.next()).isTrue();
+      assertThat(connections.get(0).isClosed()).isFalse();
+    }
+    assertClosed();
+  }
 }
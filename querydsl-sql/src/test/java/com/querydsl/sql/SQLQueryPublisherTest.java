@@ -0,0 +1,163 @@
+package com.querydsl.sql;
+
+import static com.querydsl.sql.Constants.employee;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.querydsl.core.testutil.H2;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(H2.class)
+public class SQLQueryPublisherTest {
+
+  private static class TestSubscriber implements Flow.Subscriber<Integer> {
+
+    private final long initialRequest;
+
+    private final List<Integer> items = new CopyOnWriteArrayList<>();
+
+    private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+    private volatile Flow.Subscription subscription;
+
+    TestSubscriber(long initialRequest) {
+      this.initialRequest = initialRequest;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+      this.subscription = subscription;
+      subscription.request(initialRequest);
+    }
+
+    @Override
+    public void onNext(Integer item) {
+      items.add(item);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      done.completeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+      done.complete(null);
+    }
+  }
+
+  private final List<PreparedStatement> statements = new CopyOnWriteArrayList<>();
+
+  private final CountDownLatch ended = new CountDownLatch(1);
+
+  private SQLQuery<Integer> query;
+
+  @Before
+  public void setUp() throws SQLException, ClassNotFoundException {
+    Connections.initH2();
+    Configuration conf = new Configuration(H2Templates.DEFAULT);
+    conf.addListener(
+        new SQLBaseListener() {
+          @Override
+          public void prepared(SQLListenerContext context) {
+            statements.add(context.getPreparedStatement());
+          }
+
+          @Override
+          public void end(SQLListenerContext context) {
+            ended.countDown();
+          }
+        });
+    query =
+        new SQLQuery<Void>(Connections.getConnection(), conf)
+            .select(employee.id)
+            .from(employee)
+            .orderBy(employee.id.asc());
+  }
+
+  @After
+  public void tearDown() throws SQLException {
+    Connections.close();
+  }
+
+  private List<Integer> expected() {
+    return new SQLQuery<Void>(Connections.getConnection(), H2Templates.DEFAULT)
+        .select(employee.id)
+        .from(employee)
+        .orderBy(employee.id.asc())
+        .fetch();
+  }
+
+  @Test
+  public void request_all() throws Exception {
+    List<Integer> expected = expected();
+    TestSubscriber subscriber = new TestSubscriber(Long.MAX_VALUE);
+    query.publish().subscribe(subscriber);
+
+    subscriber.done.get(10, TimeUnit.SECONDS);
+    assertThat(subscriber.items).isEqualTo(expected);
+    assertThat(ended.await(10, TimeUnit.SECONDS)).isTrue();
+  }
+
+  @Test
+  public void request_one_by_one() throws Exception {
+    List<Integer> expected = expected();
+    TestSubscriber subscriber =
+        new TestSubscriber(1) {
+          @Override
+          public void onNext(Integer item) {
+            super.onNext(item);
+            super.subscription.request(1);
+          }
+        };
+    query.publish().subscribe(subscriber);
+
+    subscriber.done.get(10, TimeUnit.SECONDS);
+    assertThat(subscriber.items).isEqualTo(expected);
+  }
+
+  @Test
+  public void no_demand() throws Exception {
+    CountDownLatch received = new CountDownLatch(2);
+    TestSubscriber subscriber =
+        new TestSubscriber(2) {
+          @Override
+          public void onNext(Integer item) {
+            super.onNext(item);
+            received.countDown();
+          }
+        };
+    query.publish().subscribe(subscriber);
+
+    assertThat(received.await(10, TimeUnit.SECONDS)).isTrue();
+    assertThat(subscriber.done).isNotDone();
+
+    subscriber.subscription.cancel();
+    assertThat(ended.await(10, TimeUnit.SECONDS)).isTrue();
+    assertThat(subscriber.items).hasSize(2);
+    assertThat(statements).hasSize(1);
+    assertThat(statements.get(0).isClosed()).isTrue();
+    assertThat(subscriber.done).isNotDone();
+  }
+
+  @Test
+  public void invalid_request() throws Exception {
+    TestSubscriber subscriber = new TestSubscriber(0);
+    query.publish().subscribe(subscriber);
+
+    assertThat(subscriber.done)
+        .failsWithin(10, TimeUnit.SECONDS)
+        .withThrowableOfType(Exception.class)
+        .withCauseInstanceOf(IllegalArgumentException.class);
+  }
+}
@@ -1,13 +1,101 @@
 package com.querydsl.sql;
 
+import static com.querydsl.sql.Constants.employee;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.querydsl.core.types.PathMetadataFactory;
+import com.querydsl.core.types.dsl.NumberPath;
 import com.querydsl.sql.domain.QSurvey;
 import org.junit.Test;
 
 public class SQLQueryTest {
 
+  public static class QPage extends RelationalPathBase<QPage> {
+
+    public final NumberPath<Integer> a = createNumber("a", Integer.class);
+
+    public final NumberPath<Integer> b = createNumber("b", Integer.class);
+
+    public QPage(String path) {
+      super(QPage.class, PathMetadataFactory.forVariable(path), "", "PAGE");
+      addMetadata(a, ColumnMetadata.named("A").notNull());
+      addMetadata(b, ColumnMetadata.named("B").notNull());
+    }
+  }
+
   @Test(expected = IllegalStateException.class)
   public void noConnection() {
     QSurvey survey = QSurvey.survey;
     SQLExpressions.select(survey.id).from(survey).fetch();
   }
+
+  @Test
+  public void seek() {
+    SQLQuery<?> query = new SQLQuery<Void>(H2Templates.DEFAULT);
+    query.from(employee).orderBy(employee.lastname.asc(), employee.id.asc()).seek("Smith", 5);
+    assertThat(query.toString())
+        .isEqualTo(
+            "from EMPLOYEE e\n"
+                + "where e.LASTNAME > ? or e.LASTNAME = ? and e.ID > ?\n"
+                + "order by e.LASTNAME asc, e.ID asc");
+  }
+
+  @Test
+  public void seek_nulls_sorted_high() {
+    SQLQuery<?> query = new SQLQuery<Void>(PostgreSQLTemplates.DEFAULT);
+    query.from(employee).orderBy(employee.superiorId.asc(), employee.id.desc()).seek(1, 5);
+    assertThat(query.toString())
+        .contains(
+            "where e.SUPERIOR_ID > ? or e.SUPERIOR_ID is null or e.SUPERIOR_ID = ? and e.ID < ?");
+  }
+
+  @Test
+  public void seek_nulls_sorted_at_start() {
+    SQLQuery<?> query = new SQLQuery<Void>(HSQLDBTemplates.DEFAULT);
+    query.from(employee).orderBy(employee.superiorId.desc(), employee.id.desc()).seek(1, 5);
+    assertThat(query.toString())
+        .contains("where e.SUPERIOR_ID < ? or e.SUPERIOR_ID = ? and e.ID < ?");
+  }
+
+  @Test
+  public void seek_primary_key() {
+    SQLQuery<?> query = new SQLQuery<Void>(H2Templates.DEFAULT);
+    query.from(employee).orderBy(employee.lastname.desc(), employee.id.desc()).seek("Smith", 5);
+    assertThat(query.toString())
+        .contains("where e.LASTNAME < ? or e.LASTNAME is null or e.LASTNAME = ? and e.ID < ?");
+  }
+
+  @Test
+  public void seek_null_value() {
+    SQLQuery<?> query = new SQLQuery<Void>(H2Templates.DEFAULT);
+    query.from(employee).orderBy(employee.superiorId.asc().nullsLast()).seek((Object) null);
+    assertThat(query.toString()).contains("where 1 = 2");
+
+    query = new SQLQuery<Void>(H2Templates.DEFAULT);
+    query.from(employee).orderBy(employee.superiorId.asc(), employee.id.asc()).seek(null, 5);
+    assertThat(query.toString())
+        .contains("where e.SUPERIOR_ID is not null or e.SUPERIOR_ID is null and e.ID > ?");
+  }
+
+  @Test
+  public void seek_row_value() {
+    QPage page = new QPage("p");
+    SQLQuery<?> query = new SQLQuery<Void>(H2Templates.DEFAULT);
+    query.from(page).orderBy(page.a.desc(), page.b.desc()).seek(1, 2);
+    assertThat(query.toString()).contains("where (p.A, p.B) < (?, ?)");
+
+    query = new SQLQuery<Void>(OracleTemplates.DEFAULT);
+    query.from(page).orderBy(page.a.desc(), page.b.desc()).seek(1, 2);
+    assertThat(query.toString()).contains("where p.A < ? or p.A = ? and p.B < ?");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void seek_wrong_size() {
+    new SQLQuery<Void>(H2Templates.DEFAULT).from(employee).orderBy(employee.id.asc()).seek(1, 2);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void seek_without_order() {
+    new SQLQuery<Void>(H2Templates.DEFAULT).from(employee).seek(1);
+  }
 }
@@ -0,0 +1,199 @@
+package com.querydsl.sql;
+
+import static com.querydsl.sql.Constants.employee;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.querydsl.core.testutil.H2;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(H2.class)
+public class SQLSerializationCacheTest {
+
+  private Configuration conf;
+
+  private SQLSerializationCache cache;
+
+  private final List<Object> hits = new ArrayList<>();
+
+  @Before
+  public void setUp() throws SQLException, ClassNotFoundException {
+    Connections.initH2();
+    conf = new Configuration(H2Templates.DEFAULT);
+    cache = new SQLSerializationCache(16);
+    conf.setSerializationCache(cache);
+    conf.addListener(
+        new SQLBaseListener() {
+          @Override
+          public void rendered(SQLListenerContext context) {
+            hits.add(context.getData(SQLSerializationCache.CACHE_HIT));
+          }
+        });
+  }
+
+  @After
+  public void tearDown() throws SQLException {
+    Connections.close();
+  }
+
+  private SQLQuery<?> query() {
+    return new SQLQuery<Void>(Connections.getConnection(), conf);
+  }
+
+  @Test
+  public void same_shape_different_constants() {
+    assertThat(query().select(employee.id).from(employee).where(employee.id.eq(1)).fetch())
+        .containsExactly(1);
+    assertThat(query().select(employee.id).from(employee).where(employee.id.eq(2)).fetch())
+        .containsExactly(2);
+    assertThat(hits).containsExactly(false, true);
+    assertThat(cache.getMissCount()).isEqualTo(1);
+    assertThat(cache.getHitCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void getSQL() {
+    SQLBindings first =
+        query().select(employee.id).from(employee).where(employee.firstname.eq("Mike")).getSQL();
+    SQLBindings second =
+        query().select(employee.id).from(employee).where(employee.firstname.eq("Mary")).getSQL();
+    assertThat(second.getSQL()).isEqualTo(first.getSQL());
+    assertThat(first.getNullFriendlyBindings()).containsExactly("Mike");
+    assertThat(second.getNullFriendlyBindings()).containsExactly("Mary");
+    assertThat(cache.getHitCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void different_shapes() {
+    query().select(employee.id).from(employee).where(employee.id.eq(1)).fetch();
+    query().select(employee.id).from(employee).where(employee.id.ne(1)).fetch();
+    query().select(employee.id).from(employee).where(employee.id.eq(1)).limit(1).fetch();
+    assertThat(hits).containsExactly(false, false, false);
+    assertThat(cache.size()).isEqualTo(3);
+  }
+
+  @Test
+  public void in_lists_of_different_sizes() {
+    assertThat(query().select(employee.id).from(employee).where(employee.id.in(1, 2)).fetch())
+        .containsExactlyInAnyOrder(1, 2);
+    assertThat(query().select(employee.id).from(employee).where(employee.id.in(1, 2, 10)).fetch())
+        .containsExactlyInAnyOrder(1, 2, 10);
+    assertThat(query().select(employee.id).from(employee).where(employee.id.in(10, 11)).fetch())
+        .containsExactlyInAnyOrder(10, 11);
+    assertThat(hits).containsExactly(false, false, true);
+  }
+
+  @Test
+  public void in_lists_padded() {
+    conf.setInListPadding(true);
+    SQLBindings first =
+        query().select(employee.id).from(employee).where(employee.id.in(1, 2, 10)).getSQL();
+    assertThat(query().select(employee.id).from(employee).where(employee.id.in(1, 2, 10)).fetch())
+        .containsExactlyInAnyOrder(1, 2, 10);
+    assertThat(query().select(employee.id).from(employee).where(employee.id.in(11, 12, 1)).fetch())
+        .containsExactlyInAnyOrder(1, 11, 12);
+    SQLBindings second =
+        query().select(employee.id).from(employee).where(employee.id.in(1, 2, 10, 11)).getSQL();
+    assertThat(second.getSQL()).isEqualTo(first.getSQL());
+    assertThat(first.getNullFriendlyBindings()).containsExactly(1, 2, 10, 10);
+    assertThat(hits).containsExactly(true, true);
+  }
+
+  @Test
+  public void in_lists_as_arrays() {
+    conf.setInListArrayThreshold(3);
+    assertThat(query().select(employee.id).from(employee).where(employee.id.in(1, 2, 10)).fetch())
+        .containsExactlyInAnyOrder(1, 2, 10);
+    assertThat(query().select(employee.id).from(employee).where(employee.id.in(11, 12, 1)).fetch())
+        .containsExactlyInAnyOrder(1, 11, 12);
+    SQLBindings bindings =
+        query().select(employee.id).from(employee).where(employee.id.in(1, 2, 10)).getSQL();
+    assertThat(bindings.getSQL()).contains("e.ID = any(?)");
+    assertThat(bindings.getNullFriendlyBindings()).hasSize(1);
+    assertThat((Integer[]) bindings.getNullFriendlyBindings().get(0)).containsExactly(1, 2, 10);
+    assertThat(hits).containsExactly(false, true);
+  }
+
+  @Test
+  public void like_values_are_compared() {
+    assertThat(
+            query()
+                .select(employee.id)
+                .from(employee)
+                .where(employee.firstname.startsWith("Mik"))
+                .fetch())
+        .containsExactly(1);
+    assertThat(
+            query()
+                .select(employee.id)
+                .from(employee)
+                .where(employee.firstname.startsWith("Mar"))
+                .fetch())
+        .containsExactly(2);
+    assertThat(
+            query()
+                .select(employee.id)
+                .from(employee)
+                .where(employee.firstname.startsWith("Mar"))
+                .fetch())
+        .containsExactly(2);
+    assertThat(hits).containsExactly(false, false, true);
+  }
+
+  @Test
+  public void count() {
+    assertThat(query().from(employee).where(employee.id.eq(1)).fetchCount()).isEqualTo(1);
+    assertThat(query().from(employee).where(employee.id.in(Arrays.asList(1, 2))).fetchCount())
+        .isEqualTo(2);
+    assertThat(query().from(employee).where(employee.id.in(Arrays.asList(10, 11))).fetchCount())
+        .isEqualTo(2);
+    assertThat(cache.getHitCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void disabled_per_query() {
+    SQLQuery<?> query = query();
+    query.setUseSerializationCache(false);
+    query.select(employee.id).from(employee).where(employee.id.eq(1)).fetch();
+    assertThat(hits).containsExactly((Object) null);
+    assertThat(cache.getMissCount()).isZero();
+  }
+
+  @Test
+  public void bypassed_for_literals() {
+    SQLQuery<?> query = query();
+    query.setUseLiterals(true);
+    query.select(employee.id).from(employee).where(employee.id.eq(1)).fetch();
+    assertThat(cache.getMissCount()).isZero();
+    assertThat(cache.size()).isZero();
+  }
+
+  @Test
+  public void eviction() {
+    conf.setSerializationCache(new SQLSerializationCache(1));
+    query().select(employee.id).from(employee).where(employee.id.eq(1)).fetch();
+    query().select(employee.id).from(employee).where(employee.id.ne(1)).fetch();
+    query().select(employee.id).from(employee).where(employee.id.eq(2)).fetch();
+    assertThat(conf.getSerializationCache().size()).isEqualTo(1);
+    assertThat(hits).containsExactly(false, false, false);
+  }
+
+  @Test
+  public void cleared_on_configuration_change() {
+    query().select(employee.id).from(employee).where(employee.id.eq(1)).fetch();
+    assertThat(cache.size()).isEqualTo(1);
+    conf.registerTableOverride("EMPLOYEE", "EMPLOYEE");
+    assertThat(cache.size()).isZero();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void invalid_size() {
+    new SQLSerializationCache(0);
+  }
+}
@@ -47,6 +47,66 @@ public class SQLSerializerTest {
     assertThat(serializer.toString()).isEqualTo("count(EMPLOYEE.ID) + count(distinct EMPLOYEE.ID)");
   }
 
+  @Test
+  public void in_padding() {
+    Configuration conf = new Configuration(new H2Templates());
+    conf.setInListPadding(true);
+    SQLSerializer serializer = new SQLSerializer(conf);
+    serializer.handle(employee.id.in(1, 2, 3).and(employee.firstname.notIn("a", "b")));
+    assertThat(serializer.toString())
+        .isEqualTo("EMPLOYEE.ID in (?, ?, ?, ?) and EMPLOYEE.FIRSTNAME not in (?, ?)");
+    assertThat(serializer.getConstants()).containsExactly(1, 2, 3, 3, "a", "b");
+    assertThat(serializer.getConstantPaths())
+        .containsExactly(
+            employee.id,
+            employee.id,
+            employee.id,
+            employee.id,
+            employee.firstname,
+            employee.firstname);
+  }
+
+  @Test
+  public void in_padding_listMaxSize() {
+    Configuration conf = new Configuration(new OracleTemplates());
+    conf.setInListPadding(true);
+    List<Integer> ids = new ArrayList<>();
+    for (int i = 0; i < 1200; i++) {
+      ids.add(i);
+    }
+    SQLSerializer serializer = new SQLSerializer(conf);
+    serializer.handle(employee.id.in(ids.subList(0, 600)));
+    assertThat(serializer.getConstants()).hasSize(1000);
+
+    serializer = new SQLSerializer(conf);
+    serializer.handle(employee.id.in(ids));
+    assertThat(serializer.getConstants()).hasSize(2000);
+    assertThat(serializer.getConstants().get(1999)).isEqualTo(1199);
+  }
+
+  @Test
+  public void in_array() {
+    Configuration conf = new Configuration(new H2Templates());
+    conf.setInListArrayThreshold(3);
+    SQLSerializer serializer = new SQLSerializer(conf);
+    serializer.handle(
+        employee.id.in(1, 2, 3).and(employee.id.notIn(4, 5, 6)).and(employee.id.in(7, 8)));
+    assertThat(serializer.toString())
+        .isEqualTo("EMPLOYEE.ID = any(?) and EMPLOYEE.ID <> all(?) and EMPLOYEE.ID in (?, ?)");
+    assertThat(serializer.getConstants()).hasSize(4);
+    assertThat((Integer[]) serializer.getConstants().get(0)).containsExactly(1, 2, 3);
+    assertThat(serializer.getConstantPaths()).containsExactly(null, null, employee.id, employee.id);
+  }
+
+  @Test
+  public void in_array_not_supported() {
+    Configuration conf = new Configuration(new MySQLTemplates());
+    conf.setInListArrayThreshold(1);
+    SQLSerializer serializer = new SQLSerializer(conf);
+    serializer.handle(employee.id.in(1, 2, 3));
+    assertThat(serializer.toString()).isEqualTo("EMPLOYEE.ID in (?, ?, ?)");
+  }
+
   @Test
   public void countDistinct() {
     SQLSerializer serializer = new SQLSerializer(Configuration.DEFAULT);
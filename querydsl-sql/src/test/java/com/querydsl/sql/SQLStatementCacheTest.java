@@ -0,0 +1,155 @@
+package com.querydsl.sql;
+
+import static com.querydsl.sql.Constants.employee;
+import static com.querydsl.sql.Constants.survey;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.mysema.commons.lang.CloseableIterator;
+import com.querydsl.core.testutil.H2;
+import com.querydsl.sql.dml.SQLUpdateClause;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(H2.class)
+public class SQLStatementCacheTest {
+
+  private Configuration conf;
+
+  private SQLStatementCache cache;
+
+  @Before
+  public void setUp() throws SQLException, ClassNotFoundException {
+    Connections.initH2();
+    conf = new Configuration(H2Templates.DEFAULT);
+    cache = new SQLStatementCache(2);
+    conf.setStatementCache(cache);
+  }
+
+  @After
+  public void tearDown() throws SQLException {
+    cache.clear();
+    Connections.close();
+  }
+
+  private SQLQuery<?> query() {
+    return new SQLQuery<Void>(Connections.getConnection(), conf);
+  }
+
+  @Test
+  public void statements_are_reused() {
+    assertThat(query().select(employee.id).from(employee).where(employee.id.eq(1)).fetch())
+        .containsExactly(1);
+    assertThat(query().select(employee.id).from(employee).where(employee.id.eq(2)).fetch())
+        .containsExactly(2);
+    assertThat(query().select(employee.id).from(employee).where(employee.id.eq(2)).fetchCount())
+        .isEqualTo(1);
+    assertThat(cache.getMissCount()).isEqualTo(2);
+    assertThat(cache.getHitCount()).isEqualTo(1);
+    assertThat(cache.size()).isEqualTo(2);
+  }
+
+  @Test
+  public void statements_in_use_are_not_shared() {
+    SQLQuery<Integer> query = query().select(employee.id).from(employee).orderBy(employee.id.asc());
+    try (CloseableIterator<Integer> it = query.clone().iterate()) {
+      assertThat(it.hasNext()).isTrue();
+      List<Integer> ids = query.clone().fetch();
+      assertThat(it.next()).isEqualTo(ids.get(0));
+    }
+    assertThat(cache.getMissCount()).isEqualTo(2);
+    assertThat(cache.size()).isEqualTo(1);
+    assertThat(query.clone().fetch()).isNotEmpty();
+    assertThat(cache.getHitCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void statement_options_are_reset() {
+    SQLQuery<Integer> query = query().select(employee.id).from(employee);
+    int total = query.clone().fetch().size();
+    SQLQuery<Integer> limited = query.clone();
+    limited.setStatementOptions(StatementOptions.builder().setMaxRows(1).build());
+    assertThat(limited.fetch()).hasSize(1);
+    assertThat(query.clone().fetch()).hasSize(total);
+    assertThat(cache.getHitCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void clauses() {
+    for (int i = 0; i < 3; i++) {
+      new SQLUpdateClause(Connections.getConnection(), conf, survey)
+          .set(survey.name, "S" + i)
+          .where(survey.id.eq(-1))
+          .execute();
+    }
+    assertThat(cache.getMissCount()).isEqualTo(1);
+    assertThat(cache.getHitCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void least_recently_used_are_closed() throws SQLException {
+    Connection connection = Connections.getConnection();
+    PreparedStatement first = cache.prepareStatement(connection, "select 1");
+    PreparedStatement unwrapped = first.unwrap(PreparedStatement.class);
+    first.close();
+    assertThat(first.isClosed()).isTrue();
+    assertThat(unwrapped.isClosed()).isFalse();
+
+    cache.prepareStatement(connection, "select 2").close();
+    cache.prepareStatement(connection, "select 3").close();
+    assertThat(cache.size()).isEqualTo(2);
+    assertThat(unwrapped.isClosed()).isTrue();
+  }
+
+  @Test
+  public void evict() throws SQLException {
+    Connection connection = Connections.getConnection();
+    PreparedStatement stmt = cache.prepareStatement(connection, "select 1");
+    PreparedStatement unwrapped = stmt.unwrap(PreparedStatement.class);
+    stmt.close();
+    cache.evict(connection);
+    assertThat(cache.size()).isEqualTo(0);
+    assertThat(unwrapped.isClosed()).isTrue();
+  }
+
+  @Test
+  public void closed_connections_are_purged() throws SQLException {
+    Connection other = DriverManager.getConnection("jdbc:h2:mem:statementcache", "sa", "");
+    PreparedStatement stmt = cache.prepareStatement(other, "select 1");
+    stmt.close();
+    assertThat(cache.size()).isEqualTo(1);
+    other.close();
+
+    cache.prepareStatement(Connections.getConnection(), "select 1").close();
+    assertThat(cache.size()).isEqualTo(1);
+    assertThat(cache.getMissCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void hits_on_same_connection() throws SQLException {
+    Connection connection = Connections.getConnection();
+    for (int id : new int[] {1, 2}) {
+      assertThat(
+              new SQLQuery<Void>(connection, conf)
+                  .select(employee.id)
+                  .from(employee)
+                  .where(employee.id.eq(id))
+                  .fetch())
+          .containsExactly(id);
+    }
+    assertThat(cache.getMissCount()).isEqualTo(1);
+    assertThat(cache.getHitCount()).isEqualTo(1);
+
+    PreparedStatement stmt = cache.prepareStatement(connection, "select 1");
+    stmt.close();
+    assertThat(stmt.isClosed()).isTrue();
+    assertThatThrownBy(stmt::executeQuery).isInstanceOf(SQLException.class);
+  }
+}
@@ -1401,6 +1401,96 @@ public class SelectBase extends AbstractBaseTest {
     assertThat(results.getTotal()).isEqualTo(10);
   }
 
+  @Test
+  public void listResults_distinct() {
+    QueryResults<Integer> results =
+        query()
+            .from(employee)
+            .distinct()
+            .limit(2)
+            .orderBy(employee.superiorId.asc())
+            .select(employee.superiorId)
+            .fetchResults();
+    assertThat(results.getTotal())
+        .isEqualTo(query().from(employee).select(employee.superiorId).distinct().fetchCount());
+  }
+
+  @Test
+  public void listResults_empty() {
+    QueryResults<Integer> results =
+        query()
+            .from(employee)
+            .where(employee.id.lt(0))
+            .limit(2)
+            .orderBy(employee.id.asc())
+            .select(employee.id)
+            .fetchResults();
+    assertThat(results.getResults()).isEmpty();
+    assertThat(results.getTotal()).isEqualTo(0);
+  }
+
+  @Test
+  public void fetchSlice() {
+    SQLQuery<Integer> query = query().from(employee).orderBy(employee.id.asc()).select(employee.id);
+    List<Integer> ids = query.clone().fetch();
+
+    QuerySlice<Integer> first = query.clone().limit(3).fetchSlice();
+    assertThat(first.getResults()).isEqualTo(ids.subList(0, 3));
+    assertThat(first.hasNext()).isTrue();
+    assertThat(first.getLimit()).isEqualTo(3);
+
+    QuerySlice<Integer> last = query.clone().limit(3).offset(ids.size() - 3).fetchSlice();
+    assertThat(last.getResults()).isEqualTo(ids.subList(ids.size() - 3, ids.size()));
+    assertThat(last.hasNext()).isFalse();
+    assertThat(last.getOffset()).isEqualTo(ids.size() - 3);
+  }
+
+  @Test
+  @ExcludeIn(HSQLDB) // limit out of range
+  public void fetchSlice_max_limit() {
+    SQLQuery<Integer> query = query().from(employee).orderBy(employee.id.asc()).select(employee.id);
+    QuerySlice<Integer> all = query.clone().limit(Long.MAX_VALUE).fetchSlice();
+    assertThat(all.getResults()).isEqualTo(query.clone().fetch());
+    assertThat(all.hasNext()).isFalse();
+  }
+
+  @Test
+  public void fetchKeysetSlice() {
+    SQLQuery<Integer> query =
+        query()
+            .from(employee)
+            .orderBy(employee.superiorId.asc(), employee.id.asc())
+            .select(employee.id);
+    List<Integer> ids = query.clone().fetch();
+
+    List<Integer> paged = new ArrayList<>();
+    Keyset next = null;
+    do {
+      KeysetSlice<Integer> slice = query.clone().seek(next).limit(3).fetchKeysetSlice();
+      assertThat(slice.getResults().size()).isLessThanOrEqualTo(3);
+      paged.addAll(slice.getResults());
+      next = slice.getNext();
+    } while (next != null);
+    assertThat(paged).isEqualTo(ids);
+  }
+
+  @Test
+  public void fetchKeysetSlice_descending() {
+    SQLQuery<String> query =
+        query()
+            .from(employee)
+            .orderBy(employee.superiorId.desc(), employee.id.desc())
+            .select(employee.firstname);
+    List<String> names = query.clone().fetch();
+
+    KeysetSlice<String> first = query.clone().limit(4).fetchKeysetSlice();
+    assertThat(first.getResults()).isEqualTo(names.subList(0, 4));
+    assertThat(first.getNext().size()).isEqualTo(2);
+
+    KeysetSlice<String> second = query.clone().seek(first.getNext()).limit(4).fetchKeysetSlice();
+    assertThat(second.getResults()).isEqualTo(names.subList(4, 8));
+  }
+
   @Test
   @ExcludeIn({DB2, DERBY})
   public void literals() {
@@ -1697,6 +1787,214 @@ public class SelectBase extends AbstractBaseTest {
         .isEqualTo("Mike");
   }
 
+  @Test
+  public void prepare() {
+    Param<String> name = new Param<String>(String.class, "name");
+    PreparedSQLQuery<String> prepared =
+        query()
+            .from(employee)
+            .where(employee.firstname.eq(name))
+            .select(employee.lastname)
+            .prepare();
+
+    assertThat(prepared.set(name, "Mike").fetch()).containsExactly("Smith");
+    assertThat(prepared.set(name, "Mary").fetchOne()).isEqualTo("Smith");
+    assertThat(prepared.set(name, "Unknown").fetch()).isEmpty();
+  }
+
+  @Test
+  public void prepare_factoryExpression() {
+    Param<Integer> id = new Param<Integer>(Integer.class, "id");
+    PreparedSQLQuery<Employee> prepared =
+        query()
+            .from(employee)
+            .where(employee.id.eq(id))
+            .select(Projections.bean(Employee.class, employee.id, employee.firstname))
+            .prepare();
+
+    for (int i : Arrays.asList(1, 2, 10)) {
+      Employee e = prepared.set(id, i).fetchOne();
+      assertThat(e.getId()).isEqualTo(i);
+      assertThat(e.getFirstname()).isNotNull();
+    }
+  }
+
+  @Test
+  public void prepare_iterate() {
+    PreparedSQLQuery<Integer> prepared =
+        query().from(employee).orderBy(employee.id.asc()).select(employee.id).prepare();
+
+    List<Integer> ids = new ArrayList<>();
+    try (CloseableIterator<Integer> it = prepared.iterate()) {
+      while (it.hasNext()) {
+        ids.add(it.next());
+      }
+    }
+    assertThat(ids).isEqualTo(prepared.fetch());
+  }
+
+  @Test(expected = ParamNotSetException.class)
+  public void prepare_params_not_set() {
+    Param<String> name = new Param<String>(String.class, "name");
+    query()
+        .from(employee)
+        .where(employee.firstname.eq(name))
+        .select(employee.firstname)
+        .prepare()
+        .fetch();
+  }
+
+  @Test
+  public void forEach() {
+    List<Employee> employees = new ArrayList<>();
+    query()
+        .from(employee)
+        .orderBy(employee.id.asc())
+        .select(Projections.bean(Employee.class, employee.id, employee.firstname))
+        .forEach(employees::add);
+
+    List<Employee> expected =
+        query()
+            .from(employee)
+            .orderBy(employee.id.asc())
+            .select(Projections.bean(Employee.class, employee.id, employee.firstname))
+            .fetch();
+    assertThat(employees).hasSameSizeAs(expected);
+    for (int i = 0; i < expected.size(); i++) {
+      assertThat(employees.get(i).getId()).isEqualTo(expected.get(i).getId());
+      assertThat(employees.get(i).getFirstname()).isEqualTo(expected.get(i).getFirstname());
+    }
+  }
+
+  @Test
+  public void forEach_tuple() {
+    List<Tuple> tuples = new ArrayList<>();
+    query()
+        .from(employee)
+        .orderBy(employee.id.asc())
+        .select(employee.id, employee.firstname)
+        .forEach(tuples::add);
+
+    assertThat(tuples)
+        .isEqualTo(
+            query()
+                .from(employee)
+                .orderBy(employee.id.asc())
+                .select(employee.id, employee.firstname)
+                .fetch());
+  }
+
+  @Test
+  public void forEach_handler_exception() {
+    assertThrows(
+        QueryException.class,
+        () ->
+            query()
+                .from(employee)
+                .select(employee.id)
+                .forEach(
+                    id -> {
+                      throw new SQLException("handler failure");
+                    }));
+  }
+
+  @Test
+  public void fetchInto() {
+    List<String> names = new ArrayList<>();
+    query()
+        .from(employee)
+        .orderBy(employee.id.asc())
+        .select(employee.firstname)
+        .fetchInto(names::add);
+
+    assertThat(names)
+        .isEqualTo(
+            query().from(employee).orderBy(employee.id.asc()).select(employee.firstname).fetch());
+  }
+
+  @Test
+  public void fetchColumnar() {
+    List<Tuple> expected =
+        query()
+            .from(employee)
+            .orderBy(employee.id.asc())
+            .select(employee.id, employee.firstname, employee.superiorId, employee.salary)
+            .fetch();
+    List<Tuple> rows = new ArrayList<>();
+    try (CloseableIterator<ColumnBatch> batches =
+        query()
+            .from(employee)
+            .orderBy(employee.id.asc())
+            .select(employee.id, employee.firstname, employee.superiorId, employee.salary)
+            .fetchColumnar(3)) {
+      while (batches.hasNext()) {
+        ColumnBatch batch = batches.next();
+        assertThat(batch.size()).isBetween(1, 3);
+        assertThat(batch.getColumnType(0)).isEqualTo(long.class);
+        assertThat(batch.getColumnType(3)).isEqualTo(Object.class);
+        for (int i = 0; i < batch.size(); i++) {
+          rows.add(
+              Projections.tuple(
+                      employee.id, employee.firstname, employee.superiorId, employee.salary)
+                  .newInstance(
+                      (int) batch.getLongs(0)[i],
+                      batch.getStrings(1)[i],
+                      batch.isNull(2, i) ? null : (int) batch.getLongs(2)[i],
+                      batch.getObjects(3)[i]));
+        }
+      }
+    }
+    assertThat(rows).isEqualTo(expected);
+  }
+
+  @Test
+  public void fetchRows() {
+    List<Integer> ids = new ArrayList<>();
+    List<Integer> superiorIds = new ArrayList<>();
+    double[] salaries = {0.0};
+    query()
+        .from(employee)
+        .orderBy(employee.id.asc())
+        .select(employee.id, employee.superiorId, employee.salary)
+        .fetchRows(
+            row -> {
+              assertThat(row.size()).isEqualTo(3);
+              ids.add(row.getInt(0));
+              int superiorId = row.getInt(1);
+              superiorIds.add(row.wasNull() ? null : superiorId);
+              salaries[0] += row.getDouble(2);
+            });
+
+    assertThat(ids)
+        .isEqualTo(query().from(employee).orderBy(employee.id.asc()).select(employee.id).fetch());
+    assertThat(superiorIds)
+        .isEqualTo(
+            query().from(employee).orderBy(employee.id.asc()).select(employee.superiorId).fetch());
+    assertThat(salaries[0])
+        .isCloseTo(
+            query().from(employee).select(employee.salary.sumAggregate()).fetchOne().doubleValue(),
+            within(0.001));
+  }
+
+  @Test
+  public void fetchRows_single() {
+    List<Object> ids = new ArrayList<>();
+    long[] sum = {0L};
+    query()
+        .from(employee)
+        .select(employee.id)
+        .fetchRows(
+            row -> {
+              sum[0] += row.getLong(0);
+              ids.add(row.get(0));
+            });
+
+    assertThat(ids)
+        .containsExactlyInAnyOrderElementsOf(query().from(employee).select(employee.id).fetch());
+    assertThat(sum[0])
+        .isEqualTo(query().from(employee).select(employee.id.sumLong()).fetchOne().longValue());
+  }
+
   @Test
   @ExcludeIn({DB2, DERBY, FIREBIRD, HSQLDB, ORACLE, SQLSERVER})
   @SkipForQuoted
@@ -24,6 +24,7 @@ public class TemplatesTest extends TemplatesTestBase {
     new H2Templates();
     new HSQLDBTemplates();
     new MySQLTemplates();
+    new MySQL8Templates();
     new OracleTemplates();
     new PostgreSQLTemplates();
     new SQLTemplates("\"", '\\', false);
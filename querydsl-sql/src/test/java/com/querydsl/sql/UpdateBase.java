@@ -28,6 +28,8 @@ import com.querydsl.sql.dml.SQLUpdateClause;
 import com.querydsl.sql.domain.QEmployee;
 import com.querydsl.sql.domain.QSurvey;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import org.junit.After;
@@ -51,6 +53,26 @@ public class UpdateBase extends AbstractBaseTest {
     reset();
   }
 
+  @Test
+  public void executeByKeys() {
+    for (int i = 2; i < 10; i++) {
+      insert(survey).values(i, "A", "B").execute();
+    }
+    SQLUpdateClause update = update(survey).set(survey.name2, "C").where(survey.name.eq("A"));
+    update.setKeyChunkSize(3);
+
+    assertThat(update.executeByKeys(survey.id, Arrays.asList(1, 2, 3, 4, 5, 6, 7, 12)))
+        .isEqualTo(6);
+    assertThat(
+            query()
+                .from(survey)
+                .where(survey.name2.eq("C"))
+                .orderBy(survey.id.asc())
+                .select(survey.id)
+                .fetch())
+        .containsExactly(2, 3, 4, 5, 6, 7);
+  }
+
   @Test
   public void update() throws SQLException {
     // original state
@@ -150,6 +172,48 @@ public class UpdateBase extends AbstractBaseTest {
     assertThat(update.execute()).isEqualTo(2);
   }
 
+  @Test
+  public void batch_listener_order() throws SQLException {
+    RecordingListener listener = new RecordingListener();
+    SQLUpdateClause update = update(survey);
+    update.addListener(listener);
+    update.set(survey.name, "AA").where(survey.name.eq("A")).addBatch();
+    update.set(survey.name, "BB").where(survey.name.eq("B")).addBatch();
+
+    update.execute();
+    List<String> events =
+        new ArrayList<>(
+            Arrays.asList(
+                "start",
+                "preRender",
+                "rendered",
+                "prePrepare",
+                "prepared",
+                "preRender",
+                "rendered"));
+    if (configuration.getUseLiterals()) {
+      // each batch with literals is prepared as a statement of its own
+      events.addAll(Arrays.asList("prePrepare", "prepared"));
+    }
+    events.addAll(Arrays.asList("preExecute", "executed", "end"));
+    assertThat(listener.getEvents()).isEqualTo(events);
+  }
+
+  @Test
+  public void batch_values() throws SQLException {
+    assertThat(insert(survey).values(2, "A", "B").execute()).isEqualTo(1);
+    assertThat(insert(survey).values(3, "B", "C").execute()).isEqualTo(1);
+
+    SQLUpdateClause update = update(survey);
+    update.set(survey.name2, "AA").where(survey.id.eq(2)).addBatch();
+    update.set(survey.name2, "BB").where(survey.id.eq(3)).addBatch();
+    update.setNull(survey.name2).where(survey.id.eq(1)).addBatch();
+    assertThat(update.execute()).isEqualTo(3);
+
+    assertThat(query().from(survey).orderBy(survey.id.asc()).select(survey.name2).fetch())
+        .containsExactly(null, "AA", "BB");
+  }
+
   @Test
   public void batch_templates() throws SQLException {
     assertThat(insert(survey).values(2, "A", "B").execute()).isEqualTo(1);
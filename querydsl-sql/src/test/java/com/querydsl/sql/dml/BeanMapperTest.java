@@ -1,9 +1,17 @@
 package com.querydsl.sql.dml;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
 
 import com.querydsl.core.types.Path;
+import com.querydsl.core.types.dsl.StringPath;
+import com.querydsl.sql.ColumnMetadata;
+import com.querydsl.sql.RelationalPathBase;
+import com.querydsl.sql.domain.PrivateBeans;
 import com.querydsl.sql.domain.QEmployee;
+import com.querydsl.sql.types.Null;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import org.junit.Test;
 
@@ -27,4 +35,54 @@ public class BeanMapperTest extends AbstractMapperTest {
     Map<Path<?>, Object> values = BeanMapper.DEFAULT.createMap(emp, new EmployeeX());
     assertThat(values.isEmpty()).isTrue();
   }
+
+  @Test
+  public void extract_withNullBindings() {
+    employee.setId(3);
+    employee.setLastname(null);
+    Map<Path<?>, Object> values = BeanMapper.WITH_NULL_BINDINGS.createMap(emp, employee);
+    assertThat(values).containsEntry(emp.id, 3);
+    assertThat(values).containsEntry(emp.lastname, Null.DEFAULT);
+
+    employee.setId(null);
+    values = BeanMapper.WITH_NULL_BINDINGS.createMap(emp, employee);
+    assertThat(values).doesNotContainKey(emp.id);
+  }
+
+  @Test
+  public void populate() {
+    QEmployee e = new QEmployee("e");
+    List<Path<?>> columns = new ArrayList<>();
+    List<Object> values = new ArrayList<>();
+    BeanMapper.DEFAULT.populate(
+        e,
+        employee,
+        (path, value) -> {
+          columns.add(path);
+          values.add(value);
+        });
+    assertThat(columns)
+        .isEqualTo(new ArrayList<>(BeanMapper.DEFAULT.createMap(e, employee).keySet()));
+    assertThat(columns).contains(e.firstname, e.lastname).doesNotContain(emp.firstname);
+    assertThat(values).contains(employee.getFirstname(), employee.getLastname());
+  }
+
+  @Test
+  public void inaccessible_getter() {
+    QNamed named = new QNamed();
+    Object bean = PrivateBeans.named("a");
+    assertThat(BeanMapper.DEFAULT.createMap(named, bean)).isEmpty();
+    assertThat(BeanMapper.WITH_NULL_BINDINGS.createMap(named, bean))
+        .containsExactly(entry(named.name, Null.DEFAULT));
+  }
+
+  private static class QNamed extends RelationalPathBase<Object> {
+
+    private final StringPath name = createString("name");
+
+    QNamed() {
+      super(Object.class, "named", "PUBLIC", "NAMED");
+      addMetadata(name, ColumnMetadata.named("NAME"));
+    }
+  }
 }
@@ -0,0 +1,164 @@
+package com.querydsl.sql.dml;
+
+import static com.querydsl.sql.Constants.survey;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.querydsl.core.QueryException;
+import com.querydsl.core.testutil.H2;
+import com.querydsl.core.types.Path;
+import com.querydsl.sql.Configuration;
+import com.querydsl.sql.Connections;
+import com.querydsl.sql.H2Templates;
+import com.querydsl.sql.SQLBaseListener;
+import com.querydsl.sql.SQLCloseListener;
+import com.querydsl.sql.SQLListenerContext;
+import com.querydsl.sql.SQLQuery;
+import com.querydsl.sql.SQLQueryFactory;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(H2.class)
+public class SQLBulkInserterTest {
+
+  private static final Mapper<Integer> MAPPER =
+      (path, id) -> {
+        Map<Path<?>, Object> values = new LinkedHashMap<>();
+        values.put(survey.id, id);
+        values.put(survey.name, "name" + id);
+        return values;
+      };
+
+  private final List<Object> chunks = new ArrayList<>();
+
+  private final List<Integer> chunkRows = new ArrayList<>();
+
+  private Configuration configuration;
+
+  private Connection connection;
+
+  @Before
+  public void setUp() throws SQLException, ClassNotFoundException {
+    Connections.initH2();
+    connection = Connections.getConnection();
+    configuration = new Configuration(H2Templates.DEFAULT);
+    configuration.addListener(
+        new SQLBaseListener() {
+          @Override
+          public void end(SQLListenerContext context) {
+            if (context.getData(SQLBulkInserter.CHUNK) != null) {
+              chunks.add(context.getData(SQLBulkInserter.CHUNK));
+              chunkRows.add(context.getAllSQLBindings().size());
+            }
+          }
+        });
+    new SQLDeleteClause(connection, configuration, survey).where(survey.id.gt(1)).execute();
+  }
+
+  @After
+  public void tearDown() throws SQLException {
+    new SQLDeleteClause(connection, configuration, survey).where(survey.id.gt(1)).execute();
+    Connections.close();
+  }
+
+  private long count() {
+    return new SQLQuery<Void>(connection, configuration)
+        .from(survey)
+        .where(survey.id.gt(1))
+        .fetchCount();
+  }
+
+  @Test
+  public void insert() {
+    SQLBulkInserter<Integer> inserter =
+        new SQLBulkInserter<>(new SQLInsertClause(connection, configuration, survey), MAPPER);
+    inserter.setChunkSize(10);
+
+    assertThat(inserter.insert(IntStream.rangeClosed(2, 26).boxed())).isEqualTo(25);
+    assertThat(count()).isEqualTo(25);
+    assertThat(chunks).containsExactly(0, 1, 2);
+    assertThat(chunkRows).containsExactly(10, 10, 5);
+  }
+
+  @Test
+  public void insert_maxChunkBytes() {
+    SQLBulkInserter<Integer> inserter =
+        new SQLBulkInserter<>(new SQLInsertClause(connection, configuration, survey), MAPPER);
+    // id and a name of 5 characters per row
+    inserter.setMaxChunkBytes(36);
+
+    assertThat(inserter.insert(IntStream.rangeClosed(2, 9).boxed().iterator())).isEqualTo(8);
+    assertThat(count()).isEqualTo(8);
+    assertThat(chunkRows).containsExactly(2, 2, 2, 2);
+  }
+
+  @Test
+  public void clause_reuse() {
+    SQLInsertClause clause = new SQLInsertClause(connection, configuration, survey);
+    assertThat(new SQLBulkInserter<>(clause, MAPPER).insert(IntStream.of(2).boxed())).isEqualTo(1);
+    assertThat(new SQLBulkInserter<>(clause, MAPPER).insert(IntStream.of(3).boxed())).isEqualTo(1);
+    assertThat(clause.set(survey.id, 4).execute()).isEqualTo(1);
+    assertThat(chunks).containsExactly(0, 0);
+  }
+
+  @Test
+  public void insert_empty() {
+    SQLBulkInserter<Integer> inserter =
+        new SQLBulkInserter<>(new SQLInsertClause(connection, configuration, survey), MAPPER);
+
+    assertThat(inserter.insert(IntStream.empty().boxed())).isEqualTo(0);
+    assertThat(chunks).isEmpty();
+  }
+
+  @Test
+  public void insert_commitChunks() throws SQLException {
+    connection.setAutoCommit(false);
+    try {
+      SQLBulkInserter<Integer> inserter =
+          new SQLBulkInserter<>(new SQLInsertClause(connection, configuration, survey), MAPPER);
+      inserter.setChunkSize(4);
+      inserter.setCommitChunks(true);
+
+      assertThat(inserter.insert(IntStream.rangeClosed(2, 9).boxed())).isEqualTo(8);
+      connection.rollback();
+      assertThat(count()).isEqualTo(8);
+    } finally {
+      connection.setAutoCommit(true);
+    }
+  }
+
+  @Test
+  public void insert_closeListener() throws SQLException {
+    configuration.addListener(SQLCloseListener.DEFAULT);
+    AtomicReference<Connection> opened = new AtomicReference<>();
+    SQLQueryFactory queryFactory =
+        new SQLQueryFactory(
+            configuration,
+            () -> {
+              try {
+                opened.set(Connections.getH2());
+                return opened.get();
+              } catch (SQLException | ClassNotFoundException e) {
+                throw new QueryException(e);
+              }
+            });
+    SQLBulkInserter<Integer> inserter = new SQLBulkInserter<>(queryFactory.insert(survey), MAPPER);
+    inserter.setChunkSize(2);
+
+    assertThat(inserter.insert(IntStream.rangeClosed(2, 6).boxed())).isEqualTo(5);
+    assertThat(chunks).containsExactly(0, 1, 2);
+    // the connection is closed once after the last chunk
+    assertThat(opened.get().isClosed()).isTrue();
+    configuration.getListeners().getListeners().remove(SQLCloseListener.DEFAULT);
+    assertThat(count()).isEqualTo(5);
+  }
+}
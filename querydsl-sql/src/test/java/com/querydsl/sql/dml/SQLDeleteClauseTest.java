@@ -2,10 +2,18 @@ package com.querydsl.sql.dml;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.querydsl.core.types.Constant;
+import com.querydsl.core.types.Operation;
+import com.querydsl.core.types.Predicate;
 import com.querydsl.sql.KeyAccessorsTest.QEmployee;
 import com.querydsl.sql.SQLBindings;
+import com.querydsl.sql.SQLServerTemplates;
 import com.querydsl.sql.SQLTemplates;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import org.junit.Ignore;
 import org.junit.Test;
 
@@ -49,4 +57,46 @@ public class SQLDeleteClauseTest {
     delete.clear();
     assertThat(delete.getBatchCount()).isEqualTo(0);
   }
+
+  private static List<Integer> getKeys(Predicate condition) {
+    Constant<?> keys = (Constant<?>) ((Operation<?>) condition).getArg(1);
+    return ((Collection<?>) keys.getConstant())
+        .stream().map(Integer.class::cast).collect(Collectors.toList());
+  }
+
+  @Test
+  public void keyConditions_parameter_limit() {
+    QEmployee emp1 = new QEmployee("emp1");
+    SQLDeleteClause delete = new SQLDeleteClause(null, SQLServerTemplates.DEFAULT, emp1);
+    List<Integer> keys = IntStream.range(0, 3000).boxed().collect(Collectors.toList());
+
+    // 2100 - 100 - 1 parameters are available, of which 1024 are used per chunk
+    List<Predicate> conditions = delete.getKeyConditions(emp1.id, keys, 5000, 100, false);
+    assertThat(conditions).hasSize(3);
+    assertThat(getKeys(conditions.get(0))).hasSize(1024).startsWith(0).endsWith(1023);
+    assertThat(getKeys(conditions.get(1))).hasSize(1024).startsWith(1024).endsWith(2047);
+    // the last chunk is padded with its last key
+    List<Integer> last = getKeys(conditions.get(2));
+    assertThat(last).hasSize(1024).startsWith(2048);
+    assertThat(last.subList(951, 1024)).containsOnly(2999);
+  }
+
+  @Test
+  public void keyConditions_chunk_size() {
+    QEmployee emp1 = new QEmployee("emp1");
+    SQLDeleteClause delete = new SQLDeleteClause(null, SQLServerTemplates.DEFAULT, emp1);
+    List<Integer> keys = IntStream.range(0, 5).boxed().collect(Collectors.toList());
+
+    List<Predicate> conditions = delete.getKeyConditions(emp1.id, keys, 3, 0, false);
+    assertThat(conditions).hasSize(2);
+    assertThat(getKeys(conditions.get(0))).containsExactly(0, 1, 2);
+    assertThat(getKeys(conditions.get(1))).containsExactly(3, 4, 4);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void keyConditions_no_room_for_keys() {
+    QEmployee emp1 = new QEmployee("emp1");
+    SQLDeleteClause delete = new SQLDeleteClause(null, SQLServerTemplates.DEFAULT, emp1);
+    delete.getKeyConditions(emp1.id, Collections.singletonList(1), 500, 2099, false);
+  }
 }
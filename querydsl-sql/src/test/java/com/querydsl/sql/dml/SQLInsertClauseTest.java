@@ -5,8 +5,11 @@ import static org.assertj.core.api.Assertions.assertThat;
 import com.querydsl.core.QueryFlag;
 import com.querydsl.sql.KeyAccessorsTest.QEmployee;
 import com.querydsl.sql.SQLBindings;
+import com.querydsl.sql.SQLServer2012Templates;
+import com.querydsl.sql.SQLServerTemplates;
 import com.querydsl.sql.SQLTemplates;
 import java.util.Collections;
+import java.util.List;
 import org.junit.Test;
 
 public class SQLInsertClauseTest {
@@ -44,6 +47,63 @@ public class SQLInsertClauseTest {
         .isEqualTo("insert into EMPLOYEE (ID)\n" + "values (?), (?) on duplicate key ignore");
   }
 
+  @Test
+  public void output_inserted() {
+    QEmployee emp1 = new QEmployee("emp1");
+    SQLInsertClause insert = new SQLInsertClause(null, new SQLServer2012Templates(), emp1);
+    insert.set(emp1.id, 1);
+    insert.addFlag(QueryFlag.Position.AFTER_PROJECTION, "\noutput inserted.ID");
+
+    assertThat(new SQLServer2012Templates().isOutputInsertedSupported()).isTrue();
+    assertThat(SQLTemplates.DEFAULT.isOutputInsertedSupported()).isFalse();
+    assertThat(insert.getSQL().get(0).getSQL())
+        .isEqualTo("insert into EMPLOYEE (ID)\noutput inserted.ID\nvalues (?)");
+  }
+
+  @Test
+  public void bulk_chunks() {
+    QEmployee emp1 = new QEmployee("emp1");
+    SQLInsertClause insert = new SQLInsertClause(null, SQLServerTemplates.DEFAULT, emp1);
+    insert.setBatchToBulk(true);
+    for (int i = 0; i < 3000; i++) {
+      insert.set(emp1.id, i).addBatch();
+    }
+
+    List<SQLBindings> sql = insert.getSQL();
+    assertThat(sql)
+        .extracting(bindings -> bindings.getNullFriendlyBindings().size())
+        .containsExactly(2048, 952);
+    assertThat(sql.get(1).getNullFriendlyBindings()).startsWith(2048).endsWith(2999);
+  }
+
+  @Test
+  public void bulk_chunks_unlimited() {
+    QEmployee emp1 = new QEmployee("emp1");
+    SQLInsertClause insert = new SQLInsertClause(null, SQLTemplates.DEFAULT, emp1);
+    insert.setBatchToBulk(true);
+    for (int i = 0; i < 1000; i++) {
+      insert.set(emp1.id, i).addBatch();
+    }
+
+    assertThat(insert.getSQL())
+        .extracting(bindings -> bindings.getNullFriendlyBindings().size())
+        .containsExactly(1000);
+  }
+
+  @Test
+  public void bulk_chunks_within_limit() {
+    QEmployee emp1 = new QEmployee("emp1");
+    SQLInsertClause insert = new SQLInsertClause(null, SQLServerTemplates.DEFAULT, emp1);
+    insert.setBatchToBulk(true);
+    for (int i = 0; i < 2000; i++) {
+      insert.set(emp1.id, i).addBatch();
+    }
+
+    assertThat(insert.getSQL())
+        .extracting(bindings -> bindings.getNullFriendlyBindings().size())
+        .containsExactly(2000);
+  }
+
   @Test
   public void getSQLWithPreservedColumnOrder() {
     com.querydsl.sql.domain.QEmployee emp1 = new com.querydsl.sql.domain.QEmployee("emp1");
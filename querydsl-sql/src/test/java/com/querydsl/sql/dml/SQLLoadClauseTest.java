@@ -0,0 +1,84 @@
+package com.querydsl.sql.dml;
+
+import static com.querydsl.sql.Constants.survey;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.sql.MySQLTemplates;
+import com.querydsl.sql.PostgreSQLTemplates;
+import com.querydsl.sql.mysql.MySQLLoadDataClause;
+import com.querydsl.sql.postgresql.PostgreSQLCopyInsertClause;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import org.junit.Test;
+
+public class SQLLoadClauseTest {
+
+  private static String read(AbstractSQLLoadClause<?> clause) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (InputStream in = clause.createInputStream()) {
+      byte[] buffer = new byte[7];
+      int read;
+      while ((read = in.read(buffer)) != -1) {
+        out.write(buffer, 0, read);
+      }
+    }
+    return new String(out.toByteArray(), StandardCharsets.UTF_8);
+  }
+
+  @Test
+  public void copy() throws IOException {
+    PostgreSQLCopyInsertClause copy =
+        new PostgreSQLCopyInsertClause(null, new PostgreSQLTemplates(), survey);
+    copy.set(survey.id, 2).set(survey.name, "a\tb\\c\nd").setNull(survey.name2).addBatch();
+    copy.set(survey.name2, "ä").set(survey.name, null).set(survey.id, 3).addBatch();
+
+    assertThat(copy.getBatchCount()).isEqualTo(2);
+    assertThat(copy.getSQL().get(0).getSQL()).isEqualTo("copy SURVEY (ID, NAME, NAME2) from stdin");
+    assertThat(read(copy)).isEqualTo("2\ta\\tb\\\\c\\nd\t\\N\n3\t\\N\tä\n");
+  }
+
+  @Test
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  public void copy_binary() throws IOException {
+    PostgreSQLCopyInsertClause copy =
+        new PostgreSQLCopyInsertClause(null, new PostgreSQLTemplates(), survey);
+    copy.set(survey.id, 1).set((Path) survey.name, new byte[] {1, -1});
+    copy.addBatch();
+
+    assertThat(read(copy)).isEqualTo("1\t\\\\x01ff\n");
+  }
+
+  @Test
+  public void loadData() throws IOException {
+    MySQLLoadDataClause load = new MySQLLoadDataClause(null, new MySQLTemplates(), survey);
+    load.set(survey.id, 2).set(survey.name, "x\r").addBatch();
+
+    assertThat(load.toString())
+        .isEqualTo(
+            "load data local infile 'stream' into table SURVEY character set utf8mb4 (ID, NAME)");
+    assertThat(read(load)).isEqualTo("2\tx\\r\n");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void different_columns() {
+    MySQLLoadDataClause load = new MySQLLoadDataClause(null, new MySQLTemplates(), survey);
+    load.set(survey.id, 2).set(survey.name, "x").addBatch();
+    load.set(survey.id, 3).set(survey.name2, "y").addBatch();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  public void non_constant() {
+    MySQLLoadDataClause load = new MySQLLoadDataClause(null, new MySQLTemplates(), survey);
+    load.set((Path) survey.name, Expressions.stringPath("x")).addBatch();
+  }
+
+  @Test
+  public void execute_empty() {
+    assertThat(new MySQLLoadDataClause(null, new MySQLTemplates(), survey).execute()).isZero();
+  }
+}
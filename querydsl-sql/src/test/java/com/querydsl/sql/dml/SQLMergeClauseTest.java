@@ -1,13 +1,28 @@
 package com.querydsl.sql.dml;
 
+import static com.querydsl.sql.Constants.survey;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import com.querydsl.sql.H2Templates;
 import com.querydsl.sql.KeyAccessorsTest;
+import com.querydsl.sql.MySQL8Templates;
+import com.querydsl.sql.MySQLTemplates;
+import com.querydsl.sql.PostgreSQLTemplates;
+import com.querydsl.sql.SQLBindings;
+import com.querydsl.sql.SQLExpressions;
+import com.querydsl.sql.SQLTemplates;
+import com.querydsl.sql.domain.QSurvey;
+import java.util.List;
 import org.junit.Test;
 
 public class SQLMergeClauseTest {
 
+  private static final SQLTemplates POSTGRESQL = PostgreSQLTemplates.builder().upsert().build();
+
+  private static final SQLTemplates MYSQL = MySQLTemplates.builder().upsert().build();
+
+  private static final SQLTemplates MYSQL8 = MySQL8Templates.builder().upsert().build();
+
   @Test
   public void clear() {
     KeyAccessorsTest.QEmployee emp1 = new KeyAccessorsTest.QEmployee("emp1");
@@ -18,4 +33,121 @@ public class SQLMergeClauseTest {
     merge.clear();
     assertThat(merge.getBatchCount()).isEqualTo(0);
   }
+
+  @Test
+  public void upsert_postgresql() {
+    SQLMergeClause merge = new SQLMergeClause(null, POSTGRESQL, survey);
+    merge.keys(survey.id).set(survey.id, 1).set(survey.name, "Hello");
+
+    assertThat(merge.toString())
+        .isEqualTo(
+            "insert into SURVEY (ID, NAME)\nvalues (?, ?)\n"
+                + "on conflict (ID) do update set NAME = excluded.NAME");
+  }
+
+  @Test
+  public void upsert_postgresql_primary_key() {
+    SQLMergeClause merge = new SQLMergeClause(null, POSTGRESQL, survey);
+    merge.set(survey.id, 1);
+
+    assertThat(merge.toString())
+        .isEqualTo("insert into SURVEY (ID)\nvalues (?)\non conflict (ID) do nothing");
+  }
+
+  @Test
+  public void upsert_mysql() {
+    SQLMergeClause merge = new SQLMergeClause(null, MYSQL, survey);
+    merge.keys(survey.id).set(survey.id, 1).set(survey.name, "Hello").set(survey.name2, "World");
+
+    assertThat(merge.toString())
+        .isEqualTo(
+            "insert into SURVEY (ID, NAME, NAME2)\nvalues (?, ?, ?)\n"
+                + "on duplicate key update NAME = values(NAME), NAME2 = values(NAME2)");
+  }
+
+  @Test
+  public void upsert_mysql8() {
+    SQLMergeClause merge = new SQLMergeClause(null, MYSQL8, survey);
+    merge.keys(survey.id).set(survey.id, 1).set(survey.name, "Hello").set(survey.name2, "World");
+
+    assertThat(merge.toString())
+        .isEqualTo(
+            "insert into SURVEY (ID, NAME, NAME2)\nvalues (?, ?, ?)\n"
+                + "as new on duplicate key update NAME = new.NAME, NAME2 = new.NAME2");
+  }
+
+  @Test
+  public void upsert_mysql8_subQuery() {
+    QSurvey survey2 = new QSurvey("survey2");
+    SQLMergeClause merge = new SQLMergeClause(null, MYSQL8, survey);
+    merge
+        .keys(survey.id)
+        .columns(survey.id, survey.name)
+        .select(SQLExpressions.select(survey2.id, survey2.name).from(survey2));
+
+    assertThat(merge.toString()).endsWith("\non duplicate key update NAME = values(NAME)");
+  }
+
+  @Test
+  public void upsert_bulk() {
+    SQLMergeClause merge = new SQLMergeClause(null, POSTGRESQL, survey);
+    merge.setBatchToBulk(true);
+    for (int i = 0; i < 3; i++) {
+      merge.keys(survey.id).set(survey.id, i).set(survey.name, "name" + i).addBatch();
+    }
+
+    List<SQLBindings> sql = merge.getSQL();
+    assertThat(sql).hasSize(2);
+    assertThat(sql.get(0).getSQL())
+        .isEqualTo(
+            "insert into SURVEY (ID, NAME)\nvalues (?, ?), (?, ?)\n"
+                + "on conflict (ID) do update set NAME = excluded.NAME");
+    assertThat(sql.get(0).getNullFriendlyBindings()).containsExactly(0, "name0", 1, "name1");
+    assertThat(sql.get(1).getNullFriendlyBindings()).containsExactly(2, "name2");
+  }
+
+  @Test
+  public void merge_bulk() {
+    SQLMergeClause merge = new SQLMergeClause(null, new H2Templates(), survey);
+    merge.setBatchToBulk(true);
+    merge.keys(survey.id).set(survey.id, 1).set(survey.name, "a").addBatch();
+    merge.keys(survey.id).set(survey.id, 2).set(survey.name, "b").addBatch();
+
+    List<SQLBindings> sql = merge.getSQL();
+    assertThat(sql).hasSize(1);
+    assertThat(sql.get(0).getSQL())
+        .isEqualTo("merge into SURVEY (ID, NAME) key(ID) \nvalues (?, ?), (?, ?) ");
+  }
+
+  @Test
+  public void upsert_opt_in() {
+    assertThat(new PostgreSQLTemplates().isNativeMerge()).isFalse();
+    assertThat(new MySQLTemplates().isNativeMerge()).isFalse();
+    assertThat(POSTGRESQL.isNativeMerge()).isTrue();
+  }
+
+  @Test
+  public void upsert_other_keys() {
+    SQLMergeClause merge = new SQLMergeClause(null, POSTGRESQL, survey);
+    merge.keys(survey.name).set(survey.id, 1).set(survey.name, "Hello");
+    assertThat(merge.isNativeMerge()).isFalse();
+
+    merge.clear();
+    merge.keys(survey.id).set(survey.id, 1).set(survey.name, "Hello");
+    assertThat(merge.isNativeMerge()).isTrue();
+  }
+
+  @Test
+  public void upsert_bulk_repeated_key() {
+    SQLMergeClause merge = new SQLMergeClause(null, POSTGRESQL, survey);
+    merge.setBatchToBulk(true);
+    for (int id : new int[] {1, 2, 1, 3}) {
+      merge.keys(survey.id).set(survey.id, id).set(survey.name, "name" + id).addBatch();
+    }
+
+    List<SQLBindings> sql = merge.getSQL();
+    assertThat(sql).hasSize(2);
+    assertThat(sql.get(0).getNullFriendlyBindings()).containsExactly(1, "name1", 2, "name2");
+    assertThat(sql.get(1).getNullFriendlyBindings()).containsExactly(1, "name1", 3, "name3");
+  }
 }
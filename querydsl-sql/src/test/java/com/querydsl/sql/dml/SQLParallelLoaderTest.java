@@ -0,0 +1,108 @@
+package com.querydsl.sql.dml;
+
+import static com.querydsl.sql.Constants.survey;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.querydsl.core.QueryException;
+import com.querydsl.core.testutil.H2;
+import com.querydsl.sql.Configuration;
+import com.querydsl.sql.Connections;
+import com.querydsl.sql.H2Templates;
+import com.querydsl.sql.SQLCloseListener;
+import com.querydsl.sql.SQLQueryFactory;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(H2.class)
+public class SQLParallelLoaderTest {
+
+  private final Set<Connection> connections = ConcurrentHashMap.newKeySet();
+
+  private SQLQueryFactory queryFactory;
+
+  @Before
+  public void setUp() throws SQLException, ClassNotFoundException {
+    Connections.initH2();
+    Configuration configuration = new Configuration(H2Templates.DEFAULT);
+    configuration.addListener(SQLCloseListener.DEFAULT);
+    queryFactory =
+        new SQLQueryFactory(
+            configuration,
+            () -> {
+              try {
+                Connection connection = Connections.getH2();
+                connections.add(connection);
+                return connection;
+              } catch (SQLException | ClassNotFoundException e) {
+                throw new QueryException(e);
+              }
+            });
+    queryFactory.delete(survey).where(survey.id.gt(1)).execute();
+  }
+
+  @After
+  public void tearDown() throws SQLException {
+    queryFactory.delete(survey).where(survey.id.gt(1)).execute();
+    Connections.close();
+  }
+
+  private SQLParallelLoader<Integer, SQLInsertClause> createLoader() {
+    return new SQLParallelLoader<>(
+        queryFactory.getConfiguration(),
+        () -> queryFactory.insert(survey),
+        (insert, id) -> insert.set(survey.id, id).set(survey.name, "name" + id).addBatch());
+  }
+
+  @Test
+  public void load() throws SQLException {
+    SQLParallelLoader<Integer, SQLInsertClause> loader = createLoader();
+    loader.setWorkers(3);
+    loader.setBatchSize(7);
+    loader.setQueueSize(1);
+    connections.clear();
+
+    assertThat(loader.load(IntStream.rangeClosed(2, 101).boxed())).isEqualTo(100);
+    // one connection per worker, which is closed at the end
+    assertThat(connections).hasSize(3);
+    for (Connection connection : connections) {
+      assertThat(connection.isClosed()).isTrue();
+    }
+    assertThat(queryFactory.from(survey).where(survey.id.gt(1)).fetchCount()).isEqualTo(100);
+  }
+
+  @Test
+  public void load_empty() {
+    assertThat(createLoader().load(IntStream.empty().boxed())).isEqualTo(0);
+  }
+
+  @Test
+  public void load_failure() {
+    SQLParallelLoader<Integer, SQLInsertClause> loader =
+        new SQLParallelLoader<>(
+            queryFactory.getConfiguration(),
+            () -> queryFactory.insert(survey),
+            (insert, id) -> {
+              if (id == 40) {
+                throw new IllegalArgumentException("invalid id " + id);
+              }
+              insert.set(survey.id, id).set(survey.name, "name" + id).addBatch();
+            });
+    loader.setWorkers(2);
+    loader.setBatchSize(10);
+
+    try {
+      loader.load(IntStream.rangeClosed(2, 101).boxed());
+      throw new AssertionError("Expected failure");
+    } catch (BatchExecutionException e) {
+      assertThat(e.getBatchIndex()).isEqualTo(3);
+      assertThat(e.getCause()).isInstanceOf(IllegalArgumentException.class);
+    }
+  }
+}
@@ -0,0 +1,248 @@
+package com.querydsl.sql.metrics;
+
+import static com.querydsl.sql.Constants.employee;
+import static com.querydsl.sql.Constants.survey;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+import com.mysema.commons.lang.CloseableIterator;
+import com.querydsl.core.testutil.H2;
+import com.querydsl.sql.ColumnBatch;
+import com.querydsl.sql.Configuration;
+import com.querydsl.sql.Connections;
+import com.querydsl.sql.H2Templates;
+import com.querydsl.sql.SQLQuery;
+import com.querydsl.sql.dml.SQLDeleteClause;
+import com.querydsl.sql.dml.SQLInsertClause;
+import com.querydsl.sql.dml.SQLUpdateClause;
+import java.lang.management.ManagementFactory;
+import java.sql.SQLException;
+import java.util.List;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(H2.class)
+public class MetricsSQLListenerTest {
+
+  private MetricsSQLListener listener;
+
+  private Configuration conf;
+
+  @Before
+  public void setUp() throws SQLException, ClassNotFoundException {
+    Connections.initH2();
+    listener = new MetricsSQLListener();
+    conf = new Configuration(H2Templates.DEFAULT);
+    conf.addListener(listener);
+  }
+
+  @After
+  public void tearDown() throws SQLException {
+    Connections.close();
+  }
+
+  private SQLQuery<?> query() {
+    return new SQLQuery<Void>(Connections.getConnection(), conf);
+  }
+
+  @Test
+  public void fingerprint() {
+    assertThat(
+            MetricsSQLListener.fingerprint(
+                "select e.ID, 'a''b'\n  from EMPLOYEE e\nwhere e.ID in (1, 2, 3) and e.SALARY > 1.5"))
+        .isEqualTo("select e.ID, ? from EMPLOYEE e where e.ID in (?) and e.SALARY > ?");
+    assertThat(MetricsSQLListener.fingerprint("insert into T1 (\"A 1\", B) values (?, ?), (?, ?)"))
+        .isEqualTo("insert into T1 (\"A 1\", B) values (?)");
+  }
+
+  @Test
+  public void queries() {
+    List<Integer> ids = query().select(employee.id).from(employee).fetch();
+    long rows = 0;
+    for (int i = 0; i < 3; i++) {
+      rows +=
+          query()
+              .select(employee.id)
+              .from(employee)
+              .where(employee.id.in(ids.get(i), ids.get(i + 1)))
+              .fetch()
+              .size();
+    }
+    SQLQuery<Integer> in = query().select(employee.id).from(employee).where(employee.id.in(1, 2));
+    QueryMetrics metrics =
+        listener.getMetrics(MetricsSQLListener.fingerprint(in.getSQL().getSQL()));
+    assertThat(metrics.getExecutionCount()).isEqualTo(3);
+    assertThat(metrics.getErrorCount()).isEqualTo(0);
+    assertThat(metrics.getRows().getSum()).isEqualTo(rows).isEqualTo(6);
+    assertThat(metrics.getRows().getMax()).isEqualTo(2);
+    assertThat(metrics.getRenderTime().getCount()).isEqualTo(3);
+    assertThat(metrics.getPrepareTime().getCount()).isEqualTo(3);
+    assertThat(metrics.getFetchTime().getCount()).isEqualTo(3);
+    assertThat(metrics.getExecuteTime().getValueAtPercentile(100.0))
+        .isEqualTo(metrics.getExecuteTime().getMax());
+
+    SQLQuery<Integer> all = query().select(employee.id).from(employee);
+    assertThat(
+            listener
+                .getMetrics(MetricsSQLListener.fingerprint(all.getSQL().getSQL()))
+                .getRows()
+                .getMax())
+        .isEqualTo(ids.size());
+    assertThat(listener.getMetrics()).hasSize(2);
+  }
+
+  @Test
+  public void iterate() {
+    SQLQuery<Integer> query = query().select(employee.id).from(employee);
+    try (CloseableIterator<Integer> it = query.clone().iterate()) {
+      it.next();
+      it.next();
+    }
+    QueryMetrics metrics =
+        listener.getMetrics(MetricsSQLListener.fingerprint(query.getSQL().getSQL()));
+    assertThat(metrics.getRows().getMax()).isEqualTo(2);
+  }
+
+  @Test
+  public void columnar() {
+    SQLQuery<Integer> query = query().select(employee.id).from(employee);
+    int total = query.clone().fetch().size();
+    try (CloseableIterator<ColumnBatch> it = query.clone().fetchColumnar(3)) {
+      while (it.hasNext()) {
+        it.next();
+      }
+    }
+    QueryMetrics metrics =
+        listener.getMetrics(MetricsSQLListener.fingerprint(query.getSQL().getSQL()));
+    assertThat(metrics.getRows().getMax()).isEqualTo(total);
+  }
+
+  @Test
+  public void insert_batch_with_keys() {
+    SQLInsertClause insert = new SQLInsertClause(Connections.getConnection(), conf, survey);
+    insert.set(survey.name, "metrics").addBatch();
+    insert.set(survey.name, "metrics").addBatch();
+    String fingerprint = MetricsSQLListener.fingerprint(insert.getSQL().get(0).getSQL());
+    try {
+      assertThat(insert.executeWithKeys(survey.id)).hasSize(2);
+      assertThat(listener.getMetrics(fingerprint).getRows().getMax()).isEqualTo(2);
+    } finally {
+      new SQLDeleteClause(Connections.getConnection(), conf, survey)
+          .where(survey.name.eq("metrics"))
+          .execute();
+    }
+  }
+
+  @Test
+  public void clauses() {
+    SQLUpdateClause update =
+        new SQLUpdateClause(Connections.getConnection(), conf, survey)
+            .set(survey.name, "S")
+            .where(survey.id.eq(-1));
+    String fingerprint = MetricsSQLListener.fingerprint(update.getSQL().get(0).getSQL());
+    update.execute();
+    QueryMetrics metrics = listener.getMetrics(fingerprint);
+    assertThat(metrics.getExecutionCount()).isEqualTo(1);
+    assertThat(metrics.getRows().getMax()).isEqualTo(0);
+  }
+
+  @Test
+  public void errors() {
+    SQLQuery<Integer> query =
+        query().select(employee.id).from(employee).where(employee.id.divide(0).eq(1));
+    try {
+      query.clone().fetch();
+      fail("Expected exception");
+    } catch (RuntimeException e) {
+      // expected
+    }
+    QueryMetrics metrics =
+        listener.getMetrics(MetricsSQLListener.fingerprint(query.getSQL().getSQL()));
+    assertThat(metrics.getErrorCount()).isEqualTo(1);
+    assertThat(metrics.getExecutionCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void max_fingerprints() {
+    listener = new MetricsSQLListener(1);
+    conf.addListener(listener);
+    query().select(employee.id).from(employee).fetch();
+    query().select(employee.firstname).from(employee).fetch();
+    query().select(employee.lastname).from(employee).fetch();
+    assertThat(listener.getMetrics()).hasSize(2);
+    assertThat(listener.getMetrics(MetricsSQLListener.OTHER).getExecutionCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void jmx() throws Exception {
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    JmxMetricsExporter exporter = new JmxMetricsExporter(server, "com.querydsl.sql.test");
+    query().select(employee.id).from(employee).fetch();
+    listener.addExporter(exporter);
+    QueryMetrics metrics = listener.getMetrics().iterator().next();
+    ObjectName name = exporter.getObjectName(metrics);
+    assertThat(server.isRegistered(name)).isTrue();
+    assertThat(server.getAttribute(name, "ExecutionCount")).isEqualTo(1L);
+    assertThat(server.getAttribute(name, "Fingerprint")).isEqualTo(metrics.getFingerprint());
+
+    listener.clear();
+    assertThat(server.isRegistered(name)).isFalse();
+    assertThat(listener.getMetrics()).isEmpty();
+    listener.removeExporter(exporter);
+  }
+
+  @Test
+  public void jmx_several_listeners() throws Exception {
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    JmxMetricsExporter exporter = new JmxMetricsExporter(server, "com.querydsl.sql.test");
+    MetricsSQLListener other = new MetricsSQLListener();
+    conf.addListener(other);
+    query().select(employee.id).from(employee).fetch();
+    listener.addExporter(exporter);
+    other.addExporter(exporter);
+    ObjectName name = exporter.getObjectName(listener.getMetrics().iterator().next());
+    ObjectName otherName = exporter.getObjectName(other.getMetrics().iterator().next());
+    assertThat(name).isNotEqualTo(otherName);
+    assertThat(server.isRegistered(name)).isTrue();
+    assertThat(server.isRegistered(otherName)).isTrue();
+
+    listener.removeExporter(exporter);
+    other.removeExporter(exporter);
+    assertThat(server.isRegistered(name)).isFalse();
+    assertThat(server.isRegistered(otherName)).isFalse();
+  }
+
+  @Test
+  public void histogram() {
+    Histogram histogram = new Histogram();
+    for (long i = 1; i <= 1000; i++) {
+      histogram.record(i);
+    }
+    assertThat(histogram.getCount()).isEqualTo(1000);
+    assertThat(histogram.getSum()).isEqualTo(500500);
+    assertThat(histogram.getMax()).isEqualTo(1000);
+    assertThat(histogram.getMean()).isEqualTo(500.5);
+    assertThat(histogram.getValueAtPercentile(0.1)).isEqualTo(1);
+    assertThat(histogram.getValueAtPercentile(50.0)).isBetween(500L, 500L + 500 / 8);
+    assertThat(histogram.getValueAtPercentile(99.0)).isBetween(990L, 1000L);
+    assertThat(histogram.getValueAtPercentile(100.0)).isEqualTo(1000);
+  }
+
+  @Test
+  public void histogram_buckets() {
+    for (long value : new long[] {0, 7, 8, 15, 16, 17, 1000, 123456789, Long.MAX_VALUE}) {
+      int index = Histogram.indexOf(value);
+      assertThat(Histogram.highestValueOf(index))
+          .isGreaterThanOrEqualTo(Math.min(value, (1L << 44) - 1));
+      if (index > 0) {
+        assertThat(Histogram.highestValueOf(index - 1)).isLessThan(value);
+      }
+    }
+    assertThat(Histogram.indexOf(15)).isEqualTo(15);
+    assertThat(Histogram.indexOf(16)).isEqualTo(Histogram.indexOf(17));
+  }
+}